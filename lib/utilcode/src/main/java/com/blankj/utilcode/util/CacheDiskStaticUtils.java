@@ -7,7 +7,12 @@ import android.os.Parcelable;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.Map;
 
 import androidx.annotation.NonNull;
 
@@ -74,6 +79,16 @@ public final class CacheDiskStaticUtils {
         return getBytes(key, defaultValue, getDefaultCacheDiskUtils());
     }
 
+    /**
+     * Return the read-only buffer of bytes in cache.
+     *
+     * @param key The key of cache.
+     * @return the read-only buffer if cache exists or null otherwise
+     */
+    public static ByteBuffer getByteBuffer(@NonNull final String key) {
+        return getByteBuffer(key, getDefaultCacheDiskUtils());
+    }
+
     ///////////////////////////////////////////////////////////////////////////
     // about String
     ///////////////////////////////////////////////////////////////////////////
@@ -407,6 +422,41 @@ public final class CacheDiskStaticUtils {
         return getSerializable(key, defaultValue, getDefaultCacheDiskUtils());
     }
 
+    ///////////////////////////////////////////////////////////////////////////
+    // about stream
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Open an output stream which writes bytes in cache.
+     *
+     * @param key The key of cache.
+     * @return the output stream if it can be opened or null otherwise
+     */
+    public static OutputStream openOutputStream(@NonNull final String key) {
+        return openOutputStream(key, getDefaultCacheDiskUtils());
+    }
+
+    /**
+     * Open an output stream which writes bytes in cache.
+     *
+     * @param key      The key of cache.
+     * @param saveTime The save time of cache, in seconds.
+     * @return the output stream if it can be opened or null otherwise
+     */
+    public static OutputStream openOutputStream(@NonNull final String key, final int saveTime) {
+        return openOutputStream(key, saveTime, getDefaultCacheDiskUtils());
+    }
+
+    /**
+     * Open an input stream which reads bytes in cache.
+     *
+     * @param key The key of cache.
+     * @return the input stream if cache exists or null otherwise
+     */
+    public static InputStream openInputStream(@NonNull final String key) {
+        return openInputStream(key, getDefaultCacheDiskUtils());
+    }
+
     /**
      * Return the size of cache, in bytes.
      *
@@ -425,6 +475,98 @@ public final class CacheDiskStaticUtils {
         return getCacheCount(getDefaultCacheDiskUtils());
     }
 
+    /**
+     * Remove all the expired caches now.
+     *
+     * @return the count of removed caches
+     */
+    public static int sweepExpired() {
+        return sweepExpired(getDefaultCacheDiskUtils());
+    }
+
+    /**
+     * Return the size of expired caches which are reclaimed before read, in bytes.
+     *
+     * @return the size of reclaimed caches, in bytes
+     */
+    public static long getReclaimedSize() {
+        return getReclaimedSize(getDefaultCacheDiskUtils());
+    }
+
+    /**
+     * Return the count of expired caches which are reclaimed before read.
+     *
+     * @return the count of reclaimed caches
+     */
+    public static int getReclaimedCount() {
+        return getReclaimedCount(getDefaultCacheDiskUtils());
+    }
+
+    /**
+     * Write all the pending caches into disk in the current thread.
+     */
+    public static void flush() {
+        flush(getDefaultCacheDiskUtils());
+    }
+
+    /**
+     * Wait until all the pending caches are written into disk by the background thread.
+     *
+     * @param timeout The max time to wait, in milliseconds.
+     * @return {@code true}: no pending caches<br>{@code false}: timeout or interrupted
+     */
+    public static boolean awaitIdle(final long timeout) {
+        return awaitIdle(timeout, getDefaultCacheDiskUtils());
+    }
+
+    /**
+     * Return the stats of cache.
+     *
+     * @return the stats of cache
+     */
+    public static CacheStats getStats() {
+        return getStats(getDefaultCacheDiskUtils());
+    }
+
+    /**
+     * Put values in cache in batch.
+     *
+     * @param values The values of cache.
+     */
+    public static void putAll(@NonNull final Map<String, byte[]> values) {
+        putAll(values, getDefaultCacheDiskUtils());
+    }
+
+    /**
+     * Put values in cache in batch.
+     *
+     * @param values   The values of cache.
+     * @param saveTime The save time of cache, in seconds.
+     */
+    public static void putAll(@NonNull final Map<String, byte[]> values, final int saveTime) {
+        putAll(values, saveTime, getDefaultCacheDiskUtils());
+    }
+
+    /**
+     * Return the values in cache in batch.
+     *
+     * @param keys The keys of cache.
+     * @return the values of keys which exist in cache
+     */
+    public static Map<String, byte[]> getAll(@NonNull final Collection<String> keys) {
+        return getAll(keys, getDefaultCacheDiskUtils());
+    }
+
+    /**
+     * Remove the caches whose keys start with the prefix.
+     *
+     * @param prefix The prefix of keys.
+     * @return {@code true}: success<br>{@code false}: fail
+     */
+    public static boolean removeByPrefix(@NonNull final String prefix) {
+        return removeByPrefix(prefix, getDefaultCacheDiskUtils());
+    }
+
     /**
      * Remove the cache by key.
      *
@@ -501,6 +643,17 @@ public final class CacheDiskStaticUtils {
         return cacheDiskUtils.getBytes(key, defaultValue);
     }
 
+    /**
+     * Return the read-only buffer of bytes in cache.
+     *
+     * @param key            The key of cache.
+     * @param cacheDiskUtils The instance of {@link CacheDiskUtils}.
+     * @return the read-only buffer if cache exists or null otherwise
+     */
+    public static ByteBuffer getByteBuffer(@NonNull final String key, @NonNull final CacheDiskUtils cacheDiskUtils) {
+        return cacheDiskUtils.getByteBuffer(key);
+    }
+
     ///////////////////////////////////////////////////////////////////////////
     // about String
     ///////////////////////////////////////////////////////////////////////////
@@ -909,6 +1062,48 @@ public final class CacheDiskStaticUtils {
         return cacheDiskUtils.getSerializable(key, defaultValue);
     }
 
+    ///////////////////////////////////////////////////////////////////////////
+    // about stream
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Open an output stream which writes bytes in cache.
+     *
+     * @param key            The key of cache.
+     * @param cacheDiskUtils The instance of {@link CacheDiskUtils}.
+     * @return the output stream if it can be opened or null otherwise
+     */
+    public static OutputStream openOutputStream(@NonNull final String key,
+                                                @NonNull final CacheDiskUtils cacheDiskUtils) {
+        return cacheDiskUtils.openOutputStream(key);
+    }
+
+    /**
+     * Open an output stream which writes bytes in cache.
+     *
+     * @param key            The key of cache.
+     * @param saveTime       The save time of cache, in seconds.
+     * @param cacheDiskUtils The instance of {@link CacheDiskUtils}.
+     * @return the output stream if it can be opened or null otherwise
+     */
+    public static OutputStream openOutputStream(@NonNull final String key,
+                                                final int saveTime,
+                                                @NonNull final CacheDiskUtils cacheDiskUtils) {
+        return cacheDiskUtils.openOutputStream(key, saveTime);
+    }
+
+    /**
+     * Open an input stream which reads bytes in cache.
+     *
+     * @param key            The key of cache.
+     * @param cacheDiskUtils The instance of {@link CacheDiskUtils}.
+     * @return the input stream if cache exists or null otherwise
+     */
+    public static InputStream openInputStream(@NonNull final String key,
+                                              @NonNull final CacheDiskUtils cacheDiskUtils) {
+        return cacheDiskUtils.openInputStream(key);
+    }
+
     /**
      * Return the size of cache, in bytes.
      *
@@ -929,6 +1124,112 @@ public final class CacheDiskStaticUtils {
         return cacheDiskUtils.getCacheCount();
     }
 
+    /**
+     * Remove all the expired caches now.
+     *
+     * @param cacheDiskUtils The instance of {@link CacheDiskUtils}.
+     * @return the count of removed caches
+     */
+    public static int sweepExpired(@NonNull final CacheDiskUtils cacheDiskUtils) {
+        return cacheDiskUtils.sweepExpired();
+    }
+
+    /**
+     * Return the size of expired caches which are reclaimed before read, in bytes.
+     *
+     * @param cacheDiskUtils The instance of {@link CacheDiskUtils}.
+     * @return the size of reclaimed caches, in bytes
+     */
+    public static long getReclaimedSize(@NonNull final CacheDiskUtils cacheDiskUtils) {
+        return cacheDiskUtils.getReclaimedSize();
+    }
+
+    /**
+     * Return the count of expired caches which are reclaimed before read.
+     *
+     * @param cacheDiskUtils The instance of {@link CacheDiskUtils}.
+     * @return the count of reclaimed caches
+     */
+    public static int getReclaimedCount(@NonNull final CacheDiskUtils cacheDiskUtils) {
+        return cacheDiskUtils.getReclaimedCount();
+    }
+
+    /**
+     * Write all the pending caches into disk in the current thread.
+     *
+     * @param cacheDiskUtils The instance of {@link CacheDiskUtils}.
+     */
+    public static void flush(@NonNull final CacheDiskUtils cacheDiskUtils) {
+        cacheDiskUtils.flush();
+    }
+
+    /**
+     * Wait until all the pending caches are written into disk by the background thread.
+     *
+     * @param timeout        The max time to wait, in milliseconds.
+     * @param cacheDiskUtils The instance of {@link CacheDiskUtils}.
+     * @return {@code true}: no pending caches<br>{@code false}: timeout or interrupted
+     */
+    public static boolean awaitIdle(final long timeout, @NonNull final CacheDiskUtils cacheDiskUtils) {
+        return cacheDiskUtils.awaitIdle(timeout);
+    }
+
+    /**
+     * Return the stats of cache.
+     *
+     * @param cacheDiskUtils The instance of {@link CacheDiskUtils}.
+     * @return the stats of cache
+     */
+    public static CacheStats getStats(@NonNull final CacheDiskUtils cacheDiskUtils) {
+        return cacheDiskUtils.getStats();
+    }
+
+    /**
+     * Put values in cache in batch.
+     *
+     * @param values         The values of cache.
+     * @param cacheDiskUtils The instance of {@link CacheDiskUtils}.
+     */
+    public static void putAll(@NonNull final Map<String, byte[]> values, @NonNull final CacheDiskUtils cacheDiskUtils) {
+        cacheDiskUtils.putAll(values);
+    }
+
+    /**
+     * Put values in cache in batch.
+     *
+     * @param values         The values of cache.
+     * @param saveTime       The save time of cache, in seconds.
+     * @param cacheDiskUtils The instance of {@link CacheDiskUtils}.
+     */
+    public static void putAll(@NonNull final Map<String, byte[]> values,
+                              final int saveTime,
+                              @NonNull final CacheDiskUtils cacheDiskUtils) {
+        cacheDiskUtils.putAll(values, saveTime);
+    }
+
+    /**
+     * Return the values in cache in batch.
+     *
+     * @param keys           The keys of cache.
+     * @param cacheDiskUtils The instance of {@link CacheDiskUtils}.
+     * @return the values of keys which exist in cache
+     */
+    public static Map<String, byte[]> getAll(@NonNull final Collection<String> keys,
+                                             @NonNull final CacheDiskUtils cacheDiskUtils) {
+        return cacheDiskUtils.getAll(keys);
+    }
+
+    /**
+     * Remove the caches whose keys start with the prefix.
+     *
+     * @param prefix         The prefix of keys.
+     * @param cacheDiskUtils The instance of {@link CacheDiskUtils}.
+     * @return {@code true}: success<br>{@code false}: fail
+     */
+    public static boolean removeByPrefix(@NonNull final String prefix, @NonNull final CacheDiskUtils cacheDiskUtils) {
+        return cacheDiskUtils.removeByPrefix(prefix);
+    }
+
     /**
      * Remove the cache by key.
      *
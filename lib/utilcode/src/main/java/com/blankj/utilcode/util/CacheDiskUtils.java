@@ -5,6 +5,7 @@ import android.graphics.drawable.Drawable;
 import android.os.Parcelable;
 import android.util.Log;
 
+import androidx.annotation.IntRange;
 import androidx.annotation.NonNull;
 
 import com.blankj.utilcode.constant.CacheConstants;
@@ -12,16 +13,26 @@ import com.blankj.utilcode.constant.CacheConstants;
 import org.json.JSONArray;
 import org.json.JSONObject;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
-import java.io.FilenameFilter;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.io.Serializable;
-import java.util.Collections;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
-import java.util.Locale;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * <pre>
@@ -33,25 +44,38 @@ import java.util.concurrent.atomic.AtomicLong;
  */
 public final class CacheDiskUtils implements CacheConstants {
 
-    private static final long   DEFAULT_MAX_SIZE  = Long.MAX_VALUE;
-    private static final int    DEFAULT_MAX_COUNT = Integer.MAX_VALUE;
-    private static final String CACHE_PREFIX      = "cdu_";
-    private static final String TYPE_BYTE         = "by_";
-    private static final String TYPE_STRING       = "st_";
-    private static final String TYPE_JSON_OBJECT  = "jo_";
-    private static final String TYPE_JSON_ARRAY   = "ja_";
-    private static final String TYPE_BITMAP       = "bi_";
-    private static final String TYPE_DRAWABLE     = "dr_";
-    private static final String TYPE_PARCELABLE   = "pa_";
-    private static final String TYPE_SERIALIZABLE = "se_";
-
-    private static final Map<String, CacheDiskUtils> CACHE_MAP = new HashMap<>();
-
-    private final String           mCacheKey;
-    private final File             mCacheDir;
-    private final long             mMaxSize;
-    private final int              mMaxCount;
-    private       DiskCacheManager mDiskCacheManager;
+    private static final long   DEFAULT_MAX_SIZE     = Long.MAX_VALUE;
+    private static final int    DEFAULT_MAX_COUNT    = Integer.MAX_VALUE;
+    private static final int    PARALLEL_MIN_COUNT   = 8;// the min count of keys which each worker takes
+    private static final int    PARALLEL_MAX_WORKERS = 4;
+
+    // the prefixes of keys by the type of value, which are used by CacheDoubleUtils too
+    static final String TYPE_BYTE         = "by_";
+    static final String TYPE_STRING       = "st_";
+    static final String TYPE_JSON_OBJECT  = "jo_";
+    static final String TYPE_JSON_ARRAY   = "ja_";
+    static final String TYPE_BITMAP       = "bi_";
+    static final String TYPE_DRAWABLE     = "dr_";
+    static final String TYPE_PARCELABLE   = "pa_";
+    static final String TYPE_SERIALIZABLE = "se_";
+
+    private static final InstanceRegistry<CacheDiskUtils> CACHE_MAP = new InstanceRegistry<>();
+
+    private final String               mCacheKey;
+    private final long                 mMaxSize;
+    private final int                  mMaxCount;
+    private final int                  mShardCount;
+    private final boolean              mChecksumEnabled;
+    private final boolean              mSyncEnabled;
+    private final int                  mSegmentThreshold;
+    private final Codec                mCodec;
+    private final int                  mCompressThreshold;
+    private final int                  mMmapThreshold;
+    private final DiskCacheWriteBehind mWriteBehind;
+    private final CacheStats           mStats = new CacheStats();
+    private final DiskCacheLimits      mLimits;
+    private final ScheduledFuture<?>   mSweepFuture;
+    private final DiskCacheShards      mShards;
 
     /**
      * Return the single {@link CacheDiskUtils} instance.
@@ -100,9 +124,26 @@ public final class CacheDiskUtils implements CacheConstants {
      * @return the single {@link CacheDiskUtils} instance
      */
     public static CacheDiskUtils getInstance(String cacheName, final long maxSize, final int maxCount) {
+        return getInstance(cacheName, maxSize, maxCount, null);
+    }
+
+    /**
+     * Return the single {@link CacheDiskUtils} instance.
+     * <p>cache directory: /data/data/package/cache/cacheName</p>
+     *
+     * @param cacheName The name of cache.
+     * @param maxSize   The max size of cache, in bytes.
+     * @param maxCount  The max count of cache.
+     * @param config    The config of cache.
+     * @return the single {@link CacheDiskUtils} instance
+     */
+    public static CacheDiskUtils getInstance(String cacheName,
+                                             final long maxSize,
+                                             final int maxCount,
+                                             final Config config) {
         if (UtilsBridge.isSpace(cacheName)) cacheName = "cacheUtils";
         File file = new File(Utils.getApp().getCacheDir(), cacheName);
-        return getInstance(file, maxSize, maxCount);
+        return getInstance(file, maxSize, maxCount, config);
     }
 
     /**
@@ -128,43 +169,60 @@ public final class CacheDiskUtils implements CacheConstants {
     public static CacheDiskUtils getInstance(@NonNull final File cacheDir,
                                              final long maxSize,
                                              final int maxCount) {
-        final String cacheKey = cacheDir.getAbsoluteFile() + "_" + maxSize + "_" + maxCount;
+        return getInstance(cacheDir, maxSize, maxCount, null);
+    }
+
+    /**
+     * Return the single {@link CacheDiskUtils} instance.
+     *
+     * @param cacheDir The directory of cache.
+     * @param maxSize  The max size of cache, in bytes.
+     * @param maxCount The max count of cache.
+     * @param config   The config of cache.
+     * @return the single {@link CacheDiskUtils} instance
+     */
+    public static CacheDiskUtils getInstance(@NonNull final File cacheDir,
+                                             final long maxSize,
+                                             final int maxCount,
+                                             final Config config) {
+        final Config realConfig = config == null ? new Config() : config;
+        final String cacheKey = cacheDir.getAbsoluteFile() + "_" + maxSize + "_" + maxCount
+                + (config != null ? "_" + realConfig : "");
         CacheDiskUtils cache = CACHE_MAP.get(cacheKey);
-        if (cache == null) {
-            synchronized (CacheDiskUtils.class) {
-                cache = CACHE_MAP.get(cacheKey);
-                if (cache == null) {
-                    cache = new CacheDiskUtils(cacheKey, cacheDir, maxSize, maxCount);
-                    CACHE_MAP.put(cacheKey, cache);
-                }
+        if (cache != null) return cache;
+        return CACHE_MAP.getOrCreate(cacheKey, new Utils.Supplier<CacheDiskUtils>() {
+            @Override
+            public CacheDiskUtils get() {
+                return new CacheDiskUtils(cacheKey, cacheDir, maxSize, maxCount, realConfig);
             }
-        }
-        return cache;
+        });
     }
 
     private CacheDiskUtils(final String cacheKey,
                            final File cacheDir,
                            final long maxSize,
-                           final int maxCount) {
+                           final int maxCount,
+                           final Config config) {
         mCacheKey = cacheKey;
-        mCacheDir = cacheDir;
         mMaxSize = maxSize;
         mMaxCount = maxCount;
-    }
-
-    private DiskCacheManager getDiskCacheManager() {
-        if (mCacheDir.exists()) {
-            if (mDiskCacheManager == null) {
-                mDiskCacheManager = new DiskCacheManager(mCacheDir, mMaxSize, mMaxCount);
-            }
-        } else {
-            if (mCacheDir.mkdirs()) {
-                mDiskCacheManager = new DiskCacheManager(mCacheDir, mMaxSize, mMaxCount);
-            } else {
-                Log.e("CacheDiskUtils", "can't make dirs in " + mCacheDir.getAbsolutePath());
-            }
-        }
-        return mDiskCacheManager;
+        mShardCount = config.mShardCount;
+        mChecksumEnabled = config.mChecksumEnabled;
+        mSyncEnabled = config.mSyncEnabled;
+        mSegmentThreshold = config.mSegmentThreshold;
+        mCodec = config.mCodec;
+        mCompressThreshold = config.mCompressThreshold;
+        mMmapThreshold = config.mMmapThreshold;
+        mWriteBehind = config.mWriteBehindEnabled
+                ? new DiskCacheWriteBehind(this, config.mWriteBehindMaxBytes)
+                : null;
+        mLimits = new DiskCacheLimits(
+                Math.max(mMaxSize / mShardCount, 1), Math.max(mMaxCount / mShardCount, 1), mStats
+        );
+        mShards = new DiskCacheShards(cacheDir, mShardCount, mSegmentThreshold > 0);
+        mSweepFuture = config.mSweepInterval > 0
+                ? DiskCacheSweeper.schedule(this, config.mSweepInterval, config.mSweepBatchSize)
+                : null;
     }
 
     @Override
@@ -199,15 +257,92 @@ public final class CacheDiskUtils implements CacheConstants {
 
     private void realPutBytes(final String key, byte[] value, int saveTime) {
         if (value == null) return;
-        DiskCacheManager diskCacheManager = getDiskCacheManager();
+        mStats.recordPut();
+        if (mWriteBehind != null) {
+            // the bytes of caller may be changed before written
+            if (key.startsWith(TYPE_BYTE)) value = value.clone();
+            long dueTime = saveTime < 0 ? -1 : System.currentTimeMillis() + saveTime * 1000L;
+            mWriteBehind.put(key, value, dueTime);
+            return;
+        }
+        writeBytes(key, value, DiskCacheHeader.create(saveTime, mChecksumEnabled, key));
+    }
+
+    /**
+     * Write the pending bytes of write-behind mode, which expire at {@code dueTime}.
+     */
+    void writeBytes(final String key, final byte[] value, final long dueTime) {
+        writeBytes(key, value, DiskCacheHeader.of(dueTime, mChecksumEnabled, key));
+    }
+
+    private void writeBytes(final String key, byte[] value, final DiskCacheHeader header) {
+        DiskCacheManager diskCacheManager = mShards.get(key);
         if (diskCacheManager == null) return;
-        if (saveTime >= 0) value = DiskCacheHelper.newByteArrayWithTime(saveTime, value);
+        value = encode(header, value);
+        // the segments are unknown until the index is loaded, so the value goes to its own file before it
+        if (value.length <= mSegmentThreshold && diskCacheManager.isLoaded()) {
+            if (header.hasChecksum()) header.checksum = DiskCacheHeader.checksumOf(value);
+            // the value goes to its own file if the segment can't be appended
+            if (diskCacheManager.putSegment(key, header, value, mSyncEnabled, mLimits)) return;
+        }
         File file = diskCacheManager.getFileBeforePut(key);
-        UtilsBridge.writeFileFromBytes(file, value);
-        diskCacheManager.updateModify(file);
-        diskCacheManager.put(file);
+        writeEntry(diskCacheManager, file, header, value);
+    }
+
+    /**
+     * Rewrite the legacy entry with the binary header and digest name.
+     */
+    private boolean migrate(final DiskCacheManager diskCacheManager,
+                            final String key,
+                            final long dueTime,
+                            final byte[] data) {
+        DiskCacheHeader header = DiskCacheHeader.of(dueTime, mChecksumEnabled, key);
+        return writeEntry(diskCacheManager, diskCacheManager.getFileBeforePut(key), header, encode(header, data));
     }
 
+    /**
+     * Compress the value by codec if it is large enough, the codec is recorded in header.
+     */
+    private byte[] encode(final DiskCacheHeader header, final byte[] value) {
+        if (mCodec == null || value.length < mCompressThreshold) return value;
+        try {
+            byte[] encoded = mCodec.encode(value);
+            if (encoded.length >= value.length) return value;
+            header.setCodec(mCodec.getId());
+            return encoded;
+        } catch (IOException e) {
+            Log.w("CacheDiskUtils", "encode failed, save it uncompressed: " + e.getMessage());
+            return value;
+        }
+    }
+
+    /**
+     * Return the codec by its id in header, or null if it is unknown.
+     */
+    private Codec getCodec(final int id) {
+        if (mCodec != null && mCodec.getId() == id) return mCodec;
+        if (DEFLATE.getId() == id) return DEFLATE;
+        return null;
+    }
+
+    /**
+     * Write the entry into a temp file and rename it to the cache file, so the cache file
+     * is either the old one or the new one, never a torn one.
+     */
+    private boolean writeEntry(final DiskCacheManager diskCacheManager,
+                               final File file,
+                               final DiskCacheHeader header,
+                               final byte[] data) {
+        if (header.hasChecksum()) header.checksum = DiskCacheHeader.checksumOf(data);
+        File tempFile = diskCacheManager.newTempFile(file);
+        if (!DiskCacheHelper.writeFile(tempFile, header.toBytes(), data, mSyncEnabled)
+                || !diskCacheManager.commit(tempFile, file)) {
+            tempFile.delete();
+            return false;
+        }
+        diskCacheManager.put(header.key, file, header.dueTime, mLimits);
+        return true;
+    }
 
     /**
      * Return the bytes in cache.
@@ -235,17 +370,285 @@ public final class CacheDiskUtils implements CacheConstants {
     }
 
     private byte[] realGetBytes(@NonNull final String key, final byte[] defaultValue) {
-        DiskCacheManager diskCacheManager = getDiskCacheManager();
+        long startNanos = System.nanoTime();
+        byte[] data = realGetBytes(key, null, true, null, null);
+        mStats.recordRead(startNanos, data != null);
+        return data == null ? defaultValue : data;
+    }
+
+    /**
+     * Return the bytes of cache with its due time, or null if it doesn't exist.
+     * <p>It is read by {@link CacheDoubleUtils} to put the value in memory with its remaining save time,
+     * without reading its header again.</p>
+     *
+     * @param key The key of cache with the prefix of type, such as {@link #TYPE_BYTE}.
+     */
+    DiskValue getDiskValue(@NonNull final String key) {
+        long startNanos = System.nanoTime();
+        DiskValue value = new DiskValue();
+        value.data = realGetBytes(key, null, true, null, value);
+        mStats.recordRead(startNanos, value.data != null);
+        return value.data == null ? null : value;
+    }
+
+    /**
+     * Return the bytes in cache, the access of file or segment record is updated later by caller
+     * if {@code access} is not null, or updated now otherwise, and the due time is set to {@code value}
+     * if it is not null.
+     */
+    private byte[] realGetBytes(@NonNull final String key,
+                                final byte[] defaultValue,
+                                final boolean retry,
+                                final DiskCacheAccess access,
+                                final DiskValue value) {
+        if (mWriteBehind != null) {
+            DiskCacheWriteBehind.PendingWrite pendingWrite = mWriteBehind.get(key);
+            if (pendingWrite != null) {
+                if (pendingWrite.isDue()) return defaultValue;
+                if (value != null) value.dueTime = pendingWrite.dueTime;
+                return key.startsWith(TYPE_BYTE) ? pendingWrite.value.clone() : pendingWrite.value;
+            }
+        }
+        DiskCacheManager diskCacheManager = mShards.get(key);
         if (diskCacheManager == null) return defaultValue;
-        final File file = diskCacheManager.getFileIfExists(key);
+        final DiskCacheEntry segmentEntry = diskCacheManager.getSegmentEntry(key);
+        final File file = segmentEntry != null
+                ? diskCacheManager.getSegmentFile(segmentEntry)
+                : diskCacheManager.getFileIfExists(key);
         if (file == null) return defaultValue;
-        byte[] data = UtilsBridge.readFile2Bytes(file);
-        if (DiskCacheHelper.isDue(data)) {
+        final long offset = segmentEntry != null ? segmentEntry.offset : 0;
+        RandomAccessFile raf = null;
+        DiskCacheHeader header;
+        byte[] data = null;
+        try {
+            raf = new RandomAccessFile(file, "r");
+            header = DiskCacheHeader.read(raf.getChannel(), offset);
+            if (!header.matches(key)) {
+                Log.w("CacheDiskUtils", "the key of " + file.getName() + " is " + header.key + " but not " + key);
+                return defaultValue;
+            }
+            if (!header.isDue()) {
+                long length = segmentEntry != null ? segmentEntry.size : raf.length();
+                data = new byte[(int) (length - header.length)];
+                if (segmentEntry == null && mMmapThreshold > 0 && data.length >= mMmapThreshold) {
+                    DiskCacheMapper.read(raf.getChannel(), header.length, data);
+                } else {
+                    raf.seek(offset + header.length);
+                    raf.readFully(data);
+                }
+                if (!header.verify(data)) {
+                    Log.w("CacheDiskUtils", "checksum mismatch, drop the cache of " + file.getName());
+                    data = null;
+                }
+            }
+        } catch (FileNotFoundException e) {
+            // the segment is deleted by compaction, read it again from where it moves to
+            if (segmentEntry != null && retry) return realGetBytes(key, defaultValue, false, access, value);
+            diskCacheManager.ensureDir();
+            return defaultValue;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return defaultValue;
+        } finally {
+            DiskCacheHelper.closeIO(raf);
+        }
+        if (data != null && header.hasCodec()) {
+            Codec codec = getCodec(header.codec);
+            if (codec == null) {
+                Log.w("CacheDiskUtils", "unknown codec " + header.codec + " of " + file.getName());
+                return defaultValue;
+            }
+            try {
+                data = codec.decode(data);
+            } catch (IOException e) {
+                Log.w("CacheDiskUtils", "decode failed, drop the cache of " + file.getName());
+                data = null;
+            }
+        }
+        if (data == null) {
             diskCacheManager.removeByKey(key);
             return defaultValue;
         }
-        diskCacheManager.updateModify(file);
-        return DiskCacheHelper.getDataWithoutDueTime(data);
+        if (segmentEntry != null) {
+            if (access != null) {
+                access.name = segmentEntry.name;
+            } else {
+                diskCacheManager.updateAccess(segmentEntry.name);
+            }
+        } else if (!(header.legacy || DiskCacheManager.isLegacyName(file.getName()))
+                || !migrate(diskCacheManager, key, header.dueTime, data)) {
+            // the legacy file is kept if it can't be rewritten with the binary header and digest name
+            if (access != null) {
+                access.file = file;
+            } else {
+                diskCacheManager.updateModify(file);
+            }
+        }
+        if (value != null) value.dueTime = header.dueTime;
+        return data;
+    }
+
+    /**
+     * Return the read-only buffer of bytes in cache.
+     * <p>The cache which is not less than {@link Config#setMmapThreshold(int)} is mapped into memory
+     * instead of read into heap, the buffer keeps valid even if the cache is removed later.</p>
+     *
+     * @param key The key of cache.
+     * @return the read-only buffer if cache exists or null otherwise
+     */
+    public ByteBuffer getByteBuffer(@NonNull final String key) {
+        final String realKey = TYPE_BYTE + key;
+        long startNanos = System.nanoTime();
+        ByteBuffer buffer = mapBytes(realKey);
+        if (buffer != null) {
+            mStats.recordRead(startNanos, true);
+            return buffer;
+        }
+        byte[] bytes = realGetBytes(realKey);
+        if (bytes == null) return null;
+        return ByteBuffer.wrap(bytes).asReadOnlyBuffer();
+    }
+
+    /**
+     * Map the data of cache file if it is large enough, or return null to read it into heap.
+     */
+    private ByteBuffer mapBytes(final String key) {
+        if (mMmapThreshold <= 0) return null;
+        if (mWriteBehind != null && mWriteBehind.get(key) != null) return null;
+        DiskCacheManager diskCacheManager = mShards.get(key);
+        if (diskCacheManager == null || diskCacheManager.getSegmentEntry(key) != null) return null;
+        File file = diskCacheManager.getFileIfExists(key);
+        if (file == null || file.length() < mMmapThreshold) return null;
+        ByteBuffer buffer = DiskCacheMapper.map(file, key);
+        if (buffer != null) diskCacheManager.updateModify(file);
+        return buffer;
+    }
+
+    /**
+     * Put bytes in cache in batch.
+     * <p>The values are written in parallel on the IO pool and the current thread.</p>
+     *
+     * @param values The values of cache.
+     */
+    public void putAll(@NonNull final Map<String, byte[]> values) {
+        putAll(values, -1);
+    }
+
+    /**
+     * Put bytes in cache in batch.
+     * <p>The values are written in parallel on the IO pool and the current thread.</p>
+     *
+     * @param values   The values of cache.
+     * @param saveTime The save time of cache, in seconds.
+     */
+    public void putAll(@NonNull final Map<String, byte[]> values, final int saveTime) {
+        final List<Map.Entry<String, byte[]>> list = new ArrayList<>(values.entrySet());
+        runInParallel(mWriteBehind != null ? 1 : list.size(), list.size(), new IndexedTask() {
+            @Override
+            public void run(final int index) {
+                Map.Entry<String, byte[]> entry = list.get(index);
+                realPutBytes(TYPE_BYTE + entry.getKey(), entry.getValue(), saveTime);
+            }
+        });
+    }
+
+    /**
+     * Return the bytes in cache in batch.
+     * <p>The values are read in parallel on the IO pool and the current thread,
+     * and the access time of them is updated with the index locked once.</p>
+     *
+     * @param keys The keys of cache.
+     * @return the bytes of keys which exist in cache
+     */
+    public Map<String, byte[]> getAll(@NonNull final Collection<String> keys) {
+        Map<String, byte[]> result = new LinkedHashMap<>();
+        for (Map.Entry<String, DiskValue> entry : getDiskValues(keys).entrySet()) {
+            result.put(entry.getKey(), entry.getValue().data);
+        }
+        return result;
+    }
+
+    /**
+     * Return the bytes of keys in batch with their due time, see {@link #getAll(Collection)}.
+     */
+    Map<String, DiskValue> getDiskValues(@NonNull final Collection<String> keys) {
+        final List<String> list = new ArrayList<>(keys);
+        final DiskValue[] values = new DiskValue[list.size()];
+        final DiskCacheAccess[] accesses = new DiskCacheAccess[list.size()];
+        runInParallel(list.size(), list.size(), new IndexedTask() {
+            @Override
+            public void run(final int index) {
+                long startNanos = System.nanoTime();
+                accesses[index] = new DiskCacheAccess();
+                values[index] = new DiskValue();
+                values[index].data = realGetBytes(TYPE_BYTE + list.get(index), null, true, accesses[index], values[index]);
+                mStats.recordRead(startNanos, values[index].data != null);
+            }
+        });
+        Map<DiskCacheManager, List<DiskCacheAccess>> accessesByManager = new HashMap<>();
+        Map<String, DiskValue> result = new LinkedHashMap<>();
+        for (int i = 0; i < list.size(); i++) {
+            if (values[i].data == null) continue;
+            result.put(list.get(i), values[i]);
+            if (accesses[i].file == null && accesses[i].name == null) continue;
+            DiskCacheManager diskCacheManager = mShards.get(TYPE_BYTE + list.get(i));
+            if (diskCacheManager == null) continue;
+            List<DiskCacheAccess> managerAccesses = accessesByManager.get(diskCacheManager);
+            if (managerAccesses == null) {
+                managerAccesses = new ArrayList<>();
+                accessesByManager.put(diskCacheManager, managerAccesses);
+            }
+            managerAccesses.add(accesses[i]);
+        }
+        for (Map.Entry<DiskCacheManager, List<DiskCacheAccess>> entry : accessesByManager.entrySet()) {
+            entry.getKey().updateAccess(entry.getValue());
+        }
+        return result;
+    }
+
+    /**
+     * Run the task of each index in parallel on the IO pool and the current thread.
+     * <p>The indexes are claimed one by one, so the current thread only waits for the tasks
+     * which are running, and it never deadlocks even if it runs in the IO pool.</p>
+     */
+    private static void runInParallel(final int parallelism, final int count, final IndexedTask task) {
+        if (count <= 0) return;
+        final AtomicInteger nextIndex = new AtomicInteger();
+        final CountDownLatch latch = new CountDownLatch(count);
+        Runnable worker = new Runnable() {
+            @Override
+            public void run() {
+                int index;
+                while ((index = nextIndex.getAndIncrement()) < count) {
+                    try {
+                        task.run(index);
+                    } catch (RuntimeException e) {
+                        Log.e("CacheDiskUtils", "task of index " + index + " failed", e);
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            }
+        };
+        int workerCount = Math.min(Math.min(parallelism, count / PARALLEL_MIN_COUNT), PARALLEL_MAX_WORKERS);
+        for (int i = 1; i < workerCount; i++) {
+            UtilsBridge.getIoPool().execute(worker);
+        }
+        worker.run();
+        boolean interrupted = false;
+        while (true) {
+            try {
+                latch.await();
+                break;
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    private interface IndexedTask {
+        void run(int index);
     }
 
     ///////////////////////////////////////////////////////////////////////////
@@ -346,7 +749,6 @@ public final class CacheDiskUtils implements CacheConstants {
         return UtilsBridge.bytes2JSONObject(bytes);
     }
 
-
     ///////////////////////////////////////////////////////////////////////////
     // about JSONArray
     ///////////////////////////////////////////////////////////////////////////
@@ -395,7 +797,6 @@ public final class CacheDiskUtils implements CacheConstants {
         return UtilsBridge.bytes2JSONArray(bytes);
     }
 
-
     ///////////////////////////////////////////////////////////////////////////
     // about Bitmap
     ///////////////////////////////////////////////////////////////////////////
@@ -595,15 +996,119 @@ public final class CacheDiskUtils implements CacheConstants {
         return UtilsBridge.bytes2Object(bytes);
     }
 
+    ///////////////////////////////////////////////////////////////////////////
+    // about stream
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Open an output stream which writes bytes in cache.
+     * <p>The cache is put when the stream is closed, it can be read by {@link #getBytes(String)}.
+     * Nothing changes if any write failed.</p>
+     *
+     * @param key The key of cache.
+     * @return the output stream if it can be opened or null otherwise
+     */
+    public OutputStream openOutputStream(@NonNull final String key) {
+        return openOutputStream(key, -1);
+    }
+
+    /**
+     * Open an output stream which writes bytes in cache.
+     * <p>The cache is put when the stream is closed, it can be read by {@link #getBytes(String)}.
+     * Nothing changes if any write failed.</p>
+     *
+     * @param key      The key of cache.
+     * @param saveTime The save time of cache, in seconds.
+     * @return the output stream if it can be opened or null otherwise
+     */
+    public OutputStream openOutputStream(@NonNull final String key, final int saveTime) {
+        final String realKey = TYPE_BYTE + key;
+        // the pending writes must not overwrite the stream later
+        if (mWriteBehind != null) mWriteBehind.flush();
+        DiskCacheManager diskCacheManager = mShards.get(realKey);
+        if (diskCacheManager == null) return null;
+        DiskCacheHeader header = DiskCacheHeader.create(saveTime, mChecksumEnabled, realKey);
+        File file = diskCacheManager.getFileBeforePut(realKey);
+        File tempFile = diskCacheManager.newTempFile(file);
+        FileOutputStream fos = null;
+        try {
+            fos = new FileOutputStream(tempFile);
+            fos.write(header.toBytes());// the checksum is filled when closed
+            return new DiskCacheOutputStream(fos, diskCacheManager, mLimits, tempFile, file, header, mSyncEnabled);
+        } catch (IOException e) {
+            e.printStackTrace();
+            DiskCacheHelper.closeIO(fos);
+            tempFile.delete();
+            return null;
+        }
+    }
+
+    /**
+     * Open an input stream which reads bytes in cache.
+     * <p>If the checksum is enabled, it throws an {@link IOException} at the end of stream
+     * when the data is corrupt.</p>
+     *
+     * @param key The key of cache.
+     * @return the input stream if cache exists or null otherwise
+     */
+    public InputStream openInputStream(@NonNull final String key) {
+        final String realKey = TYPE_BYTE + key;
+        DiskCacheManager diskCacheManager = mShards.get(realKey);
+        if (diskCacheManager == null) return null;
+        if ((mWriteBehind != null && mWriteBehind.get(realKey) != null)
+                || diskCacheManager.getSegmentEntry(realKey) != null) {
+            return openByteArrayInputStream(realKey);
+        }
+        final File file = diskCacheManager.getFileIfExists(realKey);
+        if (file == null) return null;
+        FileInputStream fis = null;
+        DiskCacheHeader header;
+        try {
+            fis = new FileInputStream(file);
+            header = DiskCacheHeader.read(fis.getChannel(), 0);
+            if (!header.matches(realKey)) {
+                fis.close();
+                return null;
+            }
+            if (header.isDue()) {
+                fis.close();
+                diskCacheManager.removeByKey(realKey);
+                return null;
+            }
+            if (header.hasCodec()) {
+                // the compressed value is read as a whole
+                fis.close();
+                return openByteArrayInputStream(realKey);
+            }
+            fis.getChannel().position(header.length);
+        } catch (IOException e) {
+            e.printStackTrace();
+            DiskCacheHelper.closeIO(fis);
+            return null;
+        }
+        diskCacheManager.updateModify(file);
+        if (!header.hasChecksum()) return fis;
+        return new DiskCacheInputStream(fis, diskCacheManager, realKey, header.checksum);
+    }
+
+    private InputStream openByteArrayInputStream(final String realKey) {
+        byte[] data = realGetBytes(realKey);
+        return data == null ? null : new ByteArrayInputStream(data);
+    }
+
     /**
      * Return the size of cache, in bytes.
      *
      * @return the size of cache, in bytes
      */
     public long getCacheSize() {
-        DiskCacheManager diskCacheManager = getDiskCacheManager();
-        if (diskCacheManager == null) return 0;
-        return diskCacheManager.getCacheSize();
+        long size = 0;
+        for (int i = 0; i < mShardCount; i++) {
+            DiskCacheManager diskCacheManager = mShards.get(i);
+            if (diskCacheManager == null) continue;
+            size += diskCacheManager.getCacheSize();
+        }
+        return size;
     }
 
     /**
@@ -612,9 +1117,94 @@ public final class CacheDiskUtils implements CacheConstants {
      * @return the count of cache
      */
     public int getCacheCount() {
-        DiskCacheManager diskCacheManager = getDiskCacheManager();
-        if (diskCacheManager == null) return 0;
-        return diskCacheManager.getCacheCount();
+        int count = 0;
+        for (int i = 0; i < mShardCount; i++) {
+            DiskCacheManager diskCacheManager = mShards.get(i);
+            if (diskCacheManager == null) continue;
+            count += diskCacheManager.getCacheCount();
+        }
+        return count;
+    }
+
+    /**
+     * Remove all the expired caches now.
+     * <p>They are removed by the sweeper periodically too if it is enabled,
+     * see {@link Config#setSweepInterval(long)}.</p>
+     *
+     * @return the count of removed caches
+     */
+    public int sweepExpired() {
+        int count = 0;
+        for (int i = 0; i < mShardCount; i++) {
+            DiskCacheManager diskCacheManager = mShards.get(i);
+            if (diskCacheManager == null) continue;
+            count += diskCacheManager.sweepExpired(Integer.MAX_VALUE);
+        }
+        return count;
+    }
+
+    /**
+     * Remove the expired caches of the opened shards, at most {@code maxCount} in each of them.
+     */
+    void sweepExpired(final int maxCount) {
+        for (int i = 0; i < mShardCount; i++) {
+            DiskCacheManager diskCacheManager = mShards.getIfOpened(i);
+            if (diskCacheManager == null) continue;
+            diskCacheManager.sweepExpired(maxCount);
+        }
+    }
+
+    /**
+     * Return the size of expired caches which are reclaimed before read, in bytes.
+     *
+     * @return the size of reclaimed caches, in bytes
+     */
+    public long getReclaimedSize() {
+        long size = 0;
+        for (int i = 0; i < mShardCount; i++) {
+            DiskCacheManager diskCacheManager = mShards.getIfOpened(i);
+            if (diskCacheManager == null) continue;
+            size += diskCacheManager.getReclaimedSize();
+        }
+        return size;
+    }
+
+    /**
+     * Return the count of expired caches which are reclaimed before read.
+     *
+     * @return the count of reclaimed caches
+     */
+    public int getReclaimedCount() {
+        int count = 0;
+        for (int i = 0; i < mShardCount; i++) {
+            DiskCacheManager diskCacheManager = mShards.getIfOpened(i);
+            if (diskCacheManager == null) continue;
+            count += diskCacheManager.getReclaimedCount();
+        }
+        return count;
+    }
+
+    /**
+     * Return the count of files which are probed for keys, for the tests of the filter.
+     */
+    long getFileProbeCount() {
+        long count = 0;
+        for (int i = 0; i < mShardCount; i++) {
+            DiskCacheManager diskCacheManager = mShards.getIfOpened(i);
+            if (diskCacheManager == null) continue;
+            count += diskCacheManager.getFileProbeCount();
+        }
+        return count;
+    }
+
+    /**
+     * Return the stats of cache, such as hit count, eviction count and read latency.
+     * <p>It can be reset by {@link CacheStats#reset()}.</p>
+     *
+     * @return the stats of cache
+     */
+    public CacheStats getStats() {
+        return mStats;
     }
 
     /**
@@ -624,16 +1214,52 @@ public final class CacheDiskUtils implements CacheConstants {
      * @return {@code true}: success<br>{@code false}: fail
      */
     public boolean remove(@NonNull final String key) {
-        DiskCacheManager diskCacheManager = getDiskCacheManager();
+        return realRemove(TYPE_BYTE + key)
+                && realRemove(TYPE_STRING + key)
+                && realRemove(TYPE_JSON_OBJECT + key)
+                && realRemove(TYPE_JSON_ARRAY + key)
+                && realRemove(TYPE_BITMAP + key)
+                && realRemove(TYPE_DRAWABLE + key)
+                && realRemove(TYPE_PARCELABLE + key)
+                && realRemove(TYPE_SERIALIZABLE + key);
+    }
+
+    /**
+     * Remove the caches whose keys start with the prefix.
+     * <p>The caches written by old versions, or whose keys are longer than 65535 bytes,
+     * can't be found by prefix.</p>
+     *
+     * @param prefix The prefix of keys.
+     * @return {@code true}: success<br>{@code false}: fail
+     */
+    public boolean removeByPrefix(@NonNull final String prefix) {
+        final String[] realPrefixes = {
+                TYPE_BYTE + prefix, TYPE_STRING + prefix, TYPE_JSON_OBJECT + prefix, TYPE_JSON_ARRAY + prefix,
+                TYPE_BITMAP + prefix, TYPE_DRAWABLE + prefix, TYPE_PARCELABLE + prefix, TYPE_SERIALIZABLE + prefix
+        };
+        if (mWriteBehind != null) return mWriteBehind.removeByPrefix(realPrefixes);
+        return removeBytesByPrefix(realPrefixes);
+    }
+
+    boolean removeBytesByPrefix(final String[] realPrefixes) {
+        boolean flag = true;
+        for (int i = 0; i < mShardCount; i++) {
+            DiskCacheManager diskCacheManager = mShards.get(i);
+            if (diskCacheManager == null) continue;
+            if (!diskCacheManager.removeByPrefix(realPrefixes)) flag = false;
+        }
+        return flag;
+    }
+
+    private boolean realRemove(final String key) {
+        if (mWriteBehind != null) return mWriteBehind.remove(key);
+        return removeBytes(key);
+    }
+
+    boolean removeBytes(final String key) {
+        DiskCacheManager diskCacheManager = mShards.get(key);
         if (diskCacheManager == null) return true;
-        return diskCacheManager.removeByKey(TYPE_BYTE + key)
-                && diskCacheManager.removeByKey(TYPE_STRING + key)
-                && diskCacheManager.removeByKey(TYPE_JSON_OBJECT + key)
-                && diskCacheManager.removeByKey(TYPE_JSON_ARRAY + key)
-                && diskCacheManager.removeByKey(TYPE_BITMAP + key)
-                && diskCacheManager.removeByKey(TYPE_DRAWABLE + key)
-                && diskCacheManager.removeByKey(TYPE_PARCELABLE + key)
-                && diskCacheManager.removeByKey(TYPE_SERIALIZABLE + key);
+        return diskCacheManager.removeByKey(key);
     }
 
     /**
@@ -642,234 +1268,262 @@ public final class CacheDiskUtils implements CacheConstants {
      * @return {@code true}: success<br>{@code false}: fail
      */
     public boolean clear() {
-        DiskCacheManager diskCacheManager = getDiskCacheManager();
-        if (diskCacheManager == null) return true;
-        return diskCacheManager.clear();
-    }
-
-    private static final class DiskCacheManager {
-        private final AtomicLong      cacheSize;
-        private final AtomicInteger   cacheCount;
-        private final long            sizeLimit;
-        private final int             countLimit;
-        private final Map<File, Long> lastUsageDates
-                = Collections.synchronizedMap(new HashMap<File, Long>());
-        private final File            cacheDir;
-        private final Thread          mThread;
-
-        private DiskCacheManager(final File cacheDir, final long sizeLimit, final int countLimit) {
-            this.cacheDir = cacheDir;
-            this.sizeLimit = sizeLimit;
-            this.countLimit = countLimit;
-            cacheSize = new AtomicLong();
-            cacheCount = new AtomicInteger();
-            mThread = new Thread(new Runnable() {
-                @Override
-                public void run() {
-                    int size = 0;
-                    int count = 0;
-                    final File[] cachedFiles = cacheDir.listFiles(new FilenameFilter() {
-                        @Override
-                        public boolean accept(File dir, String name) {
-                            return name.startsWith(CACHE_PREFIX);
-                        }
-                    });
-                    if (cachedFiles != null) {
-                        for (File cachedFile : cachedFiles) {
-                            size += cachedFile.length();
-                            count += 1;
-                            lastUsageDates.put(cachedFile, cachedFile.lastModified());
-                        }
-                        cacheSize.getAndAdd(size);
-                        cacheCount.getAndAdd(count);
-                    }
-                }
-            });
-            mThread.start();
-        }
+        if (mWriteBehind != null) return mWriteBehind.clear();
+        return clearBytes();
+    }
 
-        private long getCacheSize() {
-            wait2InitOk();
-            return cacheSize.get();
+    boolean clearBytes() {
+        boolean flag = true;
+        for (int i = 0; i < mShardCount; i++) {
+            DiskCacheManager diskCacheManager = mShards.get(i);
+            if (diskCacheManager == null) continue;
+            if (!diskCacheManager.clear()) flag = false;
         }
+        return flag;
+    }
 
-        private int getCacheCount() {
-            wait2InitOk();
-            return cacheCount.get();
-        }
+    /**
+     * Write all the pending caches into disk in the current thread.
+     * <p>It only works in write-behind mode, see {@link Config#setWriteBehindEnabled(boolean)}.
+     * Call it when the pending caches must survive, such as in {@code onStop}.</p>
+     */
+    public void flush() {
+        if (mWriteBehind != null) mWriteBehind.flush();
+    }
 
-        private File getFileBeforePut(final String key) {
-            wait2InitOk();
-            File file = new File(cacheDir, getCacheNameByKey(key));
-            if (file.exists()) {
-                cacheCount.addAndGet(-1);
-                cacheSize.addAndGet(-file.length());
-            }
-            return file;
-        }
+    /**
+     * Wait until all the pending caches are written into disk by the background thread.
+     * <p>It only works in write-behind mode, see {@link Config#setWriteBehindEnabled(boolean)}.</p>
+     *
+     * @param timeout The max time to wait, in milliseconds.
+     * @return {@code true}: no pending caches<br>{@code false}: timeout or interrupted
+     */
+    public boolean awaitIdle(final long timeout) {
+        return mWriteBehind == null || mWriteBehind.awaitIdle(timeout);
+    }
 
-        private void wait2InitOk() {
-            try {
-                mThread.join();
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        }
+    /**
+     * Release the instance, then {@link #getInstance} returns a new one of the same arguments.
+     * <p>The pending caches are written first. The instances on the same directory share its index,
+     * which is closed when all of them are released, so the directory can be opened again.
+     * The released instance doesn't put or get anything.</p>
+     */
+    public void release() {
+        if (mWriteBehind != null) mWriteBehind.flush();
+        if (mSweepFuture != null) mSweepFuture.cancel(false);
+        mShards.release();
+        CACHE_MAP.remove(mCacheKey, this);
+    }
 
-        private File getFileIfExists(final String key) {
-            File file = new File(cacheDir, getCacheNameByKey(key));
-            if (!file.exists()) return null;
-            return file;
-        }
+    /**
+     * The codec to compress the values in cache files.
+     */
+    public interface Codec {
 
-        private String getCacheNameByKey(final String key) {
-            return CACHE_PREFIX + key.substring(0, 3) + key.substring(3).hashCode();
-        }
+        /**
+         * Return the id of codec which is recorded in cache files, it is in [1, 255],
+         * the ones less than 128 are reserved for the built-in codecs.
+         *
+         * @return the id of codec
+         */
+        int getId();
 
-        private void put(final File file) {
-            cacheCount.addAndGet(1);
-            cacheSize.addAndGet(file.length());
-            while (cacheCount.get() > countLimit || cacheSize.get() > sizeLimit) {
-                cacheSize.addAndGet(-removeOldest());
-                cacheCount.addAndGet(-1);
-            }
-        }
+        byte[] encode(byte[] data) throws IOException;
 
-        private void updateModify(final File file) {
-            Long millis = System.currentTimeMillis();
-            file.setLastModified(millis);
-            lastUsageDates.put(file, millis);
-        }
+        byte[] decode(byte[] data) throws IOException;
+    }
 
-        private boolean removeByKey(final String key) {
-            File file = getFileIfExists(key);
-            if (file == null) return true;
-            if (!file.delete()) return false;
-            cacheSize.addAndGet(-file.length());
-            cacheCount.addAndGet(-1);
-            lastUsageDates.remove(file);
-            return true;
+    /**
+     * The codec of deflate with the best speed.
+     */
+    public static final Codec DEFLATE = new DiskCacheDeflateCodec();
+
+    /**
+     * The config of {@link CacheDiskUtils}, it works when the instance is created.
+     */
+    public static final class Config {
+
+        private int     mShardCount          = 1;
+        private boolean mChecksumEnabled     = false;
+        private boolean mSyncEnabled         = true;
+        private long    mSweepInterval       = 0;
+        private int     mSweepBatchSize      = 64;
+        private int     mSegmentThreshold;
+        private Codec   mCodec;
+        private int     mCompressThreshold   = 1024;
+        private boolean mWriteBehindEnabled  = false;
+        private long    mWriteBehindMaxBytes = 4 * 1024 * 1024;
+        private int     mMmapThreshold       = 1024 * 1024;
+
+        /**
+         * Set the count of shards.
+         * <p>The keys are hashed into the sub-directories of shards, each of them has its own lock,
+         * size, count and eviction, and the max size and max count are split evenly across shards.
+         * It reduces the contention of writing from many threads.</p>
+         * <p>Use it with a new directory, the files of an unsharded cache are not moved.</p>
+         *
+         * @param shardCount The count of shards, 1 means unsharded.
+         * @return the config
+         */
+        public Config setShardCount(@IntRange(from = 1) final int shardCount) {
+            mShardCount = Math.max(shardCount, 1);
+            return this;
         }
 
-        private boolean clear() {
-            File[] files = cacheDir.listFiles(new FilenameFilter() {
-                @Override
-                public boolean accept(File dir, String name) {
-                    return name.startsWith(CACHE_PREFIX);
-                }
-            });
-            if (files == null || files.length <= 0) return true;
-            boolean flag = true;
-            for (File file : files) {
-                if (!file.delete()) {
-                    flag = false;
-                    continue;
-                }
-                cacheSize.addAndGet(-file.length());
-                cacheCount.addAndGet(-1);
-                lastUsageDates.remove(file);
-            }
-            if (flag) {
-                lastUsageDates.clear();
-                cacheSize.set(0);
-                cacheCount.set(0);
-            }
-            return flag;
+        /**
+         * Set whether to store the CRC32 of data in the cache files.
+         * <p>The data is verified when read, the corrupt cache is removed and treated as missing.</p>
+         *
+         * @param checksumEnabled True to enable checksum, false otherwise.
+         * @return the config
+         */
+        public Config setChecksumEnabled(final boolean checksumEnabled) {
+            mChecksumEnabled = checksumEnabled;
+            return this;
         }
 
         /**
-         * Remove the oldest files.
+         * Set whether to sync the cache file to the storage device before it is renamed.
+         * <p>The cache files are always written into temp files and then renamed, the sync makes
+         * them survive a power loss too, it costs some time of each put. It is enabled by default.</p>
          *
-         * @return the size of oldest files, in bytes
+         * @param syncEnabled True to sync each write, false otherwise.
+         * @return the config
          */
-        private long removeOldest() {
-            if (lastUsageDates.isEmpty()) return 0;
-            Long oldestUsage = Long.MAX_VALUE;
-            File oldestFile = null;
-            Set<Map.Entry<File, Long>> entries = lastUsageDates.entrySet();
-            synchronized (lastUsageDates) {
-                for (Map.Entry<File, Long> entry : entries) {
-                    Long lastValueUsage = entry.getValue();
-                    if (lastValueUsage < oldestUsage) {
-                        oldestUsage = lastValueUsage;
-                        oldestFile = entry.getKey();
-                    }
-                }
-            }
-            if (oldestFile == null) return 0;
-            long fileSize = oldestFile.length();
-            if (oldestFile.delete()) {
-                lastUsageDates.remove(oldestFile);
-                return fileSize;
-            }
-            return 0;
+        public Config setSyncEnabled(final boolean syncEnabled) {
+            mSyncEnabled = syncEnabled;
+            return this;
         }
-    }
 
-    private static final class DiskCacheHelper {
+        /**
+         * Set the interval of sweeping the expired caches.
+         * <p>The expired caches are removed by a low priority thread shared by all instances in order
+         * of due time, so they don't take the space of others until they are read. It is disabled
+         * by default, the expired caches are removed when they are read or evicted first.</p>
+         *
+         * @param interval The interval of sweeping, in milliseconds, 0 means never sweep.
+         * @return the config
+         */
+        public Config setSweepInterval(@IntRange(from = 0) final long interval) {
+            mSweepInterval = Math.max(interval, 0);
+            return this;
+        }
 
-        static final int TIME_INFO_LEN = 14;
+        /**
+         * Set the max count of caches removed in each shard by one sweeping.
+         *
+         * @param batchSize The max count of caches removed by one sweeping.
+         * @return the config
+         */
+        public Config setSweepBatchSize(@IntRange(from = 1) final int batchSize) {
+            mSweepBatchSize = Math.max(batchSize, 1);
+            return this;
+        }
 
-        private static byte[] newByteArrayWithTime(final int second, final byte[] data) {
-            byte[] time = createDueTime(second).getBytes();
-            byte[] content = new byte[time.length + data.length];
-            System.arraycopy(time, 0, content, 0, time.length);
-            System.arraycopy(data, 0, content, time.length, data.length);
-            return content;
+        /**
+         * Set the max size of values which are appended into segment files.
+         * <p>Many small values share a few large segment files instead of a file for each of them,
+         * which is much faster to open and clear the cache. The space of removed values is
+         * reclaimed by compacting the segments in background. The larger values and streams
+         * are still written into their own files.</p>
+         * <p>The values in segments are found by the index, so they are missed by the reads
+         * until it is loaded in background after the cache is opened.</p>
+         *
+         * @param threshold The max size of values in segment files, in bytes, 0 means disabled.
+         * @return the config
+         */
+        public Config setSegmentThreshold(@IntRange(from = 0) final int threshold) {
+            mSegmentThreshold = Math.max(threshold, 0);
+            return this;
         }
 
         /**
-         * Return the string of due time.
+         * Set the codec to compress the values, such as {@link #DEFLATE}.
+         * <p>The codec is recorded in each cache file, so the values compressed by {@link #DEFLATE}
+         * can be read whatever the codec is. The streams are not compressed.</p>
          *
-         * @param seconds The seconds.
-         * @return the string of due time
+         * @param codec The codec, null means uncompressed.
+         * @return the config
          */
-        private static String createDueTime(final int seconds) {
-            return String.format(
-                    Locale.getDefault(), "_$%010d$_",
-                    System.currentTimeMillis() / 1000 + seconds
-            );
+        public Config setCodec(final Codec codec) {
+            mCodec = codec;
+            return this;
         }
 
-        private static boolean isDue(final byte[] data) {
-            long millis = getDueTime(data);
-            return millis != -1 && System.currentTimeMillis() > millis;
+        /**
+         * Set the min size of values to be compressed, the smaller ones are not worth it.
+         * It is 1024 bytes by default.
+         *
+         * @param threshold The min size of values to be compressed, in bytes.
+         * @return the config
+         */
+        public Config setCompressThreshold(@IntRange(from = 0) final int threshold) {
+            mCompressThreshold = Math.max(threshold, 0);
+            return this;
         }
 
-        private static long getDueTime(final byte[] data) {
-            if (hasTimeInfo(data)) {
-                String millis = new String(copyOfRange(data, 2, 12));
-                try {
-                    return Long.parseLong(millis) * 1000;
-                } catch (NumberFormatException e) {
-                    return -1;
-                }
-            }
-            return -1;
+        /**
+         * Set whether to write the caches into disk in background.
+         * <p>The put returns at once and the reads see the pending caches. The pending caches of the
+         * same key are coalesced, only the last one is written. The remove drops the pending cache
+         * of key and removes it from disk at once, so it returns the real result. The pending caches
+         * are lost if the process is killed, call {@link CacheDiskUtils#flush()} when necessary.
+         * The size and count of cache only contain the written caches.</p>
+         *
+         * @param writeBehindEnabled True to write in background, false otherwise.
+         * @return the config
+         */
+        public Config setWriteBehindEnabled(final boolean writeBehindEnabled) {
+            mWriteBehindEnabled = writeBehindEnabled;
+            return this;
         }
 
-        private static byte[] getDataWithoutDueTime(final byte[] data) {
-            if (hasTimeInfo(data)) {
-                return copyOfRange(data, TIME_INFO_LEN, data.length);
-            }
-            return data;
+        /**
+         * Set the max size of pending caches in write-behind mode, the put waits until the
+         * pending ones are written if it is exceeded. It is 4 MB by default.
+         *
+         * @param maxBytes The max size of pending caches, in bytes.
+         * @return the config
+         */
+        public Config setWriteBehindMaxBytes(@IntRange(from = 1) final long maxBytes) {
+            mWriteBehindMaxBytes = Math.max(maxBytes, 1);
+            return this;
         }
 
-        private static byte[] copyOfRange(final byte[] original, final int from, final int to) {
-            int newLength = to - from;
-            if (newLength < 0) throw new IllegalArgumentException(from + " > " + to);
-            byte[] copy = new byte[newLength];
-            System.arraycopy(original, from, copy, 0, Math.min(original.length - from, newLength));
-            return copy;
+        /**
+         * Set the min size of cache files which are mapped into memory when read.
+         * <p>The large data is copied from the mapped file once instead of read by the stream,
+         * and {@link CacheDiskUtils#getByteBuffer(String)} returns the mapped buffer without copy.
+         * It is 1 MB by default.</p>
+         *
+         * @param threshold The min size of cache files to be mapped, in bytes, 0 means never.
+         * @return the config
+         */
+        public Config setMmapThreshold(@IntRange(from = 0) final int threshold) {
+            mMmapThreshold = Math.max(threshold, 0);
+            return this;
         }
 
-        private static boolean hasTimeInfo(final byte[] data) {
-            return data != null
-                    && data.length >= TIME_INFO_LEN
-                    && data[0] == '_'
-                    && data[1] == '$'
-                    && data[12] == '$'
-                    && data[13] == '_';
+        @Override
+        public String toString() {
+            return "shardCount=" + mShardCount
+                    + "_checksum=" + mChecksumEnabled
+                    + "_sync=" + mSyncEnabled
+                    + "_sweepInterval=" + mSweepInterval
+                    + "_sweepBatchSize=" + mSweepBatchSize
+                    + "_segmentThreshold=" + mSegmentThreshold
+                    + "_codec=" + (mCodec == null ? "none" : mCodec.getId())
+                    + "_compressThreshold=" + mCompressThreshold
+                    + "_writeBehind=" + (mWriteBehindEnabled ? mWriteBehindMaxBytes : "none")
+                    + "_mmapThreshold=" + mMmapThreshold;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * The bytes of cache which are read with their due time.
+     */
+    static final class DiskValue {
+        byte[] data;
+        long   dueTime;// -1 if it never expires
+    }
+}
@@ -8,6 +8,9 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.io.Serializable;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 import androidx.annotation.NonNull;
 
@@ -74,6 +77,64 @@ public final class CacheDoubleStaticUtils {
         return getBytes(key, defaultValue, getDefaultCacheDoubleUtils());
     }
 
+    /**
+     * Return the bytes in cache, or load by the loader and put in cache if it doesn't exist.
+     *
+     * @param key    The key of cache.
+     * @param loader The loader of bytes.
+     * @return the bytes, or null if the loader fails or returns null
+     */
+    public static byte[] getBytesOrLoad(@NonNull final String key,
+                                        @NonNull final CacheMemoryUtils.Loader<byte[]> loader) {
+        return getBytesOrLoad(key, loader, getDefaultCacheDoubleUtils());
+    }
+
+    /**
+     * Return the bytes in cache, or load by the loader and put in cache if it doesn't exist.
+     *
+     * @param key      The key of cache.
+     * @param loader   The loader of bytes.
+     * @param saveTime The save time of loaded cache, in seconds.
+     * @return the bytes, or null if the loader fails or returns null
+     */
+    public static byte[] getBytesOrLoad(@NonNull final String key,
+                                        @NonNull final CacheMemoryUtils.Loader<byte[]> loader,
+                                        final int saveTime) {
+        return getBytesOrLoad(key, loader, saveTime, getDefaultCacheDoubleUtils());
+    }
+
+    /**
+     * Return the bytes in cache by callback, or load in the pool and put in cache if it doesn't exist.
+     *
+     * @param key      The key of cache.
+     * @param loader   The loader of bytes.
+     * @param pool     The pool to load in, such as {@link ThreadUtils#getIoPool()}.
+     * @param callback The callback of bytes.
+     */
+    public static void getBytesOrLoad(@NonNull final String key,
+                                      @NonNull final CacheMemoryUtils.Loader<byte[]> loader,
+                                      @NonNull final ExecutorService pool,
+                                      @NonNull final Utils.Consumer<byte[]> callback) {
+        getBytesOrLoad(key, loader, pool, callback, getDefaultCacheDoubleUtils());
+    }
+
+    /**
+     * Return the bytes in cache by callback, or load in the pool and put in cache if it doesn't exist.
+     *
+     * @param key      The key of cache.
+     * @param loader   The loader of bytes.
+     * @param saveTime The save time of loaded cache, in seconds.
+     * @param pool     The pool to load in, such as {@link ThreadUtils#getIoPool()}.
+     * @param callback The callback of bytes.
+     */
+    public static void getBytesOrLoad(@NonNull final String key,
+                                      @NonNull final CacheMemoryUtils.Loader<byte[]> loader,
+                                      final int saveTime,
+                                      @NonNull final ExecutorService pool,
+                                      @NonNull final Utils.Consumer<byte[]> callback) {
+        getBytesOrLoad(key, loader, saveTime, pool, callback, getDefaultCacheDoubleUtils());
+    }
+
     ///////////////////////////////////////////////////////////////////////////
     // about String
     ///////////////////////////////////////////////////////////////////////////
@@ -433,6 +494,70 @@ public final class CacheDoubleStaticUtils {
         return getCacheMemoryCount(getDefaultCacheDoubleUtils());
     }
 
+    /**
+     * Write all the pending caches into disk in the current thread.
+     */
+    public static void flush() {
+        flush(getDefaultCacheDoubleUtils());
+    }
+
+    /**
+     * Wait until all the pending caches are written into disk by the background thread.
+     *
+     * @param timeout The max time to wait, in milliseconds.
+     * @return {@code true}: no pending caches<br>{@code false}: timeout or interrupted
+     */
+    public static boolean awaitIdle(final long timeout) {
+        return awaitIdle(timeout, getDefaultCacheDoubleUtils());
+    }
+
+    /**
+     * Return the stats of cache.
+     *
+     * @return the stats of cache
+     */
+    public static CacheStats getStats() {
+        return getStats(getDefaultCacheDoubleUtils());
+    }
+
+    /**
+     * Put values in cache in batch.
+     *
+     * @param values The values of cache.
+     */
+    public static void putAll(@NonNull final Map<String, byte[]> values) {
+        putAll(values, getDefaultCacheDoubleUtils());
+    }
+
+    /**
+     * Put values in cache in batch.
+     *
+     * @param values   The values of cache.
+     * @param saveTime The save time of cache, in seconds.
+     */
+    public static void putAll(@NonNull final Map<String, byte[]> values, final int saveTime) {
+        putAll(values, saveTime, getDefaultCacheDoubleUtils());
+    }
+
+    /**
+     * Return the values in cache in batch.
+     *
+     * @param keys The keys of cache.
+     * @return the values of keys which exist in cache
+     */
+    public static Map<String, byte[]> getAll(@NonNull final Collection<String> keys) {
+        return getAll(keys, getDefaultCacheDoubleUtils());
+    }
+
+    /**
+     * Remove the caches whose keys start with the prefix.
+     *
+     * @param prefix The prefix of keys.
+     */
+    public static void removeByPrefix(@NonNull final String prefix) {
+        removeByPrefix(prefix, getDefaultCacheDoubleUtils());
+    }
+
     /**
      * Remove the cache by key.
      *
@@ -506,6 +631,72 @@ public final class CacheDoubleStaticUtils {
         return cacheDoubleUtils.getBytes(key, defaultValue);
     }
 
+    /**
+     * Return the bytes in cache, or load by the loader and put in cache if it doesn't exist.
+     *
+     * @param key              The key of cache.
+     * @param loader           The loader of bytes.
+     * @param cacheDoubleUtils The instance of {@link CacheDoubleUtils}.
+     * @return the bytes, or null if the loader fails or returns null
+     */
+    public static byte[] getBytesOrLoad(@NonNull final String key,
+                                        @NonNull final CacheMemoryUtils.Loader<byte[]> loader,
+                                        @NonNull final CacheDoubleUtils cacheDoubleUtils) {
+        return cacheDoubleUtils.getBytesOrLoad(key, loader);
+    }
+
+    /**
+     * Return the bytes in cache, or load by the loader and put in cache if it doesn't exist.
+     *
+     * @param key              The key of cache.
+     * @param loader           The loader of bytes.
+     * @param saveTime         The save time of loaded cache, in seconds.
+     * @param cacheDoubleUtils The instance of {@link CacheDoubleUtils}.
+     * @return the bytes, or null if the loader fails or returns null
+     */
+    public static byte[] getBytesOrLoad(@NonNull final String key,
+                                        @NonNull final CacheMemoryUtils.Loader<byte[]> loader,
+                                        final int saveTime,
+                                        @NonNull final CacheDoubleUtils cacheDoubleUtils) {
+        return cacheDoubleUtils.getBytesOrLoad(key, loader, saveTime);
+    }
+
+    /**
+     * Return the bytes in cache by callback, or load in the pool and put in cache if it doesn't exist.
+     *
+     * @param key              The key of cache.
+     * @param loader           The loader of bytes.
+     * @param pool             The pool to load in, such as {@link ThreadUtils#getIoPool()}.
+     * @param callback         The callback of bytes.
+     * @param cacheDoubleUtils The instance of {@link CacheDoubleUtils}.
+     */
+    public static void getBytesOrLoad(@NonNull final String key,
+                                      @NonNull final CacheMemoryUtils.Loader<byte[]> loader,
+                                      @NonNull final ExecutorService pool,
+                                      @NonNull final Utils.Consumer<byte[]> callback,
+                                      @NonNull final CacheDoubleUtils cacheDoubleUtils) {
+        cacheDoubleUtils.getBytesOrLoad(key, loader, pool, callback);
+    }
+
+    /**
+     * Return the bytes in cache by callback, or load in the pool and put in cache if it doesn't exist.
+     *
+     * @param key              The key of cache.
+     * @param loader           The loader of bytes.
+     * @param saveTime         The save time of loaded cache, in seconds.
+     * @param pool             The pool to load in, such as {@link ThreadUtils#getIoPool()}.
+     * @param callback         The callback of bytes.
+     * @param cacheDoubleUtils The instance of {@link CacheDoubleUtils}.
+     */
+    public static void getBytesOrLoad(@NonNull final String key,
+                                      @NonNull final CacheMemoryUtils.Loader<byte[]> loader,
+                                      final int saveTime,
+                                      @NonNull final ExecutorService pool,
+                                      @NonNull final Utils.Consumer<byte[]> callback,
+                                      @NonNull final CacheDoubleUtils cacheDoubleUtils) {
+        cacheDoubleUtils.getBytesOrLoad(key, loader, saveTime, pool, callback);
+    }
+
     ///////////////////////////////////////////////////////////////////////////
     // about String
     ///////////////////////////////////////////////////////////////////////////
@@ -944,6 +1135,81 @@ public final class CacheDoubleStaticUtils {
         return cacheDoubleUtils.getCacheMemoryCount();
     }
 
+    /**
+     * Write all the pending caches into disk in the current thread.
+     *
+     * @param cacheDoubleUtils The instance of {@link CacheDoubleUtils}.
+     */
+    public static void flush(@NonNull final CacheDoubleUtils cacheDoubleUtils) {
+        cacheDoubleUtils.flush();
+    }
+
+    /**
+     * Wait until all the pending caches are written into disk by the background thread.
+     *
+     * @param timeout          The max time to wait, in milliseconds.
+     * @param cacheDoubleUtils The instance of {@link CacheDoubleUtils}.
+     * @return {@code true}: no pending caches<br>{@code false}: timeout or interrupted
+     */
+    public static boolean awaitIdle(final long timeout, @NonNull final CacheDoubleUtils cacheDoubleUtils) {
+        return cacheDoubleUtils.awaitIdle(timeout);
+    }
+
+    /**
+     * Return the stats of cache.
+     *
+     * @param cacheDoubleUtils The instance of {@link CacheDoubleUtils}.
+     * @return the stats of cache
+     */
+    public static CacheStats getStats(@NonNull final CacheDoubleUtils cacheDoubleUtils) {
+        return cacheDoubleUtils.getStats();
+    }
+
+    /**
+     * Put values in cache in batch.
+     *
+     * @param values           The values of cache.
+     * @param cacheDoubleUtils The instance of {@link CacheDoubleUtils}.
+     */
+    public static void putAll(@NonNull final Map<String, byte[]> values, @NonNull final CacheDoubleUtils cacheDoubleUtils) {
+        cacheDoubleUtils.putAll(values);
+    }
+
+    /**
+     * Put values in cache in batch.
+     *
+     * @param values           The values of cache.
+     * @param saveTime         The save time of cache, in seconds.
+     * @param cacheDoubleUtils The instance of {@link CacheDoubleUtils}.
+     */
+    public static void putAll(@NonNull final Map<String, byte[]> values,
+                              final int saveTime,
+                              @NonNull final CacheDoubleUtils cacheDoubleUtils) {
+        cacheDoubleUtils.putAll(values, saveTime);
+    }
+
+    /**
+     * Return the values in cache in batch.
+     *
+     * @param keys             The keys of cache.
+     * @param cacheDoubleUtils The instance of {@link CacheDoubleUtils}.
+     * @return the values of keys which exist in cache
+     */
+    public static Map<String, byte[]> getAll(@NonNull final Collection<String> keys,
+                                             @NonNull final CacheDoubleUtils cacheDoubleUtils) {
+        return cacheDoubleUtils.getAll(keys);
+    }
+
+    /**
+     * Remove the caches whose keys start with the prefix.
+     *
+     * @param prefix           The prefix of keys.
+     * @param cacheDoubleUtils The instance of {@link CacheDoubleUtils}.
+     */
+    public static void removeByPrefix(@NonNull final String prefix, @NonNull final CacheDoubleUtils cacheDoubleUtils) {
+        cacheDoubleUtils.removeByPrefix(prefix);
+    }
+
     /**
      * Remove the cache by key.
      *
@@ -3,6 +3,7 @@ package com.blankj.utilcode.util;
 import android.graphics.Bitmap;
 import android.graphics.drawable.Drawable;
 import android.os.Parcelable;
+import androidx.annotation.IntRange;
 import androidx.annotation.NonNull;
 
 import com.blankj.utilcode.constant.CacheConstants;
@@ -11,8 +12,12 @@ import org.json.JSONArray;
 import org.json.JSONObject;
 
 import java.io.Serializable;
-import java.util.HashMap;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
 
 /**
  * <pre>
@@ -24,10 +29,36 @@ import java.util.Map;
  */
 public final class CacheDoubleUtils implements CacheConstants {
 
-    private static final Map<String, CacheDoubleUtils> CACHE_MAP = new HashMap<>();
+    /**
+     * The value read from disk is never put in memory.
+     */
+    public static final int PROMOTION_NEVER       = 0;
+    /**
+     * The value read from disk is always put in memory.
+     */
+    public static final int PROMOTION_ALWAYS      = 1;
+    /**
+     * The value read from disk is put in memory when it is read from disk the second time,
+     * so the ones which are read once don't evict the others in memory.
+     */
+    public static final int PROMOTION_SECOND_HIT  = 2;
+    /**
+     * The value read from disk is put in memory if its weight by {@link CacheMemoryUtils#DEFAULT_WEIGHER}
+     * is not more than {@link Config#setPromotionMaxSize(int)}.
+     */
+    public static final int PROMOTION_SIZE_CAPPED = 3;
 
-    private final CacheMemoryUtils mCacheMemoryUtils;
-    private final CacheDiskUtils   mCacheDiskUtils;
+    private static final int DISK_HITS_MAX_COUNT = 1024;
+
+    private static final InstanceRegistry<CacheDoubleUtils> CACHE_MAP = new InstanceRegistry<>();
+
+    private final CacheMemoryUtils     mCacheMemoryUtils;
+    private final CacheDiskUtils       mCacheDiskUtils;
+    private final int                  mPromotionPolicy;
+    private final int                  mPromotionMaxSize;
+    private final Map<String, Boolean> mDiskHits;// the keys which are read from disk once
+    private final CacheSingleFlight    mSingleFlight;
+    private final CacheStats           mStats = new CacheStats();
 
     /**
      * Return the single {@link CacheDoubleUtils} instance.
@@ -47,23 +78,62 @@ public final class CacheDoubleUtils implements CacheConstants {
      */
     public static CacheDoubleUtils getInstance(@NonNull final CacheMemoryUtils cacheMemoryUtils,
                                                @NonNull final CacheDiskUtils cacheDiskUtils) {
-        final String cacheKey = cacheDiskUtils.toString() + "_" + cacheMemoryUtils.toString();
+        return getInstance(cacheMemoryUtils, cacheDiskUtils, null);
+    }
+
+    /**
+     * Return the single {@link CacheDoubleUtils} instance.
+     *
+     * @param cacheMemoryUtils The instance of {@link CacheMemoryUtils}.
+     * @param cacheDiskUtils   The instance of {@link CacheDiskUtils}.
+     * @param config           The config of cache.
+     * @return the single {@link CacheDoubleUtils} instance
+     */
+    public static CacheDoubleUtils getInstance(@NonNull final CacheMemoryUtils cacheMemoryUtils,
+                                               @NonNull final CacheDiskUtils cacheDiskUtils,
+                                               final Config config) {
+        final String cacheKey = cacheDiskUtils.toString() + "_" + cacheMemoryUtils.toString()
+                + (config != null ? "_" + config : "");
         CacheDoubleUtils cache = CACHE_MAP.get(cacheKey);
-        if (cache == null) {
-            synchronized (CacheDoubleUtils.class) {
-                cache = CACHE_MAP.get(cacheKey);
-                if (cache == null) {
-                    cache = new CacheDoubleUtils(cacheMemoryUtils, cacheDiskUtils);
-                    CACHE_MAP.put(cacheKey, cache);
-                }
+        if (cache != null) return cache;
+        return CACHE_MAP.getOrCreate(cacheKey, new Utils.Supplier<CacheDoubleUtils>() {
+            @Override
+            public CacheDoubleUtils get() {
+                return new CacheDoubleUtils(cacheMemoryUtils, cacheDiskUtils, config == null ? new Config() : config);
             }
-        }
-        return cache;
+        });
     }
 
-    private CacheDoubleUtils(CacheMemoryUtils cacheMemoryUtils, CacheDiskUtils cacheUtils) {
+    private CacheDoubleUtils(CacheMemoryUtils cacheMemoryUtils, CacheDiskUtils cacheUtils, Config config) {
         mCacheMemoryUtils = cacheMemoryUtils;
         mCacheDiskUtils = cacheUtils;
+        mPromotionPolicy = config.mPromotionPolicy;
+        mPromotionMaxSize = config.mPromotionMaxSize;
+        mDiskHits = new LinkedHashMap<String, Boolean>() {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > DISK_HITS_MAX_COUNT;
+            }
+        };
+        mSingleFlight = new CacheSingleFlight(new CacheSingleFlight.Store() {
+            @Override
+            public Object get(String key) {
+                byte[] obj = mCacheMemoryUtils.get(key);
+                if (obj != null) return obj;
+                CacheDiskUtils.DiskValue diskValue = mCacheDiskUtils.getDiskValue(CacheDiskUtils.TYPE_BYTE + key);
+                return diskValue == null ? null : promote(key, diskValue.data, diskValue.dueTime);
+            }
+
+            @Override
+            public boolean isStale(String key) {
+                return mCacheMemoryUtils.isStale(key);
+            }
+
+            @Override
+            public void put(String key, Object value, int saveTime) {
+                CacheDoubleUtils.this.put(key, (byte[]) value, saveTime);
+            }
+        });
     }
 
 
@@ -91,6 +161,7 @@ public final class CacheDoubleUtils implements CacheConstants {
     public void put(@NonNull final String key, byte[] value, final int saveTime) {
         mCacheMemoryUtils.put(key, value, saveTime);
         mCacheDiskUtils.put(key, value, saveTime);
+        mStats.recordPut();
     }
 
     /**
@@ -111,9 +182,99 @@ public final class CacheDoubleUtils implements CacheConstants {
      * @return the bytes if cache exists or defaultValue otherwise
      */
     public byte[] getBytes(@NonNull final String key, final byte[] defaultValue) {
+        long startNanos = System.nanoTime();
         byte[] obj = mCacheMemoryUtils.get(key);
-        if (obj != null) return obj;
-        return mCacheDiskUtils.getBytes(key, defaultValue);
+        if (obj == null) {
+            CacheDiskUtils.DiskValue diskValue = mCacheDiskUtils.getDiskValue(CacheDiskUtils.TYPE_BYTE + key);
+            if (diskValue != null) obj = promote(key, diskValue.data, diskValue.dueTime);
+        }
+        return recordRead(startNanos, obj, defaultValue);
+    }
+
+    /**
+     * Return the bytes in cache, or load them by the loader and put them in cache if they don't exist.
+     * <p>The concurrent gets of the same key wait for the one which is loading it instead of loading again.
+     * The bytes are not cached if the loader fails or returns null, so the next get loads again.
+     * The stale bytes are refreshed in background, see {@link CacheMemoryUtils.Config#setRefreshAfterWrite(int)}.</p>
+     *
+     * @param key    The key of cache.
+     * @param loader The loader of bytes, which is called in the current thread.
+     * @return the bytes, or null if the loader fails or returns null
+     */
+    public byte[] getBytesOrLoad(@NonNull final String key, @NonNull final CacheMemoryUtils.Loader<byte[]> loader) {
+        return getBytesOrLoad(key, loader, -1);
+    }
+
+    /**
+     * Return the bytes in cache, or load them by the loader and put them in cache if they don't exist.
+     * <p>The concurrent gets of the same key wait for the one which is loading it instead of loading again.
+     * The bytes are not cached if the loader fails or returns null, so the next get loads again.
+     * The stale bytes are refreshed in background, see {@link CacheMemoryUtils.Config#setRefreshAfterWrite(int)}.</p>
+     *
+     * @param key      The key of cache.
+     * @param loader   The loader of bytes, which is called in the current thread.
+     * @param saveTime The save time of loaded cache, in seconds.
+     * @return the bytes, or null if the loader fails or returns null
+     */
+    public byte[] getBytesOrLoad(@NonNull final String key,
+                                 @NonNull final CacheMemoryUtils.Loader<byte[]> loader,
+                                 final int saveTime) {
+        byte[] obj = getBytes(key);
+        if (obj == null) return mSingleFlight.load(key, loader, saveTime);
+        if (mCacheMemoryUtils.isStale(key)) {
+            mSingleFlight.refresh(key, loader, saveTime, UtilsBridge.getIoPool());
+        }
+        return obj;
+    }
+
+    /**
+     * Return the bytes in cache by callback, or load them in the pool and put them in cache if they don't exist.
+     * <p>Only the memory is read in the current thread, the disk is read in the pool.
+     * The concurrent gets of the same key are called back by the one which is loading it.
+     * The bytes are not cached if the loader fails or returns null, so the next get loads again.
+     * The stale bytes are refreshed in background, see {@link CacheMemoryUtils.Config#setRefreshAfterWrite(int)}.</p>
+     *
+     * @param key      The key of cache.
+     * @param loader   The loader of bytes.
+     * @param pool     The pool to load in, such as {@link ThreadUtils#getIoPool()}.
+     * @param callback The callback of bytes, which is called in the current thread if they are in memory,
+     *                 or by the deliver of {@link ThreadUtils} otherwise, the bytes are null if it fails.
+     */
+    public void getBytesOrLoad(@NonNull final String key,
+                               @NonNull final CacheMemoryUtils.Loader<byte[]> loader,
+                               @NonNull final ExecutorService pool,
+                               @NonNull final Utils.Consumer<byte[]> callback) {
+        getBytesOrLoad(key, loader, -1, pool, callback);
+    }
+
+    /**
+     * Return the bytes in cache by callback, or load them in the pool and put them in cache if they don't exist.
+     * <p>Only the memory is read in the current thread, the disk is read in the pool.
+     * The concurrent gets of the same key are called back by the one which is loading it.
+     * The bytes are not cached if the loader fails or returns null, so the next get loads again.
+     * The stale bytes are refreshed in background, see {@link CacheMemoryUtils.Config#setRefreshAfterWrite(int)}.</p>
+     *
+     * @param key      The key of cache.
+     * @param loader   The loader of bytes.
+     * @param saveTime The save time of loaded cache, in seconds.
+     * @param pool     The pool to load in, such as {@link ThreadUtils#getIoPool()}.
+     * @param callback The callback of bytes, which is called in the current thread if they are in memory,
+     *                 or by the deliver of {@link ThreadUtils} otherwise, the bytes are null if it fails.
+     */
+    public void getBytesOrLoad(@NonNull final String key,
+                               @NonNull final CacheMemoryUtils.Loader<byte[]> loader,
+                               final int saveTime,
+                               @NonNull final ExecutorService pool,
+                               @NonNull final Utils.Consumer<byte[]> callback) {
+        long startNanos = System.nanoTime();
+        byte[] obj = mCacheMemoryUtils.get(key);
+        if (obj != null) {
+            mStats.recordRead(startNanos, true);
+            if (mCacheMemoryUtils.isStale(key)) mSingleFlight.refresh(key, loader, saveTime, pool);
+            callback.accept(obj);
+            return;
+        }
+        mSingleFlight.load(key, loader, saveTime, pool, callback);
     }
 
     ///////////////////////////////////////////////////////////////////////////
@@ -140,6 +301,7 @@ public final class CacheDoubleUtils implements CacheConstants {
     public void put(@NonNull final String key, final String value, final int saveTime) {
         mCacheMemoryUtils.put(key, value, saveTime);
         mCacheDiskUtils.put(key, value, saveTime);
+        mStats.recordPut();
     }
 
     /**
@@ -160,9 +322,13 @@ public final class CacheDoubleUtils implements CacheConstants {
      * @return the string value if cache exists or defaultValue otherwise
      */
     public String getString(@NonNull final String key, final String defaultValue) {
+        long startNanos = System.nanoTime();
         String obj = mCacheMemoryUtils.get(key);
-        if (obj != null) return obj;
-        return mCacheDiskUtils.getString(key, defaultValue);
+        if (obj == null) {
+            CacheDiskUtils.DiskValue diskValue = mCacheDiskUtils.getDiskValue(CacheDiskUtils.TYPE_STRING + key);
+            if (diskValue != null) obj = promote(key, UtilsBridge.bytes2String(diskValue.data), diskValue.dueTime);
+        }
+        return recordRead(startNanos, obj, defaultValue);
     }
 
     ///////////////////////////////////////////////////////////////////////////
@@ -191,6 +357,7 @@ public final class CacheDoubleUtils implements CacheConstants {
                     final int saveTime) {
         mCacheMemoryUtils.put(key, value, saveTime);
         mCacheDiskUtils.put(key, value, saveTime);
+        mStats.recordPut();
     }
 
     /**
@@ -211,9 +378,13 @@ public final class CacheDoubleUtils implements CacheConstants {
      * @return the JSONObject if cache exists or defaultValue otherwise
      */
     public JSONObject getJSONObject(@NonNull final String key, final JSONObject defaultValue) {
+        long startNanos = System.nanoTime();
         JSONObject obj = mCacheMemoryUtils.get(key);
-        if (obj != null) return obj;
-        return mCacheDiskUtils.getJSONObject(key, defaultValue);
+        if (obj == null) {
+            CacheDiskUtils.DiskValue diskValue = mCacheDiskUtils.getDiskValue(CacheDiskUtils.TYPE_JSON_OBJECT + key);
+            if (diskValue != null) obj = promote(key, UtilsBridge.bytes2JSONObject(diskValue.data), diskValue.dueTime);
+        }
+        return recordRead(startNanos, obj, defaultValue);
     }
 
 
@@ -241,6 +412,7 @@ public final class CacheDoubleUtils implements CacheConstants {
     public void put(@NonNull final String key, final JSONArray value, final int saveTime) {
         mCacheMemoryUtils.put(key, value, saveTime);
         mCacheDiskUtils.put(key, value, saveTime);
+        mStats.recordPut();
     }
 
     /**
@@ -261,9 +433,13 @@ public final class CacheDoubleUtils implements CacheConstants {
      * @return the JSONArray if cache exists or defaultValue otherwise
      */
     public JSONArray getJSONArray(@NonNull final String key, final JSONArray defaultValue) {
+        long startNanos = System.nanoTime();
         JSONArray obj = mCacheMemoryUtils.get(key);
-        if (obj != null) return obj;
-        return mCacheDiskUtils.getJSONArray(key, defaultValue);
+        if (obj == null) {
+            CacheDiskUtils.DiskValue diskValue = mCacheDiskUtils.getDiskValue(CacheDiskUtils.TYPE_JSON_ARRAY + key);
+            if (diskValue != null) obj = promote(key, UtilsBridge.bytes2JSONArray(diskValue.data), diskValue.dueTime);
+        }
+        return recordRead(startNanos, obj, defaultValue);
     }
 
     ///////////////////////////////////////////////////////////////////////////
@@ -290,6 +466,7 @@ public final class CacheDoubleUtils implements CacheConstants {
     public void put(@NonNull final String key, final Bitmap value, final int saveTime) {
         mCacheMemoryUtils.put(key, value, saveTime);
         mCacheDiskUtils.put(key, value, saveTime);
+        mStats.recordPut();
     }
 
     /**
@@ -310,9 +487,13 @@ public final class CacheDoubleUtils implements CacheConstants {
      * @return the bitmap if cache exists or defaultValue otherwise
      */
     public Bitmap getBitmap(@NonNull final String key, final Bitmap defaultValue) {
+        long startNanos = System.nanoTime();
         Bitmap obj = mCacheMemoryUtils.get(key);
-        if (obj != null) return obj;
-        return mCacheDiskUtils.getBitmap(key, defaultValue);
+        if (obj == null) {
+            CacheDiskUtils.DiskValue diskValue = mCacheDiskUtils.getDiskValue(CacheDiskUtils.TYPE_BITMAP + key);
+            if (diskValue != null) obj = promote(key, UtilsBridge.bytes2Bitmap(diskValue.data), diskValue.dueTime);
+        }
+        return recordRead(startNanos, obj, defaultValue);
     }
 
     ///////////////////////////////////////////////////////////////////////////
@@ -339,6 +520,7 @@ public final class CacheDoubleUtils implements CacheConstants {
     public void put(@NonNull final String key, final Drawable value, final int saveTime) {
         mCacheMemoryUtils.put(key, value, saveTime);
         mCacheDiskUtils.put(key, value, saveTime);
+        mStats.recordPut();
     }
 
     /**
@@ -359,9 +541,13 @@ public final class CacheDoubleUtils implements CacheConstants {
      * @return the drawable if cache exists or defaultValue otherwise
      */
     public Drawable getDrawable(@NonNull final String key, final Drawable defaultValue) {
+        long startNanos = System.nanoTime();
         Drawable obj = mCacheMemoryUtils.get(key);
-        if (obj != null) return obj;
-        return mCacheDiskUtils.getDrawable(key, defaultValue);
+        if (obj == null) {
+            CacheDiskUtils.DiskValue diskValue = mCacheDiskUtils.getDiskValue(CacheDiskUtils.TYPE_DRAWABLE + key);
+            if (diskValue != null) obj = promote(key, UtilsBridge.bytes2Drawable(diskValue.data), diskValue.dueTime);
+        }
+        return recordRead(startNanos, obj, defaultValue);
     }
 
     ///////////////////////////////////////////////////////////////////////////
@@ -388,6 +574,7 @@ public final class CacheDoubleUtils implements CacheConstants {
     public void put(@NonNull final String key, final Parcelable value, final int saveTime) {
         mCacheMemoryUtils.put(key, value, saveTime);
         mCacheDiskUtils.put(key, value, saveTime);
+        mStats.recordPut();
     }
 
     /**
@@ -415,9 +602,13 @@ public final class CacheDoubleUtils implements CacheConstants {
     public <T> T getParcelable(@NonNull final String key,
                                @NonNull final Parcelable.Creator<T> creator,
                                final T defaultValue) {
+        long startNanos = System.nanoTime();
         T value = mCacheMemoryUtils.get(key);
-        if (value != null) return value;
-        return mCacheDiskUtils.getParcelable(key, creator, defaultValue);
+        if (value == null) {
+            CacheDiskUtils.DiskValue diskValue = mCacheDiskUtils.getDiskValue(CacheDiskUtils.TYPE_PARCELABLE + key);
+            if (diskValue != null) value = promote(key, UtilsBridge.bytes2Parcelable(diskValue.data, creator), diskValue.dueTime);
+        }
+        return recordRead(startNanos, value, defaultValue);
     }
 
     ///////////////////////////////////////////////////////////////////////////
@@ -444,6 +635,7 @@ public final class CacheDoubleUtils implements CacheConstants {
     public void put(@NonNull final String key, final Serializable value, final int saveTime) {
         mCacheMemoryUtils.put(key, value, saveTime);
         mCacheDiskUtils.put(key, value, saveTime);
+        mStats.recordPut();
     }
 
     /**
@@ -464,9 +656,96 @@ public final class CacheDoubleUtils implements CacheConstants {
      * @return the bitmap if cache exists or defaultValue otherwise
      */
     public Object getSerializable(@NonNull final String key, final Object defaultValue) {
+        long startNanos = System.nanoTime();
         Object obj = mCacheMemoryUtils.get(key);
-        if (obj != null) return obj;
-        return mCacheDiskUtils.getSerializable(key, defaultValue);
+        if (obj == null) {
+            CacheDiskUtils.DiskValue diskValue = mCacheDiskUtils.getDiskValue(CacheDiskUtils.TYPE_SERIALIZABLE + key);
+            if (diskValue != null) obj = promote(key, UtilsBridge.bytes2Object(diskValue.data), diskValue.dueTime);
+        }
+        return recordRead(startNanos, obj, defaultValue);
+    }
+
+    ///////////////////////////////////////////////////////////////////////////
+    // about batch
+    ///////////////////////////////////////////////////////////////////////////
+
+    /**
+     * Put bytes in cache in batch.
+     *
+     * @param values The values of cache.
+     */
+    public void putAll(@NonNull final Map<String, byte[]> values) {
+        putAll(values, -1);
+    }
+
+    /**
+     * Put bytes in cache in batch.
+     *
+     * @param values   The values of cache.
+     * @param saveTime The save time of cache, in seconds.
+     */
+    public void putAll(@NonNull final Map<String, byte[]> values, final int saveTime) {
+        mCacheMemoryUtils.putAll(values, saveTime);
+        mCacheDiskUtils.putAll(values, saveTime);
+        mStats.recordPuts(values.size());
+    }
+
+    /**
+     * Return the bytes in cache in batch, the ones missed in memory are read from disk in batch.
+     *
+     * @param keys The keys of cache.
+     * @return the bytes of keys which exist in cache
+     */
+    public Map<String, byte[]> getAll(@NonNull final Collection<String> keys) {
+        Map<String, Object> inMemory = mCacheMemoryUtils.getAll(keys);
+        Map<String, byte[]> result = new LinkedHashMap<>();
+        List<String> missedKeys = new ArrayList<>();
+        for (String key : keys) {
+            Object value = inMemory.get(key);
+            if (value instanceof byte[]) {
+                result.put(key, (byte[]) value);
+            } else {
+                missedKeys.add(key);
+            }
+        }
+        if (!missedKeys.isEmpty()) {
+            for (Map.Entry<String, CacheDiskUtils.DiskValue> entry : mCacheDiskUtils.getDiskValues(missedKeys).entrySet()) {
+                CacheDiskUtils.DiskValue diskValue = entry.getValue();
+                result.put(entry.getKey(), promote(entry.getKey(), diskValue.data, diskValue.dueTime));
+            }
+        }
+        mStats.recordReads(result.size(), keys.size() - result.size());
+        return result;
+    }
+
+    /**
+     * Put the value read from disk in memory by the promotion policy, with its due time on disk.
+     */
+    private <T> T promote(final String key, final T value, final long dueTime) {
+        if (value == null) return null;
+        switch (mPromotionPolicy) {
+            case PROMOTION_NEVER:
+                return value;
+            case PROMOTION_SECOND_HIT:
+                synchronized (mDiskHits) {
+                    // the first hit is recorded only
+                    if (mDiskHits.remove(key) == null) {
+                        mDiskHits.put(key, Boolean.TRUE);
+                        return value;
+                    }
+                }
+                break;
+            case PROMOTION_SIZE_CAPPED:
+                if (CacheMemoryUtils.DEFAULT_WEIGHER.weigh(key, value) > mPromotionMaxSize) return value;
+                break;
+        }
+        mCacheMemoryUtils.promote(key, value, dueTime);
+        return value;
+    }
+
+    private <T> T recordRead(final long startNanos, final T value, final T defaultValue) {
+        mStats.recordRead(startNanos, value != null);
+        return value == null ? defaultValue : value;
     }
 
     /**
@@ -496,6 +775,36 @@ public final class CacheDoubleUtils implements CacheConstants {
         return mCacheMemoryUtils.getCacheCount();
     }
 
+    /**
+     * Return the stats of cache, a read hits if it hits in memory or disk.
+     * <p>The stats of each tier are returned by {@link CacheMemoryUtils#getStats()}
+     * and {@link CacheDiskUtils#getStats()}, it can be reset by {@link CacheStats#reset()}.</p>
+     *
+     * @return the stats of cache
+     */
+    public CacheStats getStats() {
+        return mStats;
+    }
+
+    /**
+     * Write all the pending caches into disk in the current thread.
+     * <p>It only works if the {@link CacheDiskUtils} writes in background,
+     * see {@link CacheDiskUtils.Config#setWriteBehindEnabled(boolean)}.</p>
+     */
+    public void flush() {
+        mCacheDiskUtils.flush();
+    }
+
+    /**
+     * Wait until all the pending caches are written into disk by the background thread.
+     *
+     * @param timeout The max time to wait, in milliseconds.
+     * @return {@code true}: no pending caches<br>{@code false}: timeout or interrupted
+     */
+    public boolean awaitIdle(final long timeout) {
+        return mCacheDiskUtils.awaitIdle(timeout);
+    }
+
     /**
      * Remove the cache by key.
      *
@@ -506,6 +815,16 @@ public final class CacheDoubleUtils implements CacheConstants {
         mCacheDiskUtils.remove(key);
     }
 
+    /**
+     * Remove the caches whose keys start with the prefix.
+     *
+     * @param prefix The prefix of keys.
+     */
+    public void removeByPrefix(@NonNull final String prefix) {
+        mCacheMemoryUtils.removeByPrefix(prefix);
+        mCacheDiskUtils.removeByPrefix(prefix);
+    }
+
     /**
      * Clear all of the cache.
      */
@@ -513,4 +832,44 @@ public final class CacheDoubleUtils implements CacheConstants {
         mCacheMemoryUtils.clear();
         mCacheDiskUtils.clear();
     }
+
+    /**
+     * The config of {@link CacheDoubleUtils}, it works when the instance is created.
+     */
+    public static final class Config {
+
+        private int mPromotionPolicy  = PROMOTION_NEVER;
+        private int mPromotionMaxSize = 64 * 1024;
+
+        /**
+         * Set the policy of putting the value read from disk in memory, with its remaining save time on disk.
+         * <p>It is {@link #PROMOTION_NEVER} by default, as before the policy is added.
+         * {@link #PROMOTION_ALWAYS} makes the hot value evicted from memory be read from disk once only,
+         * but the value which is removed from the disk instance directly may still be read from memory.</p>
+         *
+         * @param promotionPolicy The policy, such as {@link #PROMOTION_SECOND_HIT}.
+         * @return the config
+         */
+        public Config setPromotionPolicy(@IntRange(from = PROMOTION_NEVER, to = PROMOTION_SIZE_CAPPED) final int promotionPolicy) {
+            mPromotionPolicy = Math.min(Math.max(promotionPolicy, PROMOTION_NEVER), PROMOTION_SIZE_CAPPED);
+            return this;
+        }
+
+        /**
+         * Set the max weight of value to be put in memory by {@link #PROMOTION_SIZE_CAPPED}, 64 KB by default.
+         *
+         * @param maxSize The max weight by {@link CacheMemoryUtils#DEFAULT_WEIGHER}, such as bytes.
+         * @return the config
+         */
+        public Config setPromotionMaxSize(@IntRange(from = 0) final int maxSize) {
+            mPromotionMaxSize = Math.max(maxSize, 0);
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return "promotionPolicy=" + mPromotionPolicy
+                    + "_promotionMaxSize=" + mPromotionMaxSize;
+        }
+    }
 }
@@ -2,6 +2,10 @@ package com.blankj.utilcode.util;
 
 import androidx.annotation.NonNull;
 
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+
 /**
  * <pre>
  *     author: Blankj
@@ -67,6 +71,67 @@ public final class CacheMemoryStaticUtils {
         return get(key, defaultValue, getDefaultCacheMemoryUtils());
     }
 
+    /**
+     * Return the value in cache, or load by the loader and put in cache if it doesn't exist.
+     *
+     * @param key    The key of cache.
+     * @param loader The loader of value.
+     * @param <T>    The value type.
+     * @return the value, or null if the loader fails or returns null
+     */
+    public static <T> T getOrLoad(@NonNull final String key, @NonNull final CacheMemoryUtils.Loader<T> loader) {
+        return getOrLoad(key, loader, getDefaultCacheMemoryUtils());
+    }
+
+    /**
+     * Return the value in cache, or load by the loader and put in cache if it doesn't exist.
+     *
+     * @param key      The key of cache.
+     * @param loader   The loader of value.
+     * @param saveTime The save time of loaded cache, in seconds.
+     * @param <T>      The value type.
+     * @return the value, or null if the loader fails or returns null
+     */
+    public static <T> T getOrLoad(@NonNull final String key,
+                                  @NonNull final CacheMemoryUtils.Loader<T> loader,
+                                  final int saveTime) {
+        return getOrLoad(key, loader, saveTime, getDefaultCacheMemoryUtils());
+    }
+
+    /**
+     * Return the value in cache by callback, or load in the pool and put in cache if it doesn't exist.
+     *
+     * @param key      The key of cache.
+     * @param loader   The loader of value.
+     * @param pool     The pool to load in, such as {@link ThreadUtils#getIoPool()}.
+     * @param callback The callback of value.
+     * @param <T>      The value type.
+     */
+    public static <T> void getOrLoad(@NonNull final String key,
+                                     @NonNull final CacheMemoryUtils.Loader<T> loader,
+                                     @NonNull final ExecutorService pool,
+                                     @NonNull final Utils.Consumer<T> callback) {
+        getOrLoad(key, loader, pool, callback, getDefaultCacheMemoryUtils());
+    }
+
+    /**
+     * Return the value in cache by callback, or load in the pool and put in cache if it doesn't exist.
+     *
+     * @param key      The key of cache.
+     * @param loader   The loader of value.
+     * @param saveTime The save time of loaded cache, in seconds.
+     * @param pool     The pool to load in, such as {@link ThreadUtils#getIoPool()}.
+     * @param callback The callback of value.
+     * @param <T>      The value type.
+     */
+    public static <T> void getOrLoad(@NonNull final String key,
+                                     @NonNull final CacheMemoryUtils.Loader<T> loader,
+                                     final int saveTime,
+                                     @NonNull final ExecutorService pool,
+                                     @NonNull final Utils.Consumer<T> callback) {
+        getOrLoad(key, loader, saveTime, pool, callback, getDefaultCacheMemoryUtils());
+    }
+
     /**
      * Return the count of cache.
      *
@@ -76,6 +141,74 @@ public final class CacheMemoryStaticUtils {
         return getCacheCount(getDefaultCacheMemoryUtils());
     }
 
+    /**
+     * Return the size of cache, which is the total weight of values if the weigher is set,
+     * or the count otherwise.
+     *
+     * @return the size of cache
+     */
+    public static int getCacheSize() {
+        return getCacheSize(getDefaultCacheMemoryUtils());
+    }
+
+    /**
+     * Remove all the expired caches now.
+     *
+     * @return the count of removed caches
+     */
+    public static int sweepExpired() {
+        return sweepExpired(getDefaultCacheMemoryUtils());
+    }
+
+    /**
+     * Return the stats of cache.
+     *
+     * @return the stats of cache
+     */
+    public static CacheStats getStats() {
+        return getStats(getDefaultCacheMemoryUtils());
+    }
+
+    /**
+     * Put values in cache in batch.
+     *
+     * @param values The values of cache.
+     */
+    public static void putAll(@NonNull final Map<String, ?> values) {
+        putAll(values, getDefaultCacheMemoryUtils());
+    }
+
+    /**
+     * Put values in cache in batch.
+     *
+     * @param values   The values of cache.
+     * @param saveTime The save time of cache, in seconds.
+     */
+    public static void putAll(@NonNull final Map<String, ?> values, final int saveTime) {
+        putAll(values, saveTime, getDefaultCacheMemoryUtils());
+    }
+
+    /**
+     * Return the values in cache in batch.
+     *
+     * @param keys The keys of cache.
+     * @param <T>  The value type.
+     * @return the values of keys which exist in cache
+     */
+    public static <T> Map<String, T> getAll(@NonNull final Collection<String> keys) {
+        return getAll(keys, getDefaultCacheMemoryUtils());
+    }
+
+    /**
+     * Remove the caches whose keys start with the prefix.
+     *
+     * @param prefix The prefix of keys.
+     * @return the count of removed caches
+     */
+    public static int removeByPrefix(@NonNull final String prefix) {
+        return removeByPrefix(prefix, getDefaultCacheMemoryUtils());
+    }
+
     /**
      * Remove the cache by key.
      *
@@ -93,6 +226,15 @@ public final class CacheMemoryStaticUtils {
         clear(getDefaultCacheMemoryUtils());
     }
 
+    /**
+     * Trim the cache by the level of trimming memory and its priority.
+     *
+     * @param level The level of trimming memory, such as {@link android.content.ComponentCallbacks2#TRIM_MEMORY_MODERATE}.
+     */
+    public static void trimMemory(final int level) {
+        trimMemory(level, getDefaultCacheMemoryUtils());
+    }
+
     ///////////////////////////////////////////////////////////////////////////
     // dividing line
     ///////////////////////////////////////////////////////////////////////////
@@ -152,6 +294,76 @@ public final class CacheMemoryStaticUtils {
         return cacheMemoryUtils.get(key, defaultValue);
     }
 
+    /**
+     * Return the value in cache, or load by the loader and put in cache if it doesn't exist.
+     *
+     * @param key              The key of cache.
+     * @param loader           The loader of value.
+     * @param cacheMemoryUtils The instance of {@link CacheMemoryUtils}.
+     * @param <T>              The value type.
+     * @return the value, or null if the loader fails or returns null
+     */
+    public static <T> T getOrLoad(@NonNull final String key,
+                                  @NonNull final CacheMemoryUtils.Loader<T> loader,
+                                  @NonNull final CacheMemoryUtils cacheMemoryUtils) {
+        return cacheMemoryUtils.getOrLoad(key, loader);
+    }
+
+    /**
+     * Return the value in cache, or load by the loader and put in cache if it doesn't exist.
+     *
+     * @param key              The key of cache.
+     * @param loader           The loader of value.
+     * @param saveTime         The save time of loaded cache, in seconds.
+     * @param cacheMemoryUtils The instance of {@link CacheMemoryUtils}.
+     * @param <T>              The value type.
+     * @return the value, or null if the loader fails or returns null
+     */
+    public static <T> T getOrLoad(@NonNull final String key,
+                                  @NonNull final CacheMemoryUtils.Loader<T> loader,
+                                  final int saveTime,
+                                  @NonNull final CacheMemoryUtils cacheMemoryUtils) {
+        return cacheMemoryUtils.getOrLoad(key, loader, saveTime);
+    }
+
+    /**
+     * Return the value in cache by callback, or load in the pool and put in cache if it doesn't exist.
+     *
+     * @param key              The key of cache.
+     * @param loader           The loader of value.
+     * @param pool             The pool to load in, such as {@link ThreadUtils#getIoPool()}.
+     * @param callback         The callback of value.
+     * @param cacheMemoryUtils The instance of {@link CacheMemoryUtils}.
+     * @param <T>              The value type.
+     */
+    public static <T> void getOrLoad(@NonNull final String key,
+                                     @NonNull final CacheMemoryUtils.Loader<T> loader,
+                                     @NonNull final ExecutorService pool,
+                                     @NonNull final Utils.Consumer<T> callback,
+                                     @NonNull final CacheMemoryUtils cacheMemoryUtils) {
+        cacheMemoryUtils.getOrLoad(key, loader, pool, callback);
+    }
+
+    /**
+     * Return the value in cache by callback, or load in the pool and put in cache if it doesn't exist.
+     *
+     * @param key              The key of cache.
+     * @param loader           The loader of value.
+     * @param saveTime         The save time of loaded cache, in seconds.
+     * @param pool             The pool to load in, such as {@link ThreadUtils#getIoPool()}.
+     * @param callback         The callback of value.
+     * @param cacheMemoryUtils The instance of {@link CacheMemoryUtils}.
+     * @param <T>              The value type.
+     */
+    public static <T> void getOrLoad(@NonNull final String key,
+                                     @NonNull final CacheMemoryUtils.Loader<T> loader,
+                                     final int saveTime,
+                                     @NonNull final ExecutorService pool,
+                                     @NonNull final Utils.Consumer<T> callback,
+                                     @NonNull final CacheMemoryUtils cacheMemoryUtils) {
+        cacheMemoryUtils.getOrLoad(key, loader, saveTime, pool, callback);
+    }
+
     /**
      * Return the count of cache.
      *
@@ -162,6 +374,84 @@ public final class CacheMemoryStaticUtils {
         return cacheMemoryUtils.getCacheCount();
     }
 
+    /**
+     * Return the size of cache, which is the total weight of values if the weigher is set,
+     * or the count otherwise.
+     *
+     * @param cacheMemoryUtils The instance of {@link CacheMemoryUtils}.
+     * @return the size of cache
+     */
+    public static int getCacheSize(@NonNull final CacheMemoryUtils cacheMemoryUtils) {
+        return cacheMemoryUtils.getCacheSize();
+    }
+
+    /**
+     * Remove all the expired caches now.
+     *
+     * @param cacheMemoryUtils The instance of {@link CacheMemoryUtils}.
+     * @return the count of removed caches
+     */
+    public static int sweepExpired(@NonNull final CacheMemoryUtils cacheMemoryUtils) {
+        return cacheMemoryUtils.sweepExpired();
+    }
+
+    /**
+     * Return the stats of cache.
+     *
+     * @param cacheMemoryUtils The instance of {@link CacheMemoryUtils}.
+     * @return the stats of cache
+     */
+    public static CacheStats getStats(@NonNull final CacheMemoryUtils cacheMemoryUtils) {
+        return cacheMemoryUtils.getStats();
+    }
+
+    /**
+     * Put values in cache in batch.
+     *
+     * @param values           The values of cache.
+     * @param cacheMemoryUtils The instance of {@link CacheMemoryUtils}.
+     */
+    public static void putAll(@NonNull final Map<String, ?> values, @NonNull final CacheMemoryUtils cacheMemoryUtils) {
+        cacheMemoryUtils.putAll(values);
+    }
+
+    /**
+     * Put values in cache in batch.
+     *
+     * @param values           The values of cache.
+     * @param saveTime         The save time of cache, in seconds.
+     * @param cacheMemoryUtils The instance of {@link CacheMemoryUtils}.
+     */
+    public static void putAll(@NonNull final Map<String, ?> values,
+                              final int saveTime,
+                              @NonNull final CacheMemoryUtils cacheMemoryUtils) {
+        cacheMemoryUtils.putAll(values, saveTime);
+    }
+
+    /**
+     * Return the values in cache in batch.
+     *
+     * @param keys             The keys of cache.
+     * @param cacheMemoryUtils The instance of {@link CacheMemoryUtils}.
+     * @param <T>              The value type.
+     * @return the values of keys which exist in cache
+     */
+    public static <T> Map<String, T> getAll(@NonNull final Collection<String> keys,
+                                            @NonNull final CacheMemoryUtils cacheMemoryUtils) {
+        return cacheMemoryUtils.getAll(keys);
+    }
+
+    /**
+     * Remove the caches whose keys start with the prefix.
+     *
+     * @param prefix           The prefix of keys.
+     * @param cacheMemoryUtils The instance of {@link CacheMemoryUtils}.
+     * @return the count of removed caches
+     */
+    public static int removeByPrefix(@NonNull final String prefix, @NonNull final CacheMemoryUtils cacheMemoryUtils) {
+        return cacheMemoryUtils.removeByPrefix(prefix);
+    }
+
     /**
      * Remove the cache by key.
      *
@@ -182,6 +472,16 @@ public final class CacheMemoryStaticUtils {
         cacheMemoryUtils.clear();
     }
 
+    /**
+     * Trim the cache by the level of trimming memory and its priority.
+     *
+     * @param level            The level of trimming memory, such as {@link android.content.ComponentCallbacks2#TRIM_MEMORY_MODERATE}.
+     * @param cacheMemoryUtils The instance of {@link CacheMemoryUtils}.
+     */
+    public static void trimMemory(final int level, @NonNull final CacheMemoryUtils cacheMemoryUtils) {
+        cacheMemoryUtils.trimMemory(level);
+    }
+
     private static CacheMemoryUtils getDefaultCacheMemoryUtils() {
         return sDefaultCacheMemoryUtils != null ? sDefaultCacheMemoryUtils : CacheMemoryUtils.getInstance();
     }
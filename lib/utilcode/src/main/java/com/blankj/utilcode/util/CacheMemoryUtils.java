@@ -1,12 +1,31 @@
 package com.blankj.utilcode.util;
 
+import android.content.ComponentCallbacks2;
+import android.graphics.Bitmap;
+import android.graphics.drawable.BitmapDrawable;
+import android.os.Build;
+import android.util.Log;
+
+import androidx.annotation.IntRange;
 import androidx.annotation.NonNull;
-import androidx.collection.LruCache;
 
 import com.blankj.utilcode.constant.CacheConstants;
 
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.SoftReference;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 /**
  * <pre>
@@ -19,11 +38,39 @@ import java.util.Map;
 public final class CacheMemoryUtils implements CacheConstants {
 
     private static final int DEFAULT_MAX_COUNT = 256;
+    private static final int OBJECT_WEIGHT     = 16;// the rough shallow size of object which can't be weighed
+    private static final int MAX_WEIGH_DEPTH   = 4;
 
-    private static final Map<String, CacheMemoryUtils> CACHE_MAP = new HashMap<>();
+    /**
+     * The priorities of cache to be trimmed when the system is short of memory,
+     * see {@link Config#setTrimPriority(int)}.
+     */
+    public static final int TRIM_PRIORITY_LOW    = 0;
+    public static final int TRIM_PRIORITY_NORMAL = 1;
+    public static final int TRIM_PRIORITY_HIGH   = 2;
 
-    private final String                       mCacheKey;
-    private final LruCache<String, CacheValue> mMemoryCache;
+    private static final InstanceRegistry<CacheMemoryUtils> CACHE_MAP = new InstanceRegistry<>();
+
+    /**
+     * The weigher which weighs {@code byte[]}, {@link CharSequence}, {@link Bitmap},
+     * {@link BitmapDrawable}, {@link Collection} and {@link Map} by their bytes in memory,
+     * the others weigh {@value #OBJECT_WEIGHT}.
+     */
+    public static final Weigher DEFAULT_WEIGHER = new Weigher() {
+        @Override
+        public int weigh(@NonNull final String key, @NonNull final Object value) {
+            return (int) Math.min(weighOf(value, 0), Integer.MAX_VALUE);
+        }
+    };
+
+    private final String            mCacheKey;
+    private final MemoryCache       mMemoryCache;
+    private final Weigher           mWeigher;
+    private final int               mTrimPriority;
+    private final long              mRefreshAfterWrite;// -1 if the values are never refreshed
+    private final SoftOverflow      mSoftOverflow;// null if the evicted values are not kept
+    private final CacheSingleFlight mSingleFlight;
+    private final CacheStats        mStats = new CacheStats();
 
     /**
      * Return the single {@link CacheMemoryUtils} instance.
@@ -52,22 +99,70 @@ public final class CacheMemoryUtils implements CacheConstants {
      * @return the single {@link CacheMemoryUtils} instance
      */
     public static CacheMemoryUtils getInstance(final String cacheKey, final int maxCount) {
-        CacheMemoryUtils cache = CACHE_MAP.get(cacheKey);
-        if (cache == null) {
-            synchronized (CacheMemoryUtils.class) {
-                cache = CACHE_MAP.get(cacheKey);
-                if (cache == null) {
-                    cache = new CacheMemoryUtils(cacheKey, new LruCache<String, CacheValue>(maxCount));
-                    CACHE_MAP.put(cacheKey, cache);
-                }
+        return getInstance(cacheKey, maxCount, null);
+    }
+
+    /**
+     * Return the single {@link CacheMemoryUtils} instance.
+     * <p>The cache is limited by the total weight of values instead of the count if the weigher of config
+     * is set, such as bytes of {@link #DEFAULT_WEIGHER}.</p>
+     *
+     * @param cacheKey The key of cache.
+     * @param maxSize  The max total weight of cache, or the max count if weigher of config is null.
+     * @param config   The config of cache.
+     * @return the single {@link CacheMemoryUtils} instance
+     */
+    public static CacheMemoryUtils getInstance(final String cacheKey, final int maxSize, final Config config) {
+        final String realCacheKey = cacheKey + "_" + maxSize + (config != null ? "_" + config : "");
+        CacheMemoryUtils cache = CACHE_MAP.get(realCacheKey);
+        if (cache != null) return cache;
+        return CACHE_MAP.getOrCreate(realCacheKey, new Utils.Supplier<CacheMemoryUtils>() {
+            @Override
+            public CacheMemoryUtils get() {
+                return new CacheMemoryUtils(realCacheKey, maxSize, config == null ? new Config() : config);
             }
-        }
-        return cache;
+        });
     }
 
-    private CacheMemoryUtils(String cacheKey, LruCache<String, CacheValue> memoryCache) {
+    private CacheMemoryUtils(String cacheKey, int maxSize, Config config) {
         mCacheKey = cacheKey;
-        mMemoryCache = memoryCache;
+        mWeigher = config.mWeigher;
+        mTrimPriority = config.mTrimPriority;
+        mRefreshAfterWrite = config.mRefreshAfterWrite < 0 ? -1 : config.mRefreshAfterWrite * 1000L;
+        mSoftOverflow = config.mSoftOverflowMinWeight < 0 ? null : new SoftOverflow(config.mSoftOverflowMinWeight);
+        mMemoryCache = new MemoryCache(maxSize, config.mConcurrencyLevel, config.mTinyLfuEnabled) {
+            @Override
+            void entryRemoved(boolean evicted, String key, CacheValue oldValue, CacheValue newValue) {
+                if (!evicted) return;
+                mStats.recordEviction(1);
+                if (mSoftOverflow != null) mSoftOverflow.put(key, oldValue);
+            }
+
+            @Override
+            void entryRejected(String key, CacheValue value) {
+                mStats.recordRejection();
+            }
+        };
+        mSingleFlight = new CacheSingleFlight(new CacheSingleFlight.Store() {
+            @Override
+            public Object get(String key) {
+                return getValue(key);
+            }
+
+            @Override
+            public boolean isStale(String key) {
+                return CacheMemoryUtils.this.isStale(key);
+            }
+
+            @Override
+            public void put(String key, Object value, int saveTime) {
+                CacheMemoryUtils.this.put(key, value, saveTime);
+            }
+        });
+        if (config.mSweepInterval > 0) {
+            MemoryCacheSweeper.schedule(this, config.mSweepInterval);
+        }
+        CacheTrimCoordinator.INSTANCE.register(this);
     }
 
     @Override
@@ -94,8 +189,71 @@ public final class CacheMemoryUtils implements CacheConstants {
      */
     public void put(@NonNull final String key, final Object value, int saveTime) {
         if (value == null) return;
-        long dueTime = saveTime < 0 ? -1 : System.currentTimeMillis() + saveTime * 1000;
-        mMemoryCache.put(key, new CacheValue(dueTime, value));
+        long now = System.currentTimeMillis();
+        long dueTime = saveTime < 0 ? -1 : now + saveTime * 1000;
+        if (mSoftOverflow != null) mSoftOverflow.remove(key);
+        mMemoryCache.put(key, new CacheValue(dueTime, refreshTimeOf(now), value, weigh(key, value)));
+        mStats.recordPut();
+    }
+
+    /**
+     * Put the value which is read from the lower tier, such as the disk of {@link CacheDoubleUtils},
+     * with its due time there. It is stale at once if the refresh window is set, since its write time is unknown.
+     */
+    void promote(@NonNull final String key, @NonNull final Object value, final long dueTime) {
+        long now = System.currentTimeMillis();
+        if (mSoftOverflow != null) mSoftOverflow.remove(key);
+        mMemoryCache.put(key, new CacheValue(dueTime, mRefreshAfterWrite < 0 ? -1 : now, value, weigh(key, value)));
+        mStats.recordPut();
+    }
+
+    /**
+     * Return the weight of value, which is fixed while it is in cache.
+     */
+    private int weigh(final String key, final Object value) {
+        if (mWeigher == null) return 1;
+        int weight = mWeigher.weigh(key, value);
+        if (weight < 0) throw new IllegalStateException("negative weight: " + key + "=" + weight);
+        return weight;
+    }
+
+    private long refreshTimeOf(final long writeTime) {
+        return mRefreshAfterWrite < 0 ? -1 : writeTime + mRefreshAfterWrite;
+    }
+
+    private static long weighOf(final Object value, final int depth) {
+        if (value instanceof byte[]) return ((byte[]) value).length;
+        if (value instanceof CharSequence) return ((CharSequence) value).length() * 2L;
+        if (value instanceof Bitmap) return weighOf((Bitmap) value);
+        if (value instanceof BitmapDrawable) {
+            Bitmap bitmap = ((BitmapDrawable) value).getBitmap();
+            return bitmap == null ? OBJECT_WEIGHT : weighOf(bitmap);
+        }
+        if (depth >= MAX_WEIGH_DEPTH) return OBJECT_WEIGHT;
+        if (value instanceof Collection) {
+            long weight = OBJECT_WEIGHT;
+            for (Object element : (Collection<?>) value) {
+                if (element != null) weight += weighOf(element, depth + 1);
+            }
+            return weight;
+        }
+        if (value instanceof Map) {
+            long weight = OBJECT_WEIGHT;
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                if (entry.getKey() != null) weight += weighOf(entry.getKey(), depth + 1);
+                if (entry.getValue() != null) weight += weighOf(entry.getValue(), depth + 1);
+            }
+            return weight;
+        }
+        return OBJECT_WEIGHT;
+    }
+
+    private static long weighOf(final Bitmap bitmap) {
+        if (bitmap.isRecycled()) return 0;
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.KITKAT) {
+            return bitmap.getAllocationByteCount();
+        }
+        return bitmap.getByteCount();
     }
 
     /**
@@ -118,14 +276,206 @@ public final class CacheMemoryUtils implements CacheConstants {
      * @return the value if cache exists or defaultValue otherwise
      */
     public <T> T get(@NonNull final String key, final T defaultValue) {
-        CacheValue val = mMemoryCache.get(key);
-        if (val == null) return defaultValue;
-        if (val.dueTime == -1 || val.dueTime >= System.currentTimeMillis()) {
+        long startNanos = System.nanoTime();
+        Object value = getValue(key);
+        mStats.recordRead(startNanos, value != null);
+        //noinspection unchecked
+        return value == null ? defaultValue : (T) value;
+    }
+
+    /**
+     * Return the value in cache, or load it by the loader and put it in cache if it doesn't exist.
+     * <p>The concurrent gets of the same key wait for the one which is loading it instead of loading again.
+     * The value is not cached if the loader fails or returns null, so the next get loads again.
+     * The stale value is refreshed in background, see {@link Config#setRefreshAfterWrite(int)}.</p>
+     *
+     * @param key    The key of cache.
+     * @param loader The loader of value, which is called in the current thread.
+     * @param <T>    The value type.
+     * @return the value, or null if the loader fails or returns null
+     */
+    public <T> T getOrLoad(@NonNull final String key, @NonNull final Loader<T> loader) {
+        return getOrLoad(key, loader, -1);
+    }
+
+    /**
+     * Return the value in cache, or load it by the loader and put it in cache if it doesn't exist.
+     * <p>The concurrent gets of the same key wait for the one which is loading it instead of loading again.
+     * The value is not cached if the loader fails or returns null, so the next get loads again.
+     * The stale value is refreshed in background, see {@link Config#setRefreshAfterWrite(int)}.</p>
+     *
+     * @param key      The key of cache.
+     * @param loader   The loader of value, which is called in the current thread.
+     * @param saveTime The save time of loaded cache, in seconds.
+     * @param <T>      The value type.
+     * @return the value, or null if the loader fails or returns null
+     */
+    public <T> T getOrLoad(@NonNull final String key, @NonNull final Loader<T> loader, final int saveTime) {
+        long startNanos = System.nanoTime();
+        CacheValue val = getCacheValue(key);
+        mStats.recordRead(startNanos, val != null);
+        if (val != null) {
+            if (isStale(val)) mSingleFlight.refresh(key, loader, saveTime, UtilsBridge.getIoPool());
             //noinspection unchecked
             return (T) val.value;
         }
+        return mSingleFlight.load(key, loader, saveTime);
+    }
+
+    /**
+     * Return the value in cache by callback, or load it in the pool and put it in cache if it doesn't exist.
+     * <p>The concurrent gets of the same key are called back by the one which is loading it.
+     * The value is not cached if the loader fails or returns null, so the next get loads again.
+     * The stale value is refreshed in background, see {@link Config#setRefreshAfterWrite(int)}.</p>
+     *
+     * @param key      The key of cache.
+     * @param loader   The loader of value.
+     * @param pool     The pool to load in, such as {@link ThreadUtils#getIoPool()}.
+     * @param callback The callback of value, which is called in the current thread if it is cached,
+     *                 or by the deliver of {@link ThreadUtils} otherwise, the value is null if it fails.
+     * @param <T>      The value type.
+     */
+    public <T> void getOrLoad(@NonNull final String key,
+                              @NonNull final Loader<T> loader,
+                              @NonNull final ExecutorService pool,
+                              @NonNull final Utils.Consumer<T> callback) {
+        getOrLoad(key, loader, -1, pool, callback);
+    }
+
+    /**
+     * Return the value in cache by callback, or load it in the pool and put it in cache if it doesn't exist.
+     * <p>The concurrent gets of the same key are called back by the one which is loading it.
+     * The value is not cached if the loader fails or returns null, so the next get loads again.
+     * The stale value is refreshed in background, see {@link Config#setRefreshAfterWrite(int)}.</p>
+     *
+     * @param key      The key of cache.
+     * @param loader   The loader of value.
+     * @param saveTime The save time of loaded cache, in seconds.
+     * @param pool     The pool to load in, such as {@link ThreadUtils#getIoPool()}.
+     * @param callback The callback of value, which is called in the current thread if it is cached,
+     *                 or by the deliver of {@link ThreadUtils} otherwise, the value is null if it fails.
+     * @param <T>      The value type.
+     */
+    public <T> void getOrLoad(@NonNull final String key,
+                              @NonNull final Loader<T> loader,
+                              final int saveTime,
+                              @NonNull final ExecutorService pool,
+                              @NonNull final Utils.Consumer<T> callback) {
+        long startNanos = System.nanoTime();
+        CacheValue val = getCacheValue(key);
+        mStats.recordRead(startNanos, val != null);
+        if (val != null) {
+            if (isStale(val)) mSingleFlight.refresh(key, loader, saveTime, pool);
+            //noinspection unchecked
+            callback.accept((T) val.value);
+            return;
+        }
+        mSingleFlight.load(key, loader, saveTime, pool, callback);
+    }
+
+    /**
+     * Return the value which is not expired, without stats.
+     */
+    private Object getValue(final String key) {
+        CacheValue val = getCacheValue(key);
+        return val == null ? null : val.value;
+    }
+
+    private CacheValue getCacheValue(final String key) {
+        CacheValue val = mMemoryCache.get(key);
+        if (val == null && mSoftOverflow != null) {
+            val = reinstate(key);
+        }
+        if (val == null) return null;
+        if (val.dueTime == -1 || val.dueTime >= System.currentTimeMillis()) return val;
         mMemoryCache.remove(key);
-        return defaultValue;
+        return null;
+    }
+
+    /**
+     * Return whether the value is written before the refresh window, it is true if the value
+     * doesn't exist while the window is set, since its write time is unknown, such as the one on disk.
+     */
+    boolean isStale(final String key) {
+        if (mRefreshAfterWrite < 0) return false;
+        CacheValue val = getCacheValue(key);
+        return val == null || isStale(val);
+    }
+
+    private static boolean isStale(final CacheValue val) {
+        return val.refreshTime != -1 && System.currentTimeMillis() >= val.refreshTime;
+    }
+
+    /**
+     * Take the value which is evicted but still softly reachable, and put it back in cache.
+     */
+    private CacheValue reinstate(final String key) {
+        CacheValue val = mSoftOverflow.take(key);
+        if (val == null) return null;
+        // the one which is put meanwhile wins
+        CacheValue existing = mMemoryCache.putIfAbsent(key, val);
+        return existing != null ? existing : val;
+    }
+
+    /**
+     * Put values in cache in batch, with each segment of cache locked once.
+     *
+     * @param values The values of cache.
+     */
+    public void putAll(@NonNull final Map<String, ?> values) {
+        putAll(values, -1);
+    }
+
+    /**
+     * Put values in cache in batch, with each segment of cache locked once.
+     *
+     * @param values   The values of cache.
+     * @param saveTime The save time of cache, in seconds.
+     */
+    public void putAll(@NonNull final Map<String, ?> values, int saveTime) {
+        long now = System.currentTimeMillis();
+        long dueTime = saveTime < 0 ? -1 : now + saveTime * 1000L;
+        long refreshTime = refreshTimeOf(now);
+        Map<String, CacheValue> cacheValues = new LinkedHashMap<>();
+        for (Map.Entry<String, ?> entry : values.entrySet()) {
+            if (entry.getValue() == null) continue;
+            String key = entry.getKey();
+            cacheValues.put(key, new CacheValue(dueTime, refreshTime, entry.getValue(), weigh(key, entry.getValue())));
+            if (mSoftOverflow != null) mSoftOverflow.remove(key);
+        }
+        mMemoryCache.putAll(cacheValues);
+        mStats.recordPuts(cacheValues.size());
+    }
+
+    /**
+     * Return the values in cache in batch, with each segment of cache locked once.
+     *
+     * @param keys The keys of cache.
+     * @param <T>  The value type.
+     * @return the values of keys which exist in cache
+     */
+    public <T> Map<String, T> getAll(@NonNull final Collection<String> keys) {
+        Map<String, CacheValue> values = mMemoryCache.getAll(keys);
+        if (mSoftOverflow != null && values.size() < keys.size()) {
+            for (String key : keys) {
+                if (values.containsKey(key)) continue;
+                CacheValue val = reinstate(key);
+                if (val != null) values.put(key, val);
+            }
+        }
+        Map<String, T> result = new LinkedHashMap<>();
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, CacheValue> entry : values.entrySet()) {
+            CacheValue val = entry.getValue();
+            if (val.dueTime == -1 || val.dueTime >= now) {
+                //noinspection unchecked
+                result.put(entry.getKey(), (T) val.value);
+            } else {
+                mMemoryCache.remove(entry.getKey());
+            }
+        }
+        mStats.recordReads(result.size(), keys.size() - result.size());
+        return result;
     }
 
     /**
@@ -134,6 +484,16 @@ public final class CacheMemoryUtils implements CacheConstants {
      * @return the count of cache
      */
     public int getCacheCount() {
+        return mMemoryCache.count();
+    }
+
+    /**
+     * Return the size of cache, which is the total weight of values if the weigher is set,
+     * or the count otherwise.
+     *
+     * @return the size of cache
+     */
+    public int getCacheSize() {
         return mMemoryCache.size();
     }
 
@@ -144,25 +504,1138 @@ public final class CacheMemoryUtils implements CacheConstants {
      * @return {@code true}: success<br>{@code false}: fail
      */
     public Object remove(@NonNull final String key) {
+        if (mSoftOverflow != null) mSoftOverflow.remove(key);
         CacheValue remove = mMemoryCache.remove(key);
         if (remove == null) return null;
         return remove.value;
     }
 
+    /**
+     * Remove the caches whose keys start with the prefix.
+     *
+     * @param prefix The prefix of keys.
+     * @return the count of removed caches
+     */
+    public int removeByPrefix(@NonNull final String prefix) {
+        if (mSoftOverflow != null) mSoftOverflow.removeByPrefix(prefix);
+        int count = 0;
+        for (String key : mMemoryCache.keys()) {
+            if (key.startsWith(prefix) && mMemoryCache.remove(key) != null) count++;
+        }
+        return count;
+    }
+
     /**
      * Clear all of the cache.
      */
     public void clear() {
-        mMemoryCache.evictAll();
+        if (mSoftOverflow != null) mSoftOverflow.clear();
+        // the cleared ones are not evicted
+        for (String key : mMemoryCache.keys()) {
+            mMemoryCache.remove(key);
+        }
+    }
+
+    /**
+     * Trim the cache by the level of {@link ComponentCallbacks2#onTrimMemory(int)} and its priority.
+     * <p>It is called for all instances when the system is short of memory, half of the values are
+     * evicted or all of them are cleared as the memory gets shorter, see {@link Config#setTrimPriority(int)}.
+     * The values kept by soft references are dropped too.</p>
+     *
+     * @param level The level of trimming memory, such as {@link ComponentCallbacks2#TRIM_MEMORY_MODERATE}.
+     */
+    public void trimMemory(final int level) {
+        int severity = pressureOf(level) - mTrimPriority;
+        if (severity <= 0) return;
+        if (severity == 1) {
+            mMemoryCache.trimToHalf();
+            if (mSoftOverflow != null) mSoftOverflow.clear();
+        } else {
+            clear();
+        }
+    }
+
+    int getTrimPriority() {
+        return mTrimPriority;
+    }
+
+    /**
+     * Return the pressure of memory from 0 to 3, by the level of trimming memory.
+     */
+    private static int pressureOf(final int level) {
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_COMPLETE) return 3;
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_MODERATE) return 2;
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_UI_HIDDEN) return 1;
+        // the levels below are sent while the app is running in foreground
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_CRITICAL) return 3;
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_LOW) return 2;
+        if (level >= ComponentCallbacks2.TRIM_MEMORY_RUNNING_MODERATE) return 1;
+        return 0;
+    }
+
+    /**
+     * Remove all the expired caches now.
+     * <p>They are removed when the cache is accessed, and by the sweeper periodically too
+     * if it is enabled, see {@link Config#setSweepInterval(long)}.</p>
+     *
+     * @return the count of removed caches
+     */
+    public int sweepExpired() {
+        return mMemoryCache.expire();
+    }
+
+    /**
+     * Return the stats of cache, such as hit count, eviction count and read latency.
+     * <p>It can be reset by {@link CacheStats#reset()}.</p>
+     *
+     * @return the stats of cache
+     */
+    public CacheStats getStats() {
+        return mStats;
+    }
+
+    /**
+     * The weigher of values in cache.
+     */
+    public interface Weigher {
+        /**
+         * Return the weight of value, it must not be negative.
+         *
+         * @param key   The key of cache.
+         * @param value The value of cache.
+         * @return the weight of value
+         */
+        int weigh(@NonNull String key, @NonNull Object value);
+    }
+
+    /**
+     * The loader of values which don't exist in cache.
+     *
+     * @param <T> The value type.
+     */
+    public interface Loader<T> {
+        /**
+         * Load the value, such as decoding a bitmap or requesting a server.
+         *
+         * @param key The key of cache.
+         * @return the value, null means it doesn't exist and is not cached
+         * @throws Exception if it fails, which is not cached
+         */
+        T load(@NonNull String key) throws Exception;
+    }
+
+    /**
+     * The config of {@link CacheMemoryUtils}, it works when the instance is created.
+     */
+    public static final class Config {
+
+        private Weigher mWeigher;
+        private int     mConcurrencyLevel      = 1;
+        private boolean mTinyLfuEnabled        = false;
+        private long    mSweepInterval         = 0;
+        private int     mTrimPriority          = TRIM_PRIORITY_NORMAL;
+        private int     mSoftOverflowMinWeight = -1;
+        private int     mRefreshAfterWrite     = -1;
+
+        /**
+         * Set the weigher of values.
+         * <p>The cache is limited by the total weight of values instead of the count if it is set.</p>
+         *
+         * @param weigher The weigher of values, null means each value weighs 1.
+         * @return the config
+         */
+        public Config setWeigher(final Weigher weigher) {
+            mWeigher = weigher;
+            return this;
+        }
+
+        /**
+         * Set the count of threads which access the cache concurrently.
+         * <p>The cache is split into segments by the hash of key, up to the power of 2 not less than it,
+         * each of them has its own lock, size and LRU order, and the max size is split evenly across them.
+         * It reduces the contention of reading from many threads, but the evicted one is the least
+         * recently used one of its segment instead of the whole cache, and the value which is heavier
+         * than the max size of its segment is rejected, see {@link CacheStats#getRejectionCount()}.</p>
+         *
+         * @param concurrencyLevel The count of threads, 1 means the cache is not split.
+         * @return the config
+         */
+        public Config setConcurrencyLevel(@IntRange(from = 1) final int concurrencyLevel) {
+            mConcurrencyLevel = Math.max(concurrencyLevel, 1);
+            return this;
+        }
+
+        /**
+         * Set whether to admit the values by W-TinyLFU instead of LRU.
+         * <p>The new values go into a small LRU window, and the ones evicted from it are admitted
+         * into the main space only if they are used more frequently than the ones they would evict.
+         * It keeps the hot values from being flushed by the values which are used once, such as
+         * the thumbnails of a long list which is flung.</p>
+         *
+         * @param tinyLfuEnabled True to admit by W-TinyLFU, false to evict by LRU.
+         * @return the config
+         */
+        public Config setTinyLfuEnabled(final boolean tinyLfuEnabled) {
+            mTinyLfuEnabled = tinyLfuEnabled;
+            return this;
+        }
+
+        /**
+         * Set the interval of sweeping the expired caches.
+         * <p>The expired caches are removed by a timer wheel when the cache is accessed. The sweeper
+         * is a low priority thread shared by all instances, which removes them periodically even if
+         * the cache is idle, such as the large bitmaps. It is disabled by default.</p>
+         *
+         * @param interval The interval of sweeping, in milliseconds, 0 means never sweep.
+         * @return the config
+         */
+        public Config setSweepInterval(@IntRange(from = 0) final long interval) {
+            mSweepInterval = Math.max(interval, 0);
+            return this;
+        }
+
+        /**
+         * Set the priority of cache to be trimmed when the system is short of memory.
+         * <p>As the memory gets shorter, half of the values of low priority caches are evicted first,
+         * then they are cleared and the normal ones are halved, and the high ones are only halved when
+         * the process is about to be killed. It is {@link #TRIM_PRIORITY_NORMAL} by default.</p>
+         *
+         * @param trimPriority The priority of cache to be trimmed, such as {@link #TRIM_PRIORITY_LOW}.
+         * @return the config
+         */
+        public Config setTrimPriority(@IntRange(from = TRIM_PRIORITY_LOW, to = TRIM_PRIORITY_HIGH) final int trimPriority) {
+            mTrimPriority = Math.min(Math.max(trimPriority, TRIM_PRIORITY_LOW), TRIM_PRIORITY_HIGH);
+            return this;
+        }
+
+        /**
+         * Set the min weight of the evicted values which are kept by soft references.
+         * <p>The large values which are evicted, such as bitmaps, are kept until the GC needs the memory,
+         * and put back in cache if they are read before that. They are dropped when the cache is trimmed.</p>
+         *
+         * @param minWeight The min weight of evicted values to be kept, -1 means none of them are kept.
+         * @return the config
+         */
+        public Config setSoftOverflowMinWeight(@IntRange(from = -1) final int minWeight) {
+            mSoftOverflowMinWeight = Math.max(minWeight, -1);
+            return this;
+        }
+
+        /**
+         * Set the time after writing when the values are refreshed ahead of expiring.
+         * <p>The value which is read by {@code getOrLoad} after the time is returned at once, while its
+         * loader reloads it in background, once for the concurrent reads of the same key, so the readers
+         * don't wait for loading when it expires. The stale value is kept until it expires if reloading
+         * fails. It works for {@link CacheDoubleUtils#getBytesOrLoad} too, where the bytes only on disk
+         * are refreshed when they are promoted to memory, since their write time is unknown.</p>
+         *
+         * @param refreshAfterWrite The time after writing, in seconds, -1 means never refresh.
+         * @return the config
+         */
+        public Config setRefreshAfterWrite(@IntRange(from = -1) final int refreshAfterWrite) {
+            mRefreshAfterWrite = Math.max(refreshAfterWrite, -1);
+            return this;
+        }
+
+        @Override
+        public String toString() {
+            return "weigher=" + mWeigher
+                    + "_concurrencyLevel=" + mConcurrencyLevel
+                    + "_tinyLfu=" + mTinyLfuEnabled
+                    + "_sweepInterval=" + mSweepInterval
+                    + "_trimPriority=" + mTrimPriority
+                    + "_softOverflowMinWeight=" + mSoftOverflowMinWeight
+                    + "_refreshAfterWrite=" + mRefreshAfterWrite;
+        }
+    }
+
+    /**
+     * The cache which is split into segments by the hash of key.
+     * <p>Each segment has its own lock, so the threads which access different segments
+     * don't block each other. It is the same as {@link androidx.collection.LruCache}
+     * if there is only one LRU segment.</p>
+     */
+    private abstract static class MemoryCache {
+
+        private final Segment[] segments;
+        private final int       segmentMask;
+
+        MemoryCache(final int maxSize, final int concurrencyLevel, final boolean tinyLfuEnabled) {
+            int count = 1;
+            // each segment holds one at least
+            while (count < concurrencyLevel && count * 2 <= maxSize) {
+                count <<= 1;
+            }
+            segments = new Segment[count];
+            segmentMask = count - 1;
+            for (int i = 0; i < count; i++) {
+                int segmentMaxSize = maxSize / count + (i < maxSize % count ? 1 : 0);
+                segments[i] = tinyLfuEnabled ? new TinyLfuSegment(segmentMaxSize) : new LruSegment(segmentMaxSize);
+            }
+        }
+
+        private Segment segmentFor(final String key) {
+            int h = key.hashCode();
+            return segments[(h ^ (h >>> 16)) & segmentMask];
+        }
+
+        /**
+         * Called for the value which is evicted, removed or replaced, without lock.
+         */
+        abstract void entryRemoved(boolean evicted, String key, CacheValue oldValue, CacheValue newValue);
+
+        /**
+         * Called for the value which is heavier than the max size of its segment, without lock.
+         */
+        abstract void entryRejected(String key, CacheValue value);
+
+        CacheValue get(final String key) {
+            Segment segment = segmentFor(key);
+            long now = System.currentTimeMillis();
+            List<CacheValue> expired;
+            CacheValue value;
+            synchronized (segment) {
+                expired = segment.expire(now);
+                value = segment.get(key);
+            }
+            notifyExpired(expired);
+            return value;
+        }
+
+        CacheValue put(final String key, final CacheValue value) {
+            Segment segment = segmentFor(key);
+            if (value.weight > segment.maxSize) {
+                // it would evict all of the others in segment before itself, and the old value is stale
+                CacheValue previous = remove(key);
+                entryRejected(key, value);
+                return previous;
+            }
+            long now = System.currentTimeMillis();
+            List<CacheValue> expired;
+            CacheValue previous;
+            synchronized (segment) {
+                expired = segment.expire(now);
+                previous = segment.put(key, value);
+                segment.schedule(key, value, previous);
+            }
+            notifyExpired(expired);
+            if (previous != null) entryRemoved(false, key, previous, value);
+            evict(segment);
+            return previous;
+        }
+
+        /**
+         * Put the value if the key is absent, and return the existing one or null.
+         */
+        CacheValue putIfAbsent(final String key, final CacheValue value) {
+            Segment segment = segmentFor(key);
+            boolean rejected = value.weight > segment.maxSize;
+            synchronized (segment) {
+                CacheValue existing = segment.get(key);
+                if (existing != null) return existing;
+                if (!rejected) {
+                    segment.put(key, value);
+                    segment.schedule(key, value, null);
+                }
+            }
+            if (rejected) {
+                entryRejected(key, value);
+                return null;
+            }
+            evict(segment);
+            return null;
+        }
+
+        /**
+         * Put the values in batch, each segment is locked once.
+         */
+        void putAll(final Map<String, CacheValue> values) {
+            Map<Segment, List<String>> keysBySegment = groupBySegment(values.keySet());
+            List<String> oversizedKeys = new ArrayList<>();
+            List<String> replacedKeys = new ArrayList<>();
+            List<CacheValue> replacedValues = new ArrayList<>();
+            long now = System.currentTimeMillis();
+            for (Map.Entry<Segment, List<String>> entry : keysBySegment.entrySet()) {
+                Segment segment = entry.getKey();
+                List<CacheValue> expired;
+                synchronized (segment) {
+                    expired = segment.expire(now);
+                    for (String key : entry.getValue()) {
+                        CacheValue value = values.get(key);
+                        if (value.weight > segment.maxSize) {
+                            oversizedKeys.add(key);
+                            continue;
+                        }
+                        CacheValue previous = segment.put(key, value);
+                        segment.schedule(key, value, previous);
+                        if (previous != null) {
+                            replacedKeys.add(key);
+                            replacedValues.add(previous);
+                        }
+                    }
+                }
+                notifyExpired(expired);
+            }
+            for (int i = 0; i < replacedKeys.size(); i++) {
+                String key = replacedKeys.get(i);
+                entryRemoved(false, key, replacedValues.get(i), values.get(key));
+            }
+            for (String key : oversizedKeys) {
+                put(key, values.get(key));
+            }
+            for (Segment segment : keysBySegment.keySet()) {
+                evict(segment);
+            }
+        }
+
+        /**
+         * Return the values of keys in batch, each segment is locked once.
+         */
+        Map<String, CacheValue> getAll(final Collection<String> keys) {
+            Map<String, CacheValue> result = new LinkedHashMap<>();
+            long now = System.currentTimeMillis();
+            for (Map.Entry<Segment, List<String>> entry : groupBySegment(keys).entrySet()) {
+                Segment segment = entry.getKey();
+                List<CacheValue> expired;
+                synchronized (segment) {
+                    expired = segment.expire(now);
+                    for (String key : entry.getValue()) {
+                        CacheValue value = segment.get(key);
+                        if (value != null) result.put(key, value);
+                    }
+                }
+                notifyExpired(expired);
+            }
+            return result;
+        }
+
+        private Map<Segment, List<String>> groupBySegment(final Collection<String> keys) {
+            Map<Segment, List<String>> keysBySegment = new LinkedHashMap<>();
+            for (String key : keys) {
+                Segment segment = segmentFor(key);
+                List<String> segmentKeys = keysBySegment.get(segment);
+                if (segmentKeys == null) {
+                    segmentKeys = new ArrayList<>();
+                    keysBySegment.put(segment, segmentKeys);
+                }
+                segmentKeys.add(key);
+            }
+            return keysBySegment;
+        }
+
+        CacheValue remove(final String key) {
+            Segment segment = segmentFor(key);
+            CacheValue previous;
+            synchronized (segment) {
+                previous = segment.remove(key);
+                if (previous != null) segment.deschedule(previous);
+            }
+            if (previous != null) entryRemoved(false, key, previous, null);
+            return previous;
+        }
+
+        /**
+         * Evict the values of segment by its policy, and notify them without lock.
+         */
+        private void evict(final Segment segment) {
+            List<String> keys = new ArrayList<>();
+            List<CacheValue> values = new ArrayList<>();
+            synchronized (segment) {
+                if (!segment.isOverflowed()) return;
+                segment.evict(keys, values);
+                for (CacheValue value : values) {
+                    segment.deschedule(value);
+                }
+            }
+            for (int i = 0; i < keys.size(); i++) {
+                entryRemoved(true, keys.get(i), values.get(i), null);
+            }
+        }
+
+        /**
+         * Evict half of the values of each segment by its policy, and notify them without lock.
+         */
+        void trimToHalf() {
+            for (Segment segment : segments) {
+                List<String> keys = new ArrayList<>();
+                List<CacheValue> values = new ArrayList<>();
+                synchronized (segment) {
+                    segment.trimTo(segment.size / 2, keys, values);
+                    for (CacheValue value : values) {
+                        segment.deschedule(value);
+                    }
+                }
+                for (int i = 0; i < keys.size(); i++) {
+                    entryRemoved(true, keys.get(i), values.get(i), null);
+                }
+            }
+        }
+
+        /**
+         * Remove the expired values of all segments, and return the count of them.
+         */
+        int expire() {
+            long now = System.currentTimeMillis();
+            int count = 0;
+            for (Segment segment : segments) {
+                List<CacheValue> expired;
+                synchronized (segment) {
+                    expired = segment.expire(now);
+                }
+                if (expired == null) continue;
+                notifyExpired(expired);
+                count += expired.size();
+            }
+            return count;
+        }
+
+        private void notifyExpired(final List<CacheValue> expired) {
+            if (expired == null) return;
+            for (CacheValue value : expired) {
+                entryRemoved(false, value.key, value, null);
+            }
+        }
+
+        int size() {
+            int size = 0;
+            for (Segment segment : segments) {
+                synchronized (segment) {
+                    size += segment.size;
+                }
+            }
+            return size;
+        }
+
+        int count() {
+            int count = 0;
+            for (Segment segment : segments) {
+                synchronized (segment) {
+                    count += segment.count();
+                }
+            }
+            return count;
+        }
+
+        /**
+         * Return the keys of cache.
+         */
+        List<String> keys() {
+            List<String> keys = new ArrayList<>();
+            for (Segment segment : segments) {
+                synchronized (segment) {
+                    segment.keysTo(keys);
+                }
+            }
+            return keys;
+        }
+    }
+
+    /**
+     * The segment of {@link MemoryCache}, all of the methods must be called with it locked.
+     */
+    private abstract static class Segment {
+        final int  maxSize;
+        int        size;
+        TimerWheel wheel;// created when the first value with due time is put
+
+        Segment(final int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        /**
+         * Schedule the expiry of value which is put, and cancel the one of previous value.
+         */
+        final void schedule(final String key, final CacheValue value, final CacheValue previous) {
+            if (previous != null) deschedule(previous);
+            if (value.dueTime == -1) return;
+            if (wheel == null) wheel = new TimerWheel();
+            wheel.schedule(key, value);
+        }
+
+        final void deschedule(final CacheValue value) {
+            if (wheel != null) wheel.deschedule(value);
+        }
+
+        /**
+         * Advance the timer wheel to now and remove the expired values.
+         *
+         * @return the expired values, or null if there is none
+         */
+        final List<CacheValue> expire(final long now) {
+            if (wheel == null) return null;
+            List<CacheValue> expired = wheel.advance(now);
+            if (expired == null) return null;
+            for (CacheValue value : expired) {
+                remove(value.key);
+            }
+            return expired;
+        }
+
+        abstract CacheValue get(String key);
+
+        /**
+         * Put the value and return the previous one.
+         */
+        abstract CacheValue put(String key, CacheValue value);
+
+        abstract CacheValue remove(String key);
+
+        abstract int count();
+
+        abstract void keysTo(List<String> keys);
+
+        /**
+         * Return whether it needs to evict.
+         */
+        boolean isOverflowed() {
+            return size > maxSize;
+        }
+
+        /**
+         * Evict the values until it is not overflowed, the evicted ones are added to keys and values.
+         */
+        abstract void evict(List<String> keys, List<CacheValue> values);
+
+        /**
+         * Evict the values until the size is not greater than target, the evicted ones are added to keys and values.
+         */
+        abstract void trimTo(int targetSize, List<String> keys, List<CacheValue> values);
+
+        /**
+         * Remove the eldest entry of map, and add it to keys and values.
+         */
+        final int removeEldest(final LinkedHashMap<String, CacheValue> map,
+                               final List<String> keys,
+                               final List<CacheValue> values) {
+            Iterator<Map.Entry<String, CacheValue>> iterator = map.entrySet().iterator();
+            Map.Entry<String, CacheValue> eldest = iterator.next();
+            iterator.remove();
+            size -= eldest.getValue().weight;
+            if (keys != null) {
+                keys.add(eldest.getKey());
+                values.add(eldest.getValue());
+            }
+            return eldest.getValue().weight;
+        }
+    }
+
+    /**
+     * The segment which evicts the least recently used one.
+     */
+    private static final class LruSegment extends Segment {
+        private final LinkedHashMap<String, CacheValue> map
+                = new LinkedHashMap<>(0, 0.75f, true);// access-ordered, the eldest is the LRU one
+
+        LruSegment(final int maxSize) {
+            super(maxSize);
+        }
+
+        @Override
+        CacheValue get(final String key) {
+            return map.get(key);
+        }
+
+        @Override
+        CacheValue put(final String key, final CacheValue value) {
+            CacheValue previous = map.put(key, value);
+            size += value.weight;
+            if (previous != null) size -= previous.weight;
+            return previous;
+        }
+
+        @Override
+        CacheValue remove(final String key) {
+            CacheValue previous = map.remove(key);
+            if (previous != null) size -= previous.weight;
+            return previous;
+        }
+
+        @Override
+        int count() {
+            return map.size();
+        }
+
+        @Override
+        void keysTo(final List<String> keys) {
+            keys.addAll(map.keySet());
+        }
+
+        @Override
+        void evict(final List<String> keys, final List<CacheValue> values) {
+            trimTo(maxSize, keys, values);
+        }
+
+        @Override
+        void trimTo(final int targetSize, final List<String> keys, final List<CacheValue> values) {
+            while (size > targetSize && !map.isEmpty()) {
+                removeEldest(map, keys, values);
+            }
+        }
+    }
+
+    /**
+     * The segment of W-TinyLFU, which admits the value into cache only if it is used more frequently
+     * than the one to be evicted, so the hot ones are not flushed by the values which are used once.
+     * <p>The new values go into a small LRU window first, and the ones evicted from the window are
+     * the candidates of main space, which is split into probation and protected LRU spaces, the ones
+     * in probation are promoted into protected when they are used again. The frequencies are estimated
+     * by {@link FrequencySketch}.</p>
+     */
+    private static final class TinyLfuSegment extends Segment {
+        private static final int WINDOW_PERCENT    = 1;
+        private static final int PROTECTED_PERCENT = 80;
+
+        private final LinkedHashMap<String, CacheValue> window
+                = new LinkedHashMap<>(0, 0.75f, true);
+        private final LinkedHashMap<String, CacheValue> probation
+                = new LinkedHashMap<>(0, 0.75f, true);
+        private final LinkedHashMap<String, CacheValue> protect
+                = new LinkedHashMap<>(0, 0.75f, true);
+        private final int                               windowMaxSize;
+        private final int                               protectedMaxSize;
+        private       int                               windowSize;
+        private       int                               protectedSize;
+        private final FrequencySketch                   sketch;
+
+        TinyLfuSegment(final int maxSize) {
+            super(maxSize);
+            windowMaxSize = Math.max((int) (maxSize * (long) WINDOW_PERCENT / 100), 1);
+            protectedMaxSize = (int) ((maxSize - windowMaxSize) * (long) PROTECTED_PERCENT / 100);
+            sketch = new FrequencySketch(maxSize);
+        }
+
+        @Override
+        CacheValue get(final String key) {
+            sketch.increment(key);
+            CacheValue value = window.get(key);
+            if (value != null) return value;
+            value = protect.get(key);
+            if (value != null) return value;
+            value = probation.remove(key);
+            if (value == null) return null;
+            // promote it as it is used again
+            protect.put(key, value);
+            protectedSize += value.weight;
+            while (protectedSize > protectedMaxSize && protect.size() > 1) {
+                Iterator<Map.Entry<String, CacheValue>> iterator = protect.entrySet().iterator();
+                Map.Entry<String, CacheValue> eldest = iterator.next();
+                iterator.remove();
+                protectedSize -= eldest.getValue().weight;
+                probation.put(eldest.getKey(), eldest.getValue());
+            }
+            return value;
+        }
+
+        @Override
+        CacheValue put(final String key, final CacheValue value) {
+            sketch.increment(key);
+            size += value.weight;
+            // the value is replaced in its space
+            CacheValue previous = protect.get(key);
+            if (previous != null) {
+                protect.put(key, value);
+                protectedSize += value.weight - previous.weight;
+            } else if ((previous = probation.get(key)) != null) {
+                probation.put(key, value);
+            } else {
+                previous = window.put(key, value);
+                windowSize += value.weight;
+                if (previous != null) windowSize -= previous.weight;
+            }
+            if (previous != null) size -= previous.weight;
+            return previous;
+        }
+
+        @Override
+        CacheValue remove(final String key) {
+            CacheValue previous = window.remove(key);
+            if (previous != null) {
+                windowSize -= previous.weight;
+            } else if ((previous = protect.remove(key)) != null) {
+                protectedSize -= previous.weight;
+            } else if ((previous = probation.remove(key)) == null) {
+                return null;
+            }
+            size -= previous.weight;
+            return previous;
+        }
+
+        @Override
+        int count() {
+            return window.size() + probation.size() + protect.size();
+        }
+
+        @Override
+        void keysTo(final List<String> keys) {
+            keys.addAll(window.keySet());
+            keys.addAll(probation.keySet());
+            keys.addAll(protect.keySet());
+        }
+
+        @Override
+        boolean isOverflowed() {
+            return windowSize > windowMaxSize || size > maxSize;
+        }
+
+        @Override
+        void evict(final List<String> keys, final List<CacheValue> values) {
+            while (windowSize > windowMaxSize && !window.isEmpty()) {
+                Map.Entry<String, CacheValue> eldest = window.entrySet().iterator().next();
+                String candidateKey = eldest.getKey();
+                CacheValue candidate = eldest.getValue();
+                windowSize -= removeEldest(window, null, null);
+                admit(candidateKey, candidate, keys, values);
+            }
+            // the values in main may be replaced by larger ones
+            trimTo(maxSize, keys, values);
+        }
+
+        @Override
+        void trimTo(final int targetSize, final List<String> keys, final List<CacheValue> values) {
+            while (size > targetSize) {
+                if (!probation.isEmpty()) {
+                    removeEldest(probation, keys, values);
+                } else if (!protect.isEmpty()) {
+                    protectedSize -= removeEldest(protect, keys, values);
+                } else if (!window.isEmpty()) {
+                    windowSize -= removeEldest(window, keys, values);
+                } else {
+                    break;
+                }
+            }
+        }
+
+        /**
+         * Admit the candidate into probation if it is used more frequently than the victims in main.
+         */
+        private void admit(final String candidateKey,
+                           final CacheValue candidate,
+                           final List<String> keys,
+                           final List<CacheValue> values) {
+            int candidateFrequency = sketch.frequency(candidateKey);
+            while (size + candidate.weight > maxSize) {
+                LinkedHashMap<String, CacheValue> victims = probation.isEmpty() ? protect : probation;
+                if (victims.isEmpty()) break;
+                String victimKey = victims.keySet().iterator().next();
+                if (candidateFrequency <= sketch.frequency(victimKey)) {
+                    keys.add(candidateKey);
+                    values.add(candidate);
+                    return;
+                }
+                int weight = removeEldest(victims, keys, values);
+                if (victims == protect) protectedSize -= weight;
+            }
+            probation.put(candidateKey, candidate);
+            size += candidate.weight;
+        }
+    }
+
+    /**
+     * The count-min sketch which estimates the frequencies of keys in 4-bit counters.
+     * <p>All of the counters are halved when the count of increments reaches the sample size,
+     * so the frequencies of the old ones decay over time.</p>
+     */
+    private static final class FrequencySketch {
+        private static final long[] SEEDS       = {
+                0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L, 0x9ae16a3b2f90404fL, 0xcbf29ce484222325L
+        };
+        private static final long   RESET_MASK  = 0x7777777777777777L;
+        private static final int    MAX_ENTRIES = 1 << 16;
+
+        private final long[] table;// each long has 16 counters
+        private final int    tableMask;
+        private final int    sampleSize;
+        private       int    count;
+
+        FrequencySketch(final int maxSize) {
+            int entries = Math.min(Math.max(maxSize, 16), MAX_ENTRIES);
+            int length = 1;
+            while (length < entries / 4) {
+                length <<= 1;
+            }
+            table = new long[length];
+            tableMask = length - 1;
+            sampleSize = 10 * entries;
+        }
+
+        int frequency(final String key) {
+            int hash = spread(key.hashCode());
+            int frequency = 15;
+            for (int i = 0; i < 4; i++) {
+                int offset = offsetOf(hash, i);
+                frequency = Math.min(frequency, (int) ((table[indexOf(hash, i)] >>> offset) & 0xfL));
+            }
+            return frequency;
+        }
+
+        void increment(final String key) {
+            int hash = spread(key.hashCode());
+            boolean added = false;
+            for (int i = 0; i < 4; i++) {
+                int index = indexOf(hash, i);
+                int offset = offsetOf(hash, i);
+                if (((table[index] >>> offset) & 0xfL) != 0xfL) {
+                    table[index] += 1L << offset;
+                    added = true;
+                }
+            }
+            if (added && ++count >= sampleSize) reset();
+        }
+
+        private void reset() {
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+            count >>>= 1;
+        }
+
+        private int indexOf(final int hash, final int i) {
+            long h = (hash + SEEDS[i]) * SEEDS[i];
+            h += h >>> 32;
+            return (int) h & tableMask;
+        }
+
+        /**
+         * Return the offset of counter in long, each row uses 4 different bits of hash.
+         */
+        private static int offsetOf(final int hash, final int i) {
+            return ((hash >>> (i << 3)) & 15) << 2;
+        }
+
+        private static int spread(int x) {
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            x = ((x >>> 16) ^ x) * 0x45d9f3b;
+            return (x >>> 16) ^ x;
+        }
+    }
+
+    /**
+     * The hierarchical timer wheel of the values which have due time, all of the methods must be called
+     * with its segment locked.
+     * <p>The wheels have buckets of about 1 second, 1 minute, 1 hour and 3 days. A value is linked into
+     * the bucket of its due time in the finest wheel which covers it, and the buckets which the time passes
+     * are drained as it advances, the values which are not due yet are moved into finer wheels. So scheduling,
+     * cancelling and expiring a value are O(1), and the expired values are removed within about 1 second
+     * of the time advanced, without scanning the others.</p>
+     */
+    private static final class TimerWheel {
+        private static final int[] SHIFTS  = {10, 16, 22, 28};// the bucket spans 2^shift milliseconds
+        private static final int[] BUCKETS = {64, 64, 64, 1};
+
+        private final CacheValue[][] wheels = new CacheValue[SHIFTS.length][];
+        private       long           time   = System.currentTimeMillis();
+        private       int            count;
+
+        TimerWheel() {
+            for (int i = 0; i < SHIFTS.length; i++) {
+                wheels[i] = new CacheValue[BUCKETS[i]];
+                for (int j = 0; j < BUCKETS[i]; j++) {
+                    CacheValue sentinel = new CacheValue(-1, -1, null, 0);
+                    sentinel.prev = sentinel;
+                    sentinel.next = sentinel;
+                    wheels[i][j] = sentinel;
+                }
+            }
+        }
+
+        void schedule(final String key, final CacheValue value) {
+            value.key = key;
+            link(bucketOf(value.dueTime), value);
+            count++;
+        }
+
+        void deschedule(final CacheValue value) {
+            if (value.next == null) return;
+            unlink(value);
+            count--;
+        }
+
+        /**
+         * Advance the time and unlink the expired values.
+         *
+         * @return the expired values, or null if there is none
+         */
+        List<CacheValue> advance(final long now) {
+            long previous = time;
+            // the wall clock may be set back, then the values are expired when they are read
+            if (now <= previous) return null;
+            time = now;
+            if (count == 0) return null;
+            List<CacheValue> expired = null;
+            for (int i = 0; i < SHIFTS.length; i++) {
+                long previousTicks = previous >>> SHIFTS[i];
+                long currentTicks = now >>> SHIFTS[i];
+                if (currentTicks == previousTicks) break;
+                expired = expire(i, previousTicks, currentTicks - previousTicks, expired);
+            }
+            return expired;
+        }
+
+        private List<CacheValue> expire(final int level,
+                                        final long previousTicks,
+                                        final long delta,
+                                        List<CacheValue> expired) {
+            CacheValue[] buckets = wheels[level];
+            int mask = buckets.length - 1;
+            int start = (int) (previousTicks & mask);
+            int steps = (int) Math.min(delta + 1, buckets.length);
+            for (int i = 0; i < steps; i++) {
+                CacheValue sentinel = buckets[(start + i) & mask];
+                CacheValue node = sentinel.next;
+                sentinel.prev = sentinel;
+                sentinel.next = sentinel;
+                while (node != sentinel) {
+                    CacheValue next = node.next;
+                    node.prev = null;
+                    node.next = null;
+                    if (node.dueTime < time) {
+                        if (expired == null) expired = new ArrayList<>();
+                        expired.add(node);
+                        count--;
+                    } else {
+                        link(bucketOf(node.dueTime), node);
+                    }
+                    node = next;
+                }
+            }
+            return expired;
+        }
+
+        private CacheValue bucketOf(final long dueTime) {
+            long duration = dueTime - time;
+            for (int i = 0; i < SHIFTS.length - 1; i++) {
+                if (duration < 1L << SHIFTS[i + 1]) {
+                    long ticks = Math.max(dueTime, time) >>> SHIFTS[i];
+                    return wheels[i][(int) ticks & (BUCKETS[i] - 1)];
+                }
+            }
+            return wheels[SHIFTS.length - 1][0];
+        }
+
+        private static void link(final CacheValue sentinel, final CacheValue node) {
+            node.prev = sentinel.prev;
+            node.next = sentinel;
+            sentinel.prev.next = node;
+            sentinel.prev = node;
+        }
+
+        private static void unlink(final CacheValue node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+        }
+    }
+
+    /**
+     * The low priority thread which removes the expired caches of all instances periodically.
+     */
+    private static final class MemoryCacheSweeper {
+
+        private static final ScheduledExecutorService EXECUTOR =
+                Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                    @Override
+                    public Thread newThread(@NonNull Runnable r) {
+                        Thread thread = new Thread(r, "CacheMemoryUtils-sweeper");
+                        thread.setDaemon(true);
+                        thread.setPriority(Thread.MIN_PRIORITY);
+                        return thread;
+                    }
+                });
+
+        static void schedule(final CacheMemoryUtils cacheMemoryUtils, final long interval) {
+            EXECUTOR.scheduleWithFixedDelay(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        cacheMemoryUtils.sweepExpired();
+                    } catch (RuntimeException e) {
+                        // the task is cancelled if it throws
+                        Log.e("CacheMemoryUtils", "sweep failed: " + cacheMemoryUtils, e);
+                    }
+                }
+            }, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * The values which are evicted from cache but kept by soft references, until the GC needs the memory.
+     */
+    private static final class SoftOverflow {
+        private final int                        minWeight;
+        private final Map<String, SoftValue>     map   = new HashMap<>();
+        private final ReferenceQueue<CacheValue> queue = new ReferenceQueue<>();
+
+        SoftOverflow(final int minWeight) {
+            this.minWeight = minWeight;
+        }
+
+        synchronized void put(final String key, final CacheValue value) {
+            purge();
+            if (value.weight < minWeight) {
+                // the older one must not be read again
+                map.remove(key);
+                return;
+            }
+            map.put(key, new SoftValue(key, value, queue));
+        }
+
+        synchronized CacheValue take(final String key) {
+            purge();
+            SoftValue ref = map.remove(key);
+            return ref == null ? null : ref.get();
+        }
+
+        synchronized void remove(final String key) {
+            map.remove(key);
+        }
+
+        synchronized void removeByPrefix(final String prefix) {
+            Iterator<String> iterator = map.keySet().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().startsWith(prefix)) iterator.remove();
+            }
+        }
+
+        synchronized void clear() {
+            map.clear();
+        }
+
+        /**
+         * Remove the keys whose values are collected by the GC.
+         */
+        private void purge() {
+            Reference<? extends CacheValue> ref;
+            while ((ref = queue.poll()) != null) {
+                SoftValue value = (SoftValue) ref;
+                if (map.get(value.key) == value) map.remove(value.key);
+            }
+        }
+    }
+
+    private static final class SoftValue extends SoftReference<CacheValue> {
+        final String key;
+
+        SoftValue(String key, CacheValue value, ReferenceQueue<CacheValue> queue) {
+            super(value, queue);
+            this.key = key;
+        }
     }
 
     private static final class CacheValue {
-        long   dueTime;
-        Object value;
+        long       dueTime;
+        long       refreshTime;
+        Object     value;
+        int        weight;
+        String     key;// the links of timer wheel, set when it is scheduled
+        CacheValue prev;
+        CacheValue next;
 
-        CacheValue(long dueTime, Object value) {
+        CacheValue(long dueTime, long refreshTime, Object value, int weight) {
             this.dueTime = dueTime;
+            this.refreshTime = refreshTime;
             this.value = value;
+            this.weight = weight;
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,240 @@
+package com.blankj.utilcode.util;
+
+import android.util.Log;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * <pre>
+ *     author: Blankj
+ *     blog  : http://blankj.com
+ *     time  : 2026/10/18
+ *     desc  : the loads of cache which coalesce the concurrent misses of the same key
+ * </pre>
+ */
+final class CacheSingleFlight {
+
+    /**
+     * The cache which the loaded values are put in.
+     */
+    interface Store {
+
+        Object get(String key);
+
+        /**
+         * Return whether the value of key is written before the refresh window.
+         */
+        boolean isStale(String key);
+
+        void put(String key, Object value, int saveTime);
+    }
+
+    private final ConcurrentHashMap<String, Flight> mFlights = new ConcurrentHashMap<>();
+    private final Store                             mStore;
+
+    CacheSingleFlight(final Store store) {
+        mStore = store;
+    }
+
+    /**
+     * Load the value in the current thread, or wait for the one which is loading it.
+     */
+    <T> T load(final String key, final CacheMemoryUtils.Loader<T> loader, final int saveTime) {
+        Flight flight = new Flight();
+        Flight existing = mFlights.putIfAbsent(key, flight);
+        if (existing != null) {
+            //noinspection unchecked
+            return (T) existing.await();
+        }
+        loadValue(key, loader, saveTime, UtilsBridge.getIoPool(), flight, false);
+        deliverJoined(flight);
+        //noinspection unchecked
+        return (T) flight.value;
+    }
+
+    /**
+     * Call back the async loads which join the load in the current thread by the deliver of {@link ThreadUtils},
+     * as if they were loaded in the pool.
+     */
+    private void deliverJoined(final Flight flight) {
+        final List<Utils.Consumer<Object>> callbacks = flight.drain();
+        if (callbacks.isEmpty()) return;
+        UtilsBridge.executeByCustom(UtilsBridge.getIoPool(), new ThreadUtils.SimpleTask<Object>() {
+            @Override
+            public Object doInBackground() {
+                return flight.value;
+            }
+
+            @Override
+            public void onSuccess(Object result) {
+                for (Utils.Consumer<Object> callback : callbacks) {
+                    callback.accept(result);
+                }
+            }
+        });
+    }
+
+    /**
+     * Load the value in the pool, or join the one which is loading it,
+     * the callback is called by the deliver of {@link ThreadUtils}.
+     */
+    <T> void load(final String key,
+                  final CacheMemoryUtils.Loader<T> loader,
+                  final int saveTime,
+                  final ExecutorService pool,
+                  final Utils.Consumer<T> callback) {
+        final Flight flight = new Flight();
+        Flight existing = mFlights.putIfAbsent(key, flight);
+        if (existing != null) {
+            existing.addCallback(callback);
+            return;
+        }
+        flight.addCallback(callback);
+        execute(key, loader, saveTime, pool, flight, false);
+    }
+
+    /**
+     * Reload the stale value in the pool, unless it is loading.
+     */
+    void refresh(final String key,
+                 final CacheMemoryUtils.Loader<?> loader,
+                 final int saveTime,
+                 final ExecutorService pool) {
+        Flight flight = new Flight();
+        if (mFlights.putIfAbsent(key, flight) != null) return;
+        execute(key, loader, saveTime, pool, flight, true);
+    }
+
+    private void execute(final String key,
+                         final CacheMemoryUtils.Loader<?> loader,
+                         final int saveTime,
+                         final ExecutorService pool,
+                         final Flight flight,
+                         final boolean reload) {
+        UtilsBridge.executeByCustom(pool, new ThreadUtils.SimpleTask<Object>() {
+            @Override
+            public Object doInBackground() {
+                loadValue(key, loader, saveTime, pool, flight, reload);
+                return flight.value;
+            }
+
+            @Override
+            public void onSuccess(Object result) {
+                flight.deliver();
+            }
+
+            @Override
+            public void onCancel() {
+                super.onCancel();
+                completeFlight(key, flight, null);
+                flight.deliver();
+            }
+
+            @Override
+            public void onFail(Throwable t) {
+                super.onFail(t);
+                completeFlight(key, flight, null);
+                flight.deliver();
+            }
+        });
+    }
+
+    private void loadValue(final String key,
+                           final CacheMemoryUtils.Loader<?> loader,
+                           final int saveTime,
+                           final ExecutorService pool,
+                           final Flight flight,
+                           final boolean reload) {
+        Object value = null;
+        boolean stale = false;
+        try {
+            // it may be loaded or refreshed by the last flight just now
+            value = mStore.get(key);
+            stale = value != null && mStore.isStale(key);
+            if (value == null || (reload && stale)) {
+                Object loaded = loader.load(key);
+                // the failed or null ones are not cached, so the next get loads again,
+                // and the stale one is kept until it expires
+                if (loaded != null) {
+                    mStore.put(key, loaded, saveTime);
+                    value = loaded;
+                    stale = false;
+                }
+            }
+        } catch (Exception e) {
+            Log.e("CacheSingleFlight", "load failed: " + key, e);
+        } finally {
+            completeFlight(key, flight, value);
+        }
+        if (stale && !reload) refresh(key, loader, saveTime, pool);
+    }
+
+    private void completeFlight(final String key, final Flight flight, final Object value) {
+        mFlights.remove(key, flight);
+        flight.complete(value);
+    }
+
+    private static final class Flight {
+        private final CountDownLatch               latch     = new CountDownLatch(1);
+        private final List<Utils.Consumer<Object>> callbacks = new ArrayList<>();
+        private volatile Object                    value;
+        private boolean                            completed;
+        private boolean                            delivered;
+
+        synchronized void complete(final Object value) {
+            if (completed) return;
+            completed = true;
+            this.value = value;
+            latch.countDown();
+        }
+
+        Object await() {
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    latch.await();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+            return value;
+        }
+
+        void addCallback(final Utils.Consumer<?> callback) {
+            synchronized (this) {
+                if (!delivered) {
+                    //noinspection unchecked
+                    callbacks.add((Utils.Consumer<Object>) callback);
+                    return;
+                }
+            }
+            //noinspection unchecked
+            ((Utils.Consumer<Object>) callback).accept(value);
+        }
+
+        void deliver() {
+            for (Utils.Consumer<Object> callback : drain()) {
+                callback.accept(value);
+            }
+        }
+
+        /**
+         * Return the callbacks to be called, and the ones which are added later are called at once.
+         */
+        List<Utils.Consumer<Object>> drain() {
+            synchronized (this) {
+                if (delivered) return new ArrayList<>();
+                delivered = true;
+                List<Utils.Consumer<Object>> toDeliver = new ArrayList<>(callbacks);
+                callbacks.clear();
+                return toDeliver;
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.blankj.utilcode.util;
+
+import androidx.annotation.FloatRange;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <pre>
+ *     author: Blankj
+ *     blog  : http://blankj.com
+ *     time  : 2026/10/18
+ *     desc  : stats of cache
+ * </pre>
+ */
+public final class CacheStats {
+
+    private static final int HIT       = 0;
+    private static final int MISS      = 1;
+    private static final int PUT       = 2;
+    private static final int EVICTION  = 3;
+    private static final int REJECTION = 4;
+    private static final int PADDING   = 8;// counters of each stripe take a cache line of 64 bytes
+
+    private static final int BUCKET_COUNT = 32;
+    private static final int STRIPES      = stripes();
+    private static final int STRIPE_MASK  = STRIPES - 1;
+
+    private final AtomicLongArray mCounters   = new AtomicLongArray(STRIPES * PADDING);
+    private final AtomicLongArray mHistograms = new AtomicLongArray(STRIPES * BUCKET_COUNT);
+
+    CacheStats() {
+    }
+
+    private static int stripes() {
+        int cpus = Runtime.getRuntime().availableProcessors();
+        int stripes = 1;
+        while (stripes < cpus && stripes < 64) {
+            stripes <<= 1;
+        }
+        return stripes;
+    }
+
+    private static int stripe() {
+        return (int) Thread.currentThread().getId() & STRIPE_MASK;
+    }
+
+    /**
+     * Record a read which starts at {@code startNanos} of {@link System#nanoTime()}.
+     */
+    void recordRead(final long startNanos, final boolean hit) {
+        long micros = (System.nanoTime() - startNanos) / 1000;
+        int bucket = Math.min(64 - Long.numberOfLeadingZeros(micros), BUCKET_COUNT - 1);
+        int stripe = stripe();
+        mCounters.incrementAndGet(stripe * PADDING + (hit ? HIT : MISS));
+        mHistograms.incrementAndGet(stripe * BUCKET_COUNT + bucket);
+    }
+
+    /**
+     * Record the reads of a batch, whose latency is not recorded.
+     */
+    void recordReads(final int hitCount, final int missCount) {
+        int stripe = stripe();
+        mCounters.addAndGet(stripe * PADDING + HIT, hitCount);
+        mCounters.addAndGet(stripe * PADDING + MISS, missCount);
+    }
+
+    void recordPut() {
+        mCounters.incrementAndGet(stripe() * PADDING + PUT);
+    }
+
+    void recordPuts(final int count) {
+        mCounters.addAndGet(stripe() * PADDING + PUT, count);
+    }
+
+    void recordEviction(final int count) {
+        mCounters.addAndGet(stripe() * PADDING + EVICTION, count);
+    }
+
+    void recordRejection() {
+        mCounters.incrementAndGet(stripe() * PADDING + REJECTION);
+    }
+
+    private long sum(final int counter) {
+        long sum = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            sum += mCounters.get(i * PADDING + counter);
+        }
+        return sum;
+    }
+
+    /**
+     * Return the count of reads which hit.
+     *
+     * @return the count of reads which hit
+     */
+    public long getHitCount() {
+        return sum(HIT);
+    }
+
+    /**
+     * Return the count of reads which miss.
+     *
+     * @return the count of reads which miss
+     */
+    public long getMissCount() {
+        return sum(MISS);
+    }
+
+    /**
+     * Return the count of puts.
+     *
+     * @return the count of puts
+     */
+    public long getPutCount() {
+        return sum(PUT);
+    }
+
+    /**
+     * Return the count of caches which are evicted for the limit.
+     *
+     * @return the count of evicted caches
+     */
+    public long getEvictionCount() {
+        return sum(EVICTION);
+    }
+
+    /**
+     * Return the count of puts which are rejected, since the value is heavier than the limit.
+     *
+     * @return the count of rejected puts
+     */
+    public long getRejectionCount() {
+        return sum(REJECTION);
+    }
+
+    /**
+     * Return the ratio of reads which hit, it is 0 if nothing is read.
+     *
+     * @return the ratio of reads which hit
+     */
+    public double getHitRate() {
+        long hit = getHitCount();
+        long total = hit + getMissCount();
+        return total == 0 ? 0 : (double) hit / total;
+    }
+
+    /**
+     * Return the latency of reads at the percentile.
+     * <p>The latencies are counted in buckets of power of 2 microseconds,
+     * so the upper bound of the bucket is returned.</p>
+     *
+     * @param percentile The percentile, such as 0.99.
+     * @return the latency of reads at the percentile, in microseconds
+     */
+    public long getReadLatency(@FloatRange(from = 0, to = 1) final double percentile) {
+        long[] buckets = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < STRIPES; i++) {
+            for (int j = 0; j < BUCKET_COUNT; j++) {
+                long count = mHistograms.get(i * BUCKET_COUNT + j);
+                buckets[j] += count;
+                total += count;
+            }
+        }
+        if (total == 0) return 0;
+        long rank = (long) Math.ceil(total * Math.min(Math.max(percentile, 0), 1));
+        long count = 0;
+        for (int j = 0; j < BUCKET_COUNT; j++) {
+            count += buckets[j];
+            if (count >= rank && count > 0) return 1L << j;
+        }
+        return 1L << (BUCKET_COUNT - 1);
+    }
+
+    /**
+     * Reset all of the stats.
+     */
+    public void reset() {
+        for (int i = 0; i < mCounters.length(); i++) {
+            mCounters.set(i, 0);
+        }
+        for (int i = 0; i < mHistograms.length(); i++) {
+            mHistograms.set(i, 0);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "hit=" + getHitCount()
+                + ", miss=" + getMissCount()
+                + ", put=" + getPutCount()
+                + ", eviction=" + getEvictionCount()
+                + ", rejection=" + getRejectionCount()
+                + ", p50=" + getReadLatency(0.5) + "us"
+                + ", p99=" + getReadLatency(0.99) + "us";
+    }
+}
@@ -0,0 +1,57 @@
+package com.blankj.utilcode.util;
+
+import android.content.ComponentCallbacks2;
+import android.content.res.Configuration;
+
+import androidx.annotation.NonNull;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * <pre>
+ *     author: Blankj
+ *     blog  : http://blankj.com
+ *     time  : 2026/10/18
+ *     desc  : trims the memory caches when the system is short of memory
+ * </pre>
+ */
+final class CacheTrimCoordinator implements ComponentCallbacks2 {
+
+    static final CacheTrimCoordinator INSTANCE = new CacheTrimCoordinator();
+
+    private final List<CacheMemoryUtils> mCaches = new CopyOnWriteArrayList<>();
+
+    void init() {
+        Utils.getApp().registerComponentCallbacks(this);
+    }
+
+    void register(final CacheMemoryUtils cache) {
+        mCaches.add(cache);
+    }
+
+    /**
+     * Trim the caches by the level, the ones of low priority first.
+     */
+    void trimMemory(final int level) {
+        for (int priority = CacheMemoryUtils.TRIM_PRIORITY_LOW; priority <= CacheMemoryUtils.TRIM_PRIORITY_HIGH; priority++) {
+            for (CacheMemoryUtils cache : mCaches) {
+                if (cache.getTrimPriority() == priority) cache.trimMemory(level);
+            }
+        }
+    }
+
+    @Override
+    public void onTrimMemory(final int level) {
+        trimMemory(level);
+    }
+
+    @Override
+    public void onLowMemory() {
+        trimMemory(TRIM_MEMORY_COMPLETE);
+    }
+
+    @Override
+    public void onConfigurationChanged(@NonNull final Configuration newConfig) {
+    }
+}
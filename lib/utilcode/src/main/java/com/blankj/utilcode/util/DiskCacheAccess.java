@@ -0,0 +1,16 @@
+package com.blankj.utilcode.util;
+
+import java.io.File;
+
+/**
+ * <pre>
+ *     author: Blankj
+ *     blog  : http://blankj.com
+ *     time  : 2026/10/18
+ *     desc  : the file or segment record which is read in batch, its access is updated after all are read
+ * </pre>
+ */
+final class DiskCacheAccess {
+    File   file;
+    String name;
+}
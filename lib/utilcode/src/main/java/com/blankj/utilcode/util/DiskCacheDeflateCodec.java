@@ -0,0 +1,62 @@
+package com.blankj.utilcode.util;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * <pre>
+ *     author: Blankj
+ *     blog  : http://blankj.com
+ *     time  : 2026/10/18
+ *     desc  : the codec of deflate with the best speed, see {@link CacheDiskUtils#DEFLATE}
+ * </pre>
+ */
+final class DiskCacheDeflateCodec implements CacheDiskUtils.Codec {
+
+    @Override
+    public int getId() {
+        return 1;
+    }
+
+    @Override
+    public byte[] encode(byte[] data) {
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try {
+            deflater.setInput(data);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 2 + 64);
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    @Override
+    public byte[] decode(byte[] data) throws IOException {
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 4);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int len = inflater.inflate(buffer);
+                if (len == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IOException("the deflated data is truncated");
+                }
+                out.write(buffer, 0, len);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IOException(e.getMessage());
+        } finally {
+            inflater.end();
+        }
+    }
+}
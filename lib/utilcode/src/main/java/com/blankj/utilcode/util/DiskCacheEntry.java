@@ -0,0 +1,45 @@
+package com.blankj.utilcode.util;
+
+import java.util.Comparator;
+
+/**
+ * <pre>
+ *     author: Blankj
+ *     blog  : http://blankj.com
+ *     time  : 2026/10/18
+ *     desc  : the entry of cache file or segment record in the index of directory
+ * </pre>
+ */
+final class DiskCacheEntry {
+
+    static final int NO_SEGMENT = -1;
+
+    final String name;
+    final long   size;
+    final long   dueTime;
+    long         lastAccess;
+    int          segment = NO_SEGMENT;// The id of segment, or NO_SEGMENT if it is in its own file.
+    long         offset;// The offset of record in segment.
+    String       key;// The key of cache, or null if it is unknown such as the entry of legacy file.
+
+    static final Comparator<DiskCacheEntry> DUE_TIME_ORDER = new Comparator<DiskCacheEntry>() {
+        @Override
+        public int compare(DiskCacheEntry o1, DiskCacheEntry o2) {
+            if (o1.dueTime != o2.dueTime) return o1.dueTime < o2.dueTime ? -1 : 1;
+            return o1.name.compareTo(o2.name);
+        }
+    };
+
+    DiskCacheEntry(String name, long size, long lastAccess, long dueTime) {
+        this.name = name;
+        this.size = size;
+        this.lastAccess = lastAccess;
+        this.dueTime = dueTime;
+    }
+
+    DiskCacheEntry(String name, long size, long lastAccess, long dueTime, int segment, long offset) {
+        this(name, size, lastAccess, dueTime);
+        this.segment = segment;
+        this.offset = offset;
+    }
+}
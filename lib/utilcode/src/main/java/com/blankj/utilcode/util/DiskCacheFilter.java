@@ -0,0 +1,68 @@
+package com.blankj.utilcode.util;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * <pre>
+ *     author: Blankj
+ *     blog  : http://blankj.com
+ *     time  : 2026/10/18
+ *     desc  : the Bloom filter over the names of cache files and segment records in index
+ * </pre>
+ * <p>It is false for sure if the name is not in index, so most lookups of missing keys don't
+ * touch the file system. The names are put with entries locked and read without lock.</p>
+ */
+final class DiskCacheFilter {
+
+    private static final int BITS_PER_NAME = 10;// about 1% false positive with 7 hashes
+    private static final int HASH_COUNT    = 7;
+    private static final int MIN_CAPACITY  = 1024;
+
+    private final AtomicLongArray bits;
+    private final int             bitCount;
+    private final int             capacity;
+    private       int             putCount;// locked by entries
+
+    DiskCacheFilter(final int count) {
+        // twice the count, so it isn't rebuilt soon
+        capacity = Math.max(count, MIN_CAPACITY / 2) * 2;
+        bitCount = capacity * BITS_PER_NAME;
+        bits = new AtomicLongArray((bitCount + 63) >>> 6);
+    }
+
+    /**
+     * Put the name in filter, the writes are serialized by the caller.
+     */
+    void put(final String name) {
+        final int hash1 = mix(name.hashCode());
+        final int hash2 = mix(hash1 ^ 0x9E3779B9);
+        for (int i = 0; i < HASH_COUNT; i++) {
+            int index = ((hash1 + i * hash2) & Integer.MAX_VALUE) % bitCount;
+            bits.set(index >>> 6, bits.get(index >>> 6) | (1L << index));
+        }
+        putCount++;
+    }
+
+    boolean mayContain(final String name) {
+        final int hash1 = mix(name.hashCode());
+        final int hash2 = mix(hash1 ^ 0x9E3779B9);
+        for (int i = 0; i < HASH_COUNT; i++) {
+            int index = ((hash1 + i * hash2) & Integer.MAX_VALUE) % bitCount;
+            if ((bits.get(index >>> 6) & (1L << index)) == 0) return false;
+        }
+        return true;
+    }
+
+    boolean isFull() {
+        return putCount >= capacity;
+    }
+
+    private static int mix(int hash) {
+        hash ^= hash >>> 16;
+        hash *= 0x85EBCA6B;
+        hash ^= hash >>> 13;
+        hash *= 0xC2B2AE35;
+        hash ^= hash >>> 16;
+        return hash;
+    }
+}
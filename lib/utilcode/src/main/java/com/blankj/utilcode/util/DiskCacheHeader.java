@@ -0,0 +1,216 @@
+package com.blankj.utilcode.util;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.zip.CRC32;
+
+/**
+ * <pre>
+ *     author: Blankj
+ *     blog  : http://blankj.com
+ *     time  : 2026/10/18
+ *     desc  : the header in front of the data of cache file
+ * </pre>
+ * <p>Its layout is</p>
+ * <pre>
+ *     magic    : 4 bytes, {@link #MAGIC}
+ *     version  : 1 byte, {@link #VERSION}
+ *     flags    : 1 byte, {@link #FLAG_CHECKSUM} | {@link #FLAG_KEY} | {@link #FLAG_CODEC}, the others are reserved
+ *     dueTime  : 8 bytes, in milliseconds, -1 means never due
+ *     checksum : 4 bytes, the CRC32 of data, only if {@link #FLAG_CHECKSUM} is set
+ *     codec    : 1 byte, the id of {@link CacheDiskUtils.Codec} which encodes data, only if {@link #FLAG_CODEC} is set
+ *     keyLen   : 2 bytes, the length of key in UTF-8, only if {@link #FLAG_KEY} is set
+ *     key      : keyLen bytes, the key of cache, only if {@link #FLAG_KEY} is set
+ * </pre>
+ * <p>The data of legacy files starts with a string header like {@code _$0123456789$_}
+ * which is the due time in seconds, or with nothing if it never dues.</p>
+ */
+final class DiskCacheHeader {
+
+    static final int  MAGIC         = 0xCD434455;
+    static final byte VERSION       = 1;
+    static final byte FLAG_CHECKSUM = 1;
+    static final byte FLAG_KEY      = 1 << 1;
+    static final byte FLAG_CODEC    = 1 << 2;
+    static final int  LENGTH        = 14;
+    static final int  CHECKSUM_LEN  = 4;
+    static final int  CODEC_LEN     = 1;
+    static final int  KEY_LEN_LEN   = 2;
+    static final int  MAX_KEY_LEN   = 0xFFFF;
+    static final int  LEGACY_LEN    = 14;
+
+    byte    flags;
+    long    dueTime;
+    int     checksum;
+    int     codec;
+    String  key;
+    byte[]  keyBytes;
+    int     length;// The length of header in file.
+    boolean legacy;
+
+    private DiskCacheHeader(final byte flags, final long dueTime, final int length, final boolean legacy) {
+        this.flags = flags;
+        this.dueTime = dueTime;
+        this.length = length;
+        this.legacy = legacy;
+    }
+
+    static DiskCacheHeader create(final int saveTime, final boolean checksumEnabled, final String key) {
+        long dueTime = saveTime < 0 ? -1 : System.currentTimeMillis() + saveTime * 1000L;
+        return of(dueTime, checksumEnabled, key);
+    }
+
+    static DiskCacheHeader of(final long dueTime, final boolean checksumEnabled, final String key) {
+        byte[] keyBytes = key.getBytes(DiskCacheHelper.UTF_8);
+        byte flags = 0;
+        if (checksumEnabled) flags |= FLAG_CHECKSUM;
+        // the key which is too long is not stored, the digest of file name is trusted
+        if (keyBytes.length <= MAX_KEY_LEN) flags |= FLAG_KEY;
+        DiskCacheHeader header = new DiskCacheHeader(flags, dueTime, 0, false);
+        header.key = key;
+        header.keyBytes = keyBytes;
+        header.length = header.lengthOfExtensions(LENGTH);
+        return header;
+    }
+
+    private int lengthOfExtensions(final int offset) {
+        int len = offset;
+        if (hasChecksum()) len += CHECKSUM_LEN;
+        if (hasCodec()) len += CODEC_LEN;
+        if (hasKey()) len += KEY_LEN_LEN + keyBytes.length;
+        return len;
+    }
+
+    /**
+     * Read the header from the offset of file, the position of channel is not changed.
+     */
+    static DiskCacheHeader read(final FileChannel channel, final long offset) throws IOException {
+        byte[] bytes = new byte[LENGTH];
+        DiskCacheHeader header = parse(bytes, read(channel, bytes, offset));
+        if (header.legacy) return header;
+        long position = offset + LENGTH;
+        if (header.hasChecksum()) {
+            header.checksum = ByteBuffer.wrap(readFully(channel, CHECKSUM_LEN, position)).getInt();
+            position += CHECKSUM_LEN;
+        }
+        if (header.hasCodec()) {
+            header.codec = readFully(channel, CODEC_LEN, position)[0] & 0xFF;
+            position += CODEC_LEN;
+        }
+        if (header.hasKey()) {
+            int keyLen = ByteBuffer.wrap(readFully(channel, KEY_LEN_LEN, position)).getShort() & MAX_KEY_LEN;
+            position += KEY_LEN_LEN;
+            header.keyBytes = readFully(channel, keyLen, position);
+            header.key = new String(header.keyBytes, DiskCacheHelper.UTF_8);
+        }
+        header.length = header.lengthOfExtensions(LENGTH);
+        return header;
+    }
+
+    private static byte[] readFully(final FileChannel channel, final int len, final long position)
+            throws IOException {
+        byte[] bytes = new byte[len];
+        if (read(channel, bytes, position) < len) {
+            throw new IOException("the header of cache is truncated");
+        }
+        return bytes;
+    }
+
+    private static int read(final FileChannel channel, final byte[] bytes, final long position)
+            throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) break;
+        }
+        return buffer.position();
+    }
+
+    static DiskCacheHeader parse(final byte[] bytes, final int len) {
+        if (len >= LENGTH) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes, 0, LENGTH);
+            if (buffer.getInt() == MAGIC && buffer.get() == VERSION) {
+                byte flags = buffer.get();
+                return new DiskCacheHeader(flags, buffer.getLong(), LENGTH, false);
+            }
+        }
+        if (len >= LEGACY_LEN
+                && bytes[0] == '_'
+                && bytes[1] == '$'
+                && bytes[12] == '$'
+                && bytes[13] == '_') {
+            long dueTime;
+            try {
+                dueTime = Long.parseLong(new String(bytes, 2, 10)) * 1000;
+            } catch (NumberFormatException e) {
+                dueTime = -1;
+            }
+            return new DiskCacheHeader((byte) 0, dueTime, LEGACY_LEN, true);
+        }
+        return new DiskCacheHeader((byte) 0, -1, 0, true);
+    }
+
+    static int checksumOf(final byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data, 0, data.length);
+        return (int) crc.getValue();
+    }
+
+    boolean hasChecksum() {
+        return (flags & FLAG_CHECKSUM) != 0;
+    }
+
+    boolean hasKey() {
+        return (flags & FLAG_KEY) != 0;
+    }
+
+    boolean hasCodec() {
+        return (flags & FLAG_CODEC) != 0;
+    }
+
+    void setCodec(final int codec) {
+        this.codec = codec;
+        flags |= FLAG_CODEC;
+        length = lengthOfExtensions(LENGTH);
+    }
+
+    /**
+     * Return whether the cache file belongs to the key, it is true if the key isn't stored.
+     */
+    boolean matches(final String key) {
+        return !hasKey() || key.equals(this.key);
+    }
+
+    boolean verify(final byte[] data) {
+        return !hasChecksum() || checksum == checksumOf(data);
+    }
+
+    boolean verify(final ByteBuffer data) {
+        if (!hasChecksum()) return true;
+        CRC32 crc = new CRC32();
+        byte[] chunk = new byte[8192];
+        ByteBuffer buffer = data.duplicate();
+        while (buffer.hasRemaining()) {
+            int len = Math.min(chunk.length, buffer.remaining());
+            buffer.get(chunk, 0, len);
+            crc.update(chunk, 0, len);
+        }
+        return checksum == (int) crc.getValue();
+    }
+
+    boolean isDue() {
+        return dueTime != -1 && System.currentTimeMillis() > dueTime;
+    }
+
+    byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(length)
+                .putInt(MAGIC)
+                .put(VERSION)
+                .put(flags)
+                .putLong(dueTime);
+        if (hasChecksum()) buffer.putInt(checksum);
+        if (hasCodec()) buffer.put((byte) codec);
+        if (hasKey()) buffer.putShort((short) keyBytes.length).put(keyBytes);
+        return buffer.array();
+    }
+}
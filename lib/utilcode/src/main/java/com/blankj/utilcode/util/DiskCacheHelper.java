@@ -0,0 +1,48 @@
+package com.blankj.utilcode.util;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.Charset;
+
+/**
+ * <pre>
+ *     author: Blankj
+ *     blog  : http://blankj.com
+ *     time  : 2017/05/24
+ *     desc  : the IO helpers of disk cache
+ * </pre>
+ */
+final class DiskCacheHelper {
+
+    static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    static boolean writeFile(final File file,
+                             final byte[] header,
+                             final byte[] data,
+                             final boolean sync) {
+        FileOutputStream fos = null;
+        try {
+            fos = new FileOutputStream(file);
+            fos.write(header);
+            fos.write(data);
+            if (sync) fos.getFD().sync();
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            closeIO(fos);
+        }
+    }
+
+    static void closeIO(final Closeable closeable) {
+        if (closeable == null) return;
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.blankj.utilcode.util;
+
+import androidx.annotation.NonNull;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.CRC32;
+
+/**
+ * <pre>
+ *     author: Blankj
+ *     blog  : http://blankj.com
+ *     time  : 2026/10/18
+ *     desc  : the stream of {@link CacheDiskUtils#openInputStream(String)} for the cache with checksum
+ * </pre>
+ * <p>It verifies the data at the end of stream, and removes the cache if it is corrupt.</p>
+ */
+final class DiskCacheInputStream extends FilterInputStream {
+
+    private final DiskCacheManager diskCacheManager;
+    private final String           key;
+    private final int              checksum;
+    private final CRC32            crc = new CRC32();
+
+    DiskCacheInputStream(final InputStream in,
+                         final DiskCacheManager diskCacheManager,
+                         final String key,
+                         final int checksum) {
+        super(in);
+        this.diskCacheManager = diskCacheManager;
+        this.key = key;
+        this.checksum = checksum;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = in.read();
+        if (b == -1) {
+            verify();
+        } else {
+            crc.update(b);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(@NonNull byte[] b, int off, int len) throws IOException {
+        int n = in.read(b, off, len);
+        if (n == -1) {
+            verify();
+        } else {
+            crc.update(b, off, n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        // the skipped bytes are read to keep the checksum
+        byte[] buffer = new byte[(int) Math.min(Math.max(n, 0), 8192)];
+        long skipped = 0;
+        while (skipped < n) {
+            int read = read(buffer, 0, (int) Math.min(buffer.length, n - skipped));
+            if (read == -1) break;
+            skipped += read;
+        }
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    @Override
+    public synchronized void mark(int readLimit) {
+    }
+
+    @Override
+    public synchronized void reset() throws IOException {
+        throw new IOException("mark/reset not supported");
+    }
+
+    private void verify() throws IOException {
+        if ((int) crc.getValue() == checksum) return;
+        diskCacheManager.removeByKey(key);
+        throw new IOException("checksum mismatch of cache: " + key);
+    }
+}
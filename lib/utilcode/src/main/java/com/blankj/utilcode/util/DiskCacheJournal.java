@@ -0,0 +1,333 @@
+package com.blankj.utilcode.util;
+
+import android.util.Log;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.UnsupportedEncodingException;
+import java.io.Writer;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <pre>
+ *     author: Blankj
+ *     blog  : http://blankj.com
+ *     time  : 2026/10/18
+ *     desc  : the append-only journal of the cache index
+ * </pre>
+ * <p>Each line is one of</p>
+ * <pre>
+ *     PUT name size lastAccess dueTime [segment offset]
+ *     ACCESS name lastAccess
+ *     MOVE name segment offset
+ *     REMOVE name
+ * </pre>
+ * <p>It is replayed on open instead of scanning the cache directory, and
+ * compacted in background once it holds too many redundant lines.</p>
+ * <p>All methods except {@link #writeCompaction(String)} are called with the index locked.</p>
+ */
+final class DiskCacheJournal {
+
+    private static final String JOURNAL_FILE      = "journal";
+    private static final String JOURNAL_FILE_TMP  = "journal.tmp";
+    private static final String JOURNAL_FILE_BKP  = "journal.bkp";
+    private static final String MAGIC             = "CacheDiskUtils.journal";
+    private static final String VERSION           = "1";
+    private static final String PUT               = "PUT";
+    private static final String ACCESS            = "ACCESS";
+    private static final String MOVE              = "MOVE";
+    private static final String REMOVE            = "REMOVE";
+    private static final int    COMPACT_THRESHOLD = 2000;
+
+    private final File         journalFile;
+    private final File         journalFileTmp;
+    private final File         journalFileBkp;
+    private       Writer       writer;
+    private       int          redundantOpCount;
+    private       List<String> pendingLines;
+    private       boolean      truncated;
+
+    DiskCacheJournal(final File cacheDir) {
+        journalFile = new File(cacheDir, JOURNAL_FILE);
+        journalFileTmp = new File(cacheDir, JOURNAL_FILE_TMP);
+        journalFileBkp = new File(cacheDir, JOURNAL_FILE_BKP);
+    }
+
+    /**
+     * Replay the journal into entries.
+     *
+     * @return {@code true}: success<br>{@code false}: the journal is missing or corrupt
+     */
+    boolean replay(final Map<String, DiskCacheEntry> entries) {
+        if (!journalFile.exists()) return false;
+        BufferedReader reader = null;
+        try {
+            reader = new BufferedReader(new InputStreamReader(new FileInputStream(journalFile), "UTF-8"));
+            if (!MAGIC.equals(reader.readLine())
+                    || !VERSION.equals(reader.readLine())
+                    || !"".equals(reader.readLine())) {
+                throw new IOException("unexpected journal header");
+            }
+            // the last line is torn if the process died while appending it
+            truncated = !endsWithNewLine();
+            int lineCount = 0;
+            String line = reader.readLine();
+            while (line != null) {
+                String next = reader.readLine();
+                if (next != null || !truncated) replayLine(line, entries);
+                lineCount++;
+                line = next;
+            }
+            redundantOpCount = lineCount - entries.size();
+            writer = newWriter(true);
+            return true;
+        } catch (IOException e) {
+            Log.w("CacheDiskUtils", "journal is corrupt, rebuild it: " + e.getMessage());
+            entries.clear();
+            return false;
+        } catch (RuntimeException e) {
+            Log.w("CacheDiskUtils", "journal is corrupt, rebuild it: " + e);
+            entries.clear();
+            return false;
+        } finally {
+            DiskCacheHelper.closeIO(reader);
+        }
+    }
+
+    private void replayLine(final String line, final Map<String, DiskCacheEntry> entries)
+            throws IOException {
+        String[] parts = line.split(" ");
+        if (PUT.equals(parts[0]) && parts.length == 5) {
+            entries.put(parts[1], new DiskCacheEntry(
+                    parts[1], Long.parseLong(parts[2]), Long.parseLong(parts[3]), Long.parseLong(parts[4])
+            ));
+        } else if (PUT.equals(parts[0]) && parts.length == 6) {
+            DiskCacheEntry entry = new DiskCacheEntry(
+                    parts[1], Long.parseLong(parts[2]), Long.parseLong(parts[3]), Long.parseLong(parts[4])
+            );
+            entry.key = decodeKey(parts[5]);
+            entries.put(parts[1], entry);
+        } else if (PUT.equals(parts[0]) && (parts.length == 7 || parts.length == 8)) {
+            DiskCacheEntry entry = new DiskCacheEntry(
+                    parts[1], Long.parseLong(parts[2]), Long.parseLong(parts[3]), Long.parseLong(parts[4]),
+                    Integer.parseInt(parts[5]), Long.parseLong(parts[6])
+            );
+            if (parts.length == 8) entry.key = decodeKey(parts[7]);
+            entries.put(parts[1], entry);
+        } else if (MOVE.equals(parts[0]) && parts.length == 4) {
+            DiskCacheEntry entry = entries.get(parts[1]);
+            if (entry != null) {
+                entry.segment = Integer.parseInt(parts[2]);
+                entry.offset = Long.parseLong(parts[3]);
+            }
+        } else if (ACCESS.equals(parts[0]) && parts.length == 3) {
+            DiskCacheEntry entry = entries.get(parts[1]);
+            if (entry != null) entry.lastAccess = Long.parseLong(parts[2]);
+        } else if (REMOVE.equals(parts[0]) && parts.length == 2) {
+            entries.remove(parts[1]);
+        } else {
+            throw new IOException("unexpected journal line: " + line);
+        }
+    }
+
+    void appendPut(final DiskCacheEntry entry) {
+        append(toPutLine(entry), true);
+    }
+
+    void appendMove(final DiskCacheEntry entry) {
+        append(MOVE + " " + entry.name + " " + entry.segment + " " + entry.offset, true);
+    }
+
+    void appendAccess(final String name, final long lastAccess) {
+        append(ACCESS + " " + name + " " + lastAccess, false);
+    }
+
+    void appendRemove(final String name) {
+        append(REMOVE + " " + name, true);
+    }
+
+    private void append(final String line, final boolean flush) {
+        redundantOpCount++;
+        if (pendingLines != null) pendingLines.add(line);
+        if (writer == null) return;
+        try {
+            writer.write(line);
+            writer.write('\n');
+            if (flush) writer.flush();
+        } catch (IOException e) {
+            onWriteError(e);
+        }
+    }
+
+    private boolean endsWithNewLine() throws IOException {
+        RandomAccessFile raf = new RandomAccessFile(journalFile, "r");
+        try {
+            if (raf.length() == 0) return true;
+            raf.seek(raf.length() - 1);
+            return raf.read() == '\n';
+        } finally {
+            raf.close();
+        }
+    }
+
+    /**
+     * Return whether the journal should be rewritten, the truncated one must be
+     * rewritten before appending.
+     */
+    boolean isRedundant(final int entryCount) {
+        return truncated || (redundantOpCount >= COMPACT_THRESHOLD && redundantOpCount >= entryCount);
+    }
+
+    /**
+     * Rewrite the journal with the entries right now.
+     */
+    void rewrite(final Collection<DiskCacheEntry> entries) {
+        closeWriter();
+        pendingLines = null;
+        if (write(journalFileTmp, snapshot(entries)) && journalFileTmp.renameTo(journalFile)) {
+            redundantOpCount = 0;
+            truncated = false;
+            writer = newWriter(true);
+        } else {
+            journalFile.delete();
+        }
+    }
+
+    /**
+     * Start compaction, the lines appended from now on are also kept in memory
+     * until {@link #finishCompaction(boolean)}.
+     *
+     * @return the snapshot of entries or null if compaction is running
+     */
+    String beginCompaction(final Collection<DiskCacheEntry> entries) {
+        if (pendingLines != null) return null;
+        pendingLines = new ArrayList<>();
+        redundantOpCount = 0;
+        return snapshot(entries);
+    }
+
+    boolean writeCompaction(final String snapshot) {
+        return write(journalFileBkp, snapshot);
+    }
+
+    private boolean write(final File file, final String snapshot) {
+        Writer tmpWriter = null;
+        try {
+            FileOutputStream fos = new FileOutputStream(file);
+            tmpWriter = new BufferedWriter(new OutputStreamWriter(fos, "UTF-8"));
+            tmpWriter.write(MAGIC + "\n" + VERSION + "\n\n");
+            tmpWriter.write(snapshot);
+            tmpWriter.flush();
+            fos.getFD().sync();
+            return true;
+        } catch (IOException e) {
+            Log.w("CacheDiskUtils", "write journal failed: " + e.getMessage());
+            return false;
+        } finally {
+            DiskCacheHelper.closeIO(tmpWriter);
+        }
+    }
+
+    void finishCompaction(final boolean written) {
+        List<String> lines = pendingLines;
+        pendingLines = null;
+        if (!written || lines == null) {
+            journalFileBkp.delete();
+            return;
+        }
+        Writer tmpWriter = null;
+        try {
+            tmpWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(journalFileBkp, true), "UTF-8"));
+            for (String line : lines) {
+                tmpWriter.write(line);
+                tmpWriter.write('\n');
+            }
+            tmpWriter.flush();
+        } catch (IOException e) {
+            journalFileBkp.delete();
+            return;
+        } finally {
+            DiskCacheHelper.closeIO(tmpWriter);
+        }
+        closeWriter();
+        if (journalFileBkp.renameTo(journalFile)) {
+            redundantOpCount = lines.size();
+        }
+        writer = newWriter(true);
+    }
+
+    private String snapshot(final Collection<DiskCacheEntry> entries) {
+        StringBuilder sb = new StringBuilder(entries.size() * 64);
+        for (DiskCacheEntry entry : entries) {
+            sb.append(toPutLine(entry)).append('\n');
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Return the line of entry, which is {@code PUT name size lastAccess dueTime [segment offset] [key]}.
+     */
+    private static String toPutLine(final DiskCacheEntry entry) {
+        String line = PUT + " " + entry.name + " " + entry.size + " " + entry.lastAccess + " " + entry.dueTime;
+        if (entry.segment != DiskCacheEntry.NO_SEGMENT) line += " " + entry.segment + " " + entry.offset;
+        if (entry.key == null) return line;
+        return line + " " + encodeKey(entry.key);
+    }
+
+    /**
+     * Encode the key into a token without spaces and line breaks.
+     */
+    private static String encodeKey(final String key) {
+        try {
+            return URLEncoder.encode(key, "UTF-8");
+        } catch (UnsupportedEncodingException e) {
+            throw new AssertionError(e);
+        }
+    }
+
+    private static String decodeKey(final String token) throws IOException {
+        return URLDecoder.decode(token, "UTF-8");
+    }
+
+    private Writer newWriter(final boolean append) {
+        try {
+            return new BufferedWriter(new OutputStreamWriter(new FileOutputStream(journalFile, append), "UTF-8"));
+        } catch (IOException e) {
+            Log.w("CacheDiskUtils", "open journal failed: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Close the journal, the lines appended later are dropped.
+     */
+    void close() {
+        closeWriter();
+    }
+
+    private void closeWriter() {
+        DiskCacheHelper.closeIO(writer);
+        writer = null;
+    }
+
+    /**
+     * Drop the journal so that the next open rebuilds it from the cache directory.
+     */
+    private void onWriteError(final IOException e) {
+        Log.w("CacheDiskUtils", "write journal failed, it will be rebuilt: " + e.getMessage());
+        closeWriter();
+        journalFile.delete();
+    }
+}
@@ -0,0 +1,23 @@
+package com.blankj.utilcode.util;
+
+/**
+ * <pre>
+ *     author: Blankj
+ *     blog  : http://blankj.com
+ *     time  : 2026/10/18
+ *     desc  : the max size and count of each shard of an instance
+ * </pre>
+ * <p>The instances on the same directory share its manager,
+ * and each of them evicts by its own limits when it puts.</p>
+ */
+final class DiskCacheLimits {
+    final long       sizeLimit;
+    final int        countLimit;
+    final CacheStats stats;
+
+    DiskCacheLimits(final long sizeLimit, final int countLimit, final CacheStats stats) {
+        this.sizeLimit = sizeLimit;
+        this.countLimit = countLimit;
+        this.stats = stats;
+    }
+}
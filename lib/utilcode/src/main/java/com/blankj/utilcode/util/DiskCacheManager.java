@@ -0,0 +1,1027 @@
+package com.blankj.utilcode.util;
+
+import android.util.Log;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <pre>
+ *     author: Blankj
+ *     blog  : http://blankj.com
+ *     time  : 2017/05/24
+ *     desc  : the index of a cache directory, which is shared by the instances on it
+ * </pre>
+ */
+final class DiskCacheManager {
+
+    private static final String CACHE_PREFIX    = "cdu_";
+    private static final String TEMP_DIR        = "tmp";
+    private static final int    DIGEST_NAME_LEN = CACHE_PREFIX.length() + 3 + 32;// prefix + type + MD5 in hex
+
+    // the managers by canonical path of directory, which are shared by the instances on it
+    private static final Map<String, DiskCacheManager> DISK_CACHE_MANAGERS = new HashMap<>();
+
+    // the loads of index wait for it if it is set, for the tests of reads before loaded
+    static volatile CountDownLatch sLoadLatch;
+
+    private final String                         path;// the canonical path of cacheDir
+    private       int                            refCount;// locked by DISK_CACHE_MANAGERS
+    private       boolean                        closing;// locked by DISK_CACHE_MANAGERS
+    private final AtomicLong                     cacheSize;
+    private final AtomicInteger                  cacheCount;
+    private final Map<String, DiskCacheEntry>    entries
+            = new LinkedHashMap<>(16, 0.75f, true);// access-ordered, the eldest is the LRU one
+    private final TreeSet<DiskCacheEntry>        expiries
+            = new TreeSet<>(DiskCacheEntry.DUE_TIME_ORDER);// the entries which will be due
+    private final AtomicLong                     reclaimedSize;
+    private final AtomicInteger                  reclaimedCount;
+    private final AtomicLong                     fileProbes = new AtomicLong();// the count of File#exists
+    private final File                           cacheDir;
+    private final File                           tempDir;
+    private final AtomicLong                     tempId;
+    private final AtomicInteger                  legacyCount;// The count of entries with legacy names.
+    private final DiskCacheSegments              segments;// locked by entries
+    private volatile boolean                     mayHaveSegments;
+    private final Object                         appendLock = new Object();// locked before entries
+    private       boolean                        segmentCompacting;
+    private       boolean                        journalCompacting;// locked by entries
+    private       boolean                        closed;// locked by entries
+    private final DiskCacheJournal               journal;
+    private final List<DiskCacheOp>              pendingOps
+            = new ArrayList<>();// the updates of index before loaded, locked by itself
+    private volatile boolean                     loaded;
+    private volatile DiskCacheFilter             filter;// null until the index is loaded, updated with entries locked
+    private final Thread                         mThread;
+
+    private DiskCacheManager(final String path, final File cacheDir) {
+        this.path = path;
+        this.cacheDir = cacheDir;
+        segments = new DiskCacheSegments(cacheDir);
+        mayHaveSegments = segments.exists();
+        cacheSize = new AtomicLong();
+        cacheCount = new AtomicInteger();
+        tempDir = new File(cacheDir, TEMP_DIR);
+        tempId = new AtomicLong();
+        legacyCount = new AtomicInteger();
+        reclaimedSize = new AtomicLong();
+        reclaimedCount = new AtomicInteger();
+        journal = new DiskCacheJournal(cacheDir);
+        // the temp files of the writes before loaded must not be swept
+        sweepTempFiles();
+        mThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                awaitLoadLatch();
+                synchronized (entries) {
+                    try {
+                        if (!journal.replay(entries)) {
+                            rebuildFromDir();
+                            journal.rewrite(entries.values());
+                        } else {
+                            putUnknownFiles();
+                            if (journal.isRedundant(entries.size())) journal.rewrite(entries.values());
+                        }
+                        segments.load(entries.values(), journal);
+                        long size = 0;
+                        int count = 0;
+                        int legacy = 0;
+                        for (DiskCacheEntry entry : entries.values()) {
+                            size += entry.size;
+                            count += 1;
+                            if (isLegacyName(entry.name)) legacy += 1;
+                            if (entry.dueTime != -1) expiries.add(entry);
+                        }
+                        cacheSize.getAndAdd(size);
+                        cacheCount.getAndAdd(count);
+                        legacyCount.getAndAdd(legacy);
+                    } finally {
+                        applyPendingOps();
+                    }
+                }
+                compactIfNeeded();
+            }
+        });
+        mThread.start();
+    }
+
+    private static void awaitLoadLatch() {
+        final CountDownLatch loadLatch = sLoadLatch;
+        if (loadLatch == null) return;
+        try {
+            loadLatch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Return the manager of directory, which is shared by all the instances on it
+     * until they are all released.
+     */
+    static DiskCacheManager acquire(final File dir, final boolean segmentEnabled) {
+        if (!dir.exists() && !dir.mkdirs()) {
+            Log.e("CacheDiskUtils", "can't make dirs in " + dir.getAbsolutePath());
+            return null;
+        }
+        String path;
+        try {
+            path = dir.getCanonicalPath();
+        } catch (IOException e) {
+            path = dir.getAbsolutePath();
+        }
+        synchronized (DISK_CACHE_MANAGERS) {
+            DiskCacheManager diskCacheManager = DISK_CACHE_MANAGERS.get(path);
+            boolean interrupted = false;
+            // the next manager of directory opens after the closing one is closed
+            while (diskCacheManager != null && diskCacheManager.closing) {
+                try {
+                    DISK_CACHE_MANAGERS.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+                diskCacheManager = DISK_CACHE_MANAGERS.get(path);
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+            if (diskCacheManager == null) {
+                diskCacheManager = new DiskCacheManager(path, dir);
+                DISK_CACHE_MANAGERS.put(path, diskCacheManager);
+            }
+            if (segmentEnabled) diskCacheManager.mayHaveSegments = true;
+            diskCacheManager.refCount++;
+            return diskCacheManager;
+        }
+    }
+
+    /**
+     * Release the manager acquired by {@link #acquire(File, boolean)}, it is closed
+     * when the last instance releases it.
+     */
+    static void release(final DiskCacheManager diskCacheManager) {
+        synchronized (DISK_CACHE_MANAGERS) {
+            if (--diskCacheManager.refCount > 0) return;
+            // it stays in the registry until closed, the managers of other directories don't wait
+            diskCacheManager.closing = true;
+        }
+        diskCacheManager.close();
+        synchronized (DISK_CACHE_MANAGERS) {
+            DISK_CACHE_MANAGERS.remove(diskCacheManager.path);
+            DISK_CACHE_MANAGERS.notifyAll();
+        }
+    }
+
+    /**
+     * Close the journal and active segment after the running compactions.
+     */
+    private void close() {
+        wait2InitOk();
+        boolean interrupted = false;
+        synchronized (appendLock) {
+            synchronized (entries) {
+                closed = true;
+                while (segmentCompacting || journalCompacting) {
+                    try {
+                        entries.wait();
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    }
+                }
+                segments.closeActive();
+                journal.close();
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Make the directory again if it is deleted by others, the entries in it are forgotten.
+     * <p>It is called when a write finds the temp directory missing or an IO operation fails.</p>
+     *
+     * @return {@code true}: the directory exists<br>{@code false}: it can't be made
+     */
+    boolean ensureDir() {
+        if (cacheDir.exists()) return true;
+        wait2InitOk();
+        synchronized (appendLock) {
+            synchronized (entries) {
+                if (cacheDir.exists()) return true;
+                if (!cacheDir.mkdirs()) {
+                    Log.e("CacheDiskUtils", "can't make dirs in " + cacheDir.getAbsolutePath());
+                    return false;
+                }
+                segments.deleteAll();
+                entries.clear();
+                expiries.clear();
+                cacheSize.set(0);
+                cacheCount.set(0);
+                legacyCount.set(0);
+                rebuildFilter();
+                journal.rewrite(entries.values());
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Return whether the index is loaded, the writes and reads of keys don't wait for it.
+     */
+    boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Defer the update of index until it is loaded.
+     *
+     * @return {@code true}: deferred<br>{@code false}: the index is loaded, update it now
+     */
+    private boolean defer(final DiskCacheOp op) {
+        if (loaded) return false;
+        synchronized (pendingOps) {
+            if (loaded) return false;
+            pendingOps.add(op);
+            return true;
+        }
+    }
+
+    /**
+     * Apply the updates before loaded in order, it must be called with entries locked.
+     * <p>The eviction is deferred to here, when the size and count are known.</p>
+     */
+    private void applyPendingOps() {
+        synchronized (pendingOps) {
+            for (DiskCacheOp op : pendingOps) {
+                if (op.type == DiskCacheOp.PUT) {
+                    putEntry(op.entry.key, op.entry, op.limits);
+                } else if (op.type == DiskCacheOp.ACCESS) {
+                    if (op.file.exists()) updateModify(op.file, op.millis);
+                } else {
+                    removeEntry(op.name);
+                }
+            }
+            pendingOps.clear();
+            rebuildFilter();
+            loaded = true;
+        }
+    }
+
+    /**
+     * Delete the temp files which were left by the writes interrupted by a crash.
+     */
+    private void sweepTempFiles() {
+        File[] tempFiles = tempDir.listFiles();
+        if (tempFiles == null) return;
+        for (File tempFile : tempFiles) {
+            tempFile.delete();
+        }
+    }
+
+    /**
+     * Return a new temp file for writing the cache file, it is unique for each call.
+     */
+    File newTempFile(final File file) {
+        if (!tempDir.exists()) {
+            // the directory may be deleted by others, such as clearing the cache of app in settings
+            ensureDir();
+            tempDir.mkdirs();
+        }
+        return new File(tempDir, file.getName() + "." + tempId.incrementAndGet());
+    }
+
+    /**
+     * Rename the temp file to the cache file atomically.
+     */
+    boolean commit(final File tempFile, final File file) {
+        if (tempFile.renameTo(file)) return true;
+        Log.e("CacheDiskUtils", "can't rename " + tempFile.getName() + " to " + file.getName());
+        tempFile.delete();
+        return false;
+    }
+
+    /**
+     * Rebuild the index by scanning the cache directory and reading the headers of files,
+     * only used when the journal is missing or corrupt.
+     */
+    private void rebuildFromDir() {
+        entries.clear();
+        // the records in segments can't be found without the journal
+        segments.deleteAll();
+        final File[] cachedFiles = cacheDir.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.startsWith(CACHE_PREFIX);
+            }
+        });
+        if (cachedFiles == null) return;
+        final List<DiskCacheEntry> scanned = new ArrayList<>(cachedFiles.length);
+        for (File cachedFile : cachedFiles) {
+            DiskCacheEntry entry = scanEntry(cachedFile);
+            if (entry != null) scanned.add(entry);
+        }
+        Collections.sort(scanned, new Comparator<DiskCacheEntry>() {
+            @Override
+            public int compare(DiskCacheEntry o1, DiskCacheEntry o2) {
+                return o1.lastAccess < o2.lastAccess ? -1 : (o1.lastAccess == o2.lastAccess ? 0 : 1);
+            }
+        });
+        for (DiskCacheEntry entry : scanned) {
+            entries.put(entry.name, entry);
+        }
+    }
+
+    /**
+     * Put the cache files which are not in the replayed journal into index, such as the ones
+     * renamed into place just before the process died, so they are counted and evicted.
+     * <p>Only the names are listed, the unknown ones are read like {@link #rebuildFromDir()}.</p>
+     */
+    private void putUnknownFiles() {
+        final String[] names = cacheDir.list(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.startsWith(CACHE_PREFIX) && !entries.containsKey(name);
+            }
+        });
+        if (names == null) return;
+        for (String name : names) {
+            DiskCacheEntry entry = scanEntry(new File(cacheDir, name));
+            if (entry == null) continue;
+            entries.put(name, entry);
+            journal.appendPut(entry);
+        }
+    }
+
+    /**
+     * Return the entry of cache file by its header, or null if it is deleted meanwhile.
+     */
+    private static DiskCacheEntry scanEntry(final File cachedFile) {
+        // the due time is kept, so the sweeper and eviction find the expired ones
+        DiskCacheHeader header = readHeader(cachedFile, 0);
+        long length = cachedFile.length();
+        if (header == null && length == 0 && !cachedFile.exists()) return null;
+        DiskCacheEntry entry = new DiskCacheEntry(
+                cachedFile.getName(), length, cachedFile.lastModified(), header == null ? -1 : header.dueTime
+        );
+        if (header != null) entry.key = header.key;
+        return entry;
+    }
+
+    long getCacheSize() {
+        wait2InitOk();
+        return cacheSize.get();
+    }
+
+    int getCacheCount() {
+        wait2InitOk();
+        return cacheCount.get();
+    }
+
+    long getReclaimedSize() {
+        return reclaimedSize.get();
+    }
+
+    int getReclaimedCount() {
+        return reclaimedCount.get();
+    }
+
+    long getFileProbeCount() {
+        return fileProbes.get();
+    }
+
+    File getFileBeforePut(final String key) {
+        return new File(cacheDir, getCacheNameByKey(key));
+    }
+
+    private void wait2InitOk() {
+        try {
+            mThread.join();
+        } catch (InterruptedException e) {
+            e.printStackTrace();
+        }
+    }
+
+    File getFileIfExists(final String key) {
+        final DiskCacheFilter filter = this.filter;
+        final String name = getCacheNameByKey(key);
+        // the missing one is answered by the filter without touching the file system
+        if (filter == null || filter.mayContain(name)) {
+            File file = new File(cacheDir, name);
+            fileProbes.incrementAndGet();
+            if (file.exists()) return file;
+        }
+        if (!hasLegacy()) return null;
+        final String legacyName = getLegacyNameByKey(key);
+        if (filter != null && !filter.mayContain(legacyName)) return null;
+        File file = new File(cacheDir, legacyName);
+        fileProbes.incrementAndGet();
+        if (!file.exists()) return null;
+        return file;
+    }
+
+    /**
+     * Rebuild the filter from the names in index, it must be called with entries locked.
+     */
+    private void rebuildFilter() {
+        DiskCacheFilter newFilter = new DiskCacheFilter(entries.size());
+        for (String name : entries.keySet()) {
+            newFilter.put(name);
+        }
+        filter = newFilter;
+    }
+
+    /**
+     * Put the name in filter, it must be called with entries locked.
+     * <p>The removed names are left in filter, so it is rebuilt when it is full.</p>
+     */
+    private void putInFilter(final String name) {
+        DiskCacheFilter filter = this.filter;
+        if (filter == null) return;
+        if (filter.isFull()) {
+            rebuildFilter();
+        } else {
+            filter.put(name);
+        }
+    }
+
+    /**
+     * Return whether the files named by {@link #getLegacyNameByKey(String)} may exist,
+     * they are unknown until the index is loaded.
+     */
+    private boolean hasLegacy() {
+        return legacyCount.get() > 0 || !loaded;
+    }
+
+    /**
+     * Return the name of cache file, which is the type of key followed by the MD5 of the rest.
+     */
+    private static String getCacheNameByKey(final String key) {
+        byte[] digest = UtilsBridge.hashTemplate(key.substring(3).getBytes(DiskCacheHelper.UTF_8), "MD5");
+        return CACHE_PREFIX + key.substring(0, 3) + UtilsBridge.bytes2HexString(digest);
+    }
+
+    /**
+     * Return the name of cache file in the old versions, different keys may share one name.
+     */
+    private static String getLegacyNameByKey(final String key) {
+        return CACHE_PREFIX + key.substring(0, 3) + key.substring(3).hashCode();
+    }
+
+    static boolean isLegacyName(final String name) {
+        return name.length() != DIGEST_NAME_LEN;
+    }
+
+    void put(final String key, final File file, final long dueTime, final DiskCacheLimits limits) {
+        final DiskCacheEntry entry = new DiskCacheEntry(file.getName(), file.length(), System.currentTimeMillis(), dueTime);
+        entry.key = key;
+        if (defer(DiskCacheOp.put(entry, limits))) return;
+        synchronized (entries) {
+            putEntry(key, entry, limits);
+        }
+        compactIfNeeded();
+    }
+
+    /**
+     * Append the record of header and data into the active segment.
+     */
+    boolean putSegment(final String key,
+                       final DiskCacheHeader header,
+                       final byte[] data,
+                       final boolean sync,
+                       final DiskCacheLimits limits) {
+        wait2InitOk();
+        final String name = getCacheNameByKey(key);
+        final byte[] headerBytes = header.toBytes();
+        final int size = headerBytes.length + data.length;
+        synchronized (appendLock) {
+            DiskCacheSegment segment;
+            long offset;
+            try {
+                segment = getActiveSegment(size);
+                offset = segment.length;
+                ByteBuffer[] buffers = {ByteBuffer.wrap(headerBytes), ByteBuffer.wrap(data)};
+                segment.channel.position(offset);
+                while (buffers[1].hasRemaining()) {
+                    segment.channel.write(buffers);
+                }
+                if (sync) segment.channel.force(false);
+            } catch (IOException e) {
+                // the torn record is overwritten by the next one
+                Log.e("CacheDiskUtils", "append segment failed: " + e.getMessage());
+                ensureDir();
+                return false;
+            }
+            final DiskCacheEntry entry = new DiskCacheEntry(
+                    name, size, System.currentTimeMillis(), header.dueTime, segment.id, offset
+            );
+            synchronized (entries) {
+                segment.length = offset + size;
+                segment.live += size;
+                putEntry(key, entry, limits);
+            }
+        }
+        compactIfNeeded();
+        return true;
+    }
+
+    /**
+     * Put the entry into the index, it must be called with entries locked.
+     */
+    private void putEntry(final String key, final DiskCacheEntry entry, final DiskCacheLimits limits) {
+        entry.key = key;
+        DiskCacheEntry old = entries.put(entry.name, entry);
+        putInFilter(entry.name);
+        if (old != null) {
+            cacheCount.addAndGet(-1);
+            cacheSize.addAndGet(-old.size);
+            if (old.dueTime != -1) expiries.remove(old);
+            if (old.segment != DiskCacheEntry.NO_SEGMENT) {
+                segments.release(old);
+            } else if (entry.segment != DiskCacheEntry.NO_SEGMENT) {
+                // the value is moved from its own file into segment
+                new File(cacheDir, old.name).delete();
+            }
+        }
+        cacheCount.addAndGet(1);
+        cacheSize.addAndGet(entry.size);
+        if (entry.dueTime != -1) expiries.add(entry);
+        journal.appendPut(entry);
+        if (hasLegacy()) {
+            // the value of legacy file is replaced by the new one
+            File legacyFile = new File(cacheDir, getLegacyNameByKey(key));
+            if (legacyFile.delete()) removeEntry(legacyFile.getName());
+        }
+        final long now = System.currentTimeMillis();
+        while (cacheCount.get() > limits.countLimit || cacheSize.get() > limits.sizeLimit) {
+            // the expired ones go first
+            if (!removeExpired(now) && !removeOldest(limits.stats)) break;
+        }
+    }
+
+    /**
+     * Return the copy of entry if the value of key is in segment, or null otherwise.
+     * <p>It doesn't wait for the index, the values in segments are missed until it is loaded,
+     * and the ones written meanwhile are in their own files.</p>
+     */
+    DiskCacheEntry getSegmentEntry(final String key) {
+        if (!mayHaveSegments || !loaded) return null;
+        final String name = getCacheNameByKey(key);
+        final DiskCacheFilter filter = this.filter;
+        if (filter != null && !filter.mayContain(name)) return null;
+        synchronized (entries) {
+            DiskCacheEntry entry = entries.get(name);
+            if (entry == null || entry.segment == DiskCacheEntry.NO_SEGMENT) return null;
+            return new DiskCacheEntry(name, entry.size, entry.lastAccess, entry.dueTime, entry.segment, entry.offset);
+        }
+    }
+
+    File getSegmentFile(final DiskCacheEntry entry) {
+        return segments.getFile(entry);
+    }
+
+    void updateAccess(final String name) {
+        long millis = System.currentTimeMillis();
+        synchronized (entries) {
+            DiskCacheEntry entry = entries.get(name);
+            if (entry == null) return;
+            entry.lastAccess = millis;
+            journal.appendAccess(name, millis);
+        }
+        compactIfNeeded();
+    }
+
+    /**
+     * Return the segment to append the record, it must be called with append locked.
+     */
+    private DiskCacheSegment getActiveSegment(final int size) throws IOException {
+        DiskCacheSegment segment = segments.getActive();
+        if (segment == null || (segment.length > 0 && segment.length + size > DiskCacheSegment.MAX_LENGTH)) {
+            synchronized (entries) {
+                segment = segments.newActive();
+            }
+            compactIfNeeded();
+        }
+        if (segment.channel == null) {
+            segment.channel = new RandomAccessFile(segment.file, "rw").getChannel();
+        }
+        return segment;
+    }
+
+    void updateModify(final File file) {
+        long millis = System.currentTimeMillis();
+        file.setLastModified(millis);
+        if (defer(DiskCacheOp.access(file, millis))) return;
+        synchronized (entries) {
+            updateModify(file, millis);
+        }
+        compactIfNeeded();
+    }
+
+    /**
+     * Update the entry of file which is read, it must be called with entries locked.
+     */
+    void updateModify(final File file, final long millis) {
+        final String name = file.getName();
+        DiskCacheEntry entry = entries.get(name);
+        if (entry == null) {
+            // the file was written but the process died before the journal knew it
+            entry = new DiskCacheEntry(name, file.length(), millis, -1);
+            entries.put(name, entry);
+            putInFilter(name);
+            cacheCount.addAndGet(1);
+            cacheSize.addAndGet(entry.size);
+            if (isLegacyName(name)) legacyCount.addAndGet(1);
+            journal.appendPut(entry);
+        } else {
+            entry.lastAccess = millis;
+            journal.appendAccess(name, millis);
+        }
+    }
+
+    /**
+     * Update the files and segment records which are read in batch, with entries locked once.
+     */
+    void updateAccess(final List<DiskCacheAccess> accesses) {
+        long millis = System.currentTimeMillis();
+        for (DiskCacheAccess access : accesses) {
+            if (access.file != null) access.file.setLastModified(millis);
+        }
+        // the records in segments are read after loaded
+        if (!loaded) {
+            Iterator<DiskCacheAccess> iterator = accesses.iterator();
+            while (iterator.hasNext()) {
+                DiskCacheAccess access = iterator.next();
+                if (access.file != null && defer(DiskCacheOp.access(access.file, millis))) iterator.remove();
+            }
+            if (accesses.isEmpty()) return;
+        }
+        synchronized (entries) {
+            for (DiskCacheAccess access : accesses) {
+                if (access.file != null) {
+                    updateModify(access.file, millis);
+                } else {
+                    DiskCacheEntry entry = entries.get(access.name);
+                    if (entry == null) continue;
+                    entry.lastAccess = millis;
+                    journal.appendAccess(access.name, millis);
+                }
+            }
+        }
+        compactIfNeeded();
+    }
+
+    /**
+     * Remove the entries whose keys start with any of prefixes.
+     * <p>The keys unknown in index are read from the headers of files,
+     * the legacy files and the keys which are too long to be stored are skipped.</p>
+     */
+    boolean removeByPrefix(final String[] prefixes) {
+        wait2InitOk();
+        List<String> keys = new ArrayList<>();
+        List<DiskCacheEntry> unknown = new ArrayList<>();
+        synchronized (entries) {
+            for (DiskCacheEntry entry : entries.values()) {
+                if (entry.key == null) {
+                    unknown.add(new DiskCacheEntry(
+                            entry.name, entry.size, entry.lastAccess, entry.dueTime, entry.segment, entry.offset
+                    ));
+                } else if (startsWith(entry.key, prefixes)) {
+                    keys.add(entry.key);
+                }
+            }
+        }
+        for (DiskCacheEntry entry : unknown) {
+            String key = readKey(entry);
+            if (key == null) continue;
+            synchronized (entries) {
+                DiskCacheEntry known = entries.get(entry.name);
+                if (known != null && known.key == null) known.key = key;
+            }
+            if (startsWith(key, prefixes)) keys.add(key);
+        }
+        boolean flag = true;
+        for (String key : keys) {
+            if (!removeByKey(key)) flag = false;
+        }
+        return flag;
+    }
+
+    static boolean startsWith(final String key, final String[] prefixes) {
+        for (String prefix : prefixes) {
+            if (key.startsWith(prefix)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Return the key in header of entry, or null if it is unknown.
+     */
+    private String readKey(final DiskCacheEntry entry) {
+        if (isLegacyName(entry.name)) return null;
+        boolean inSegment = entry.segment != DiskCacheEntry.NO_SEGMENT;
+        File file = inSegment ? getSegmentFile(entry) : new File(cacheDir, entry.name);
+        DiskCacheHeader header = readHeader(file, inSegment ? entry.offset : 0);
+        return header == null ? null : header.key;
+    }
+
+    /**
+     * Return the header at offset of file, or null if it can't be read.
+     */
+    private static DiskCacheHeader readHeader(final File file, final long offset) {
+        RandomAccessFile raf = null;
+        try {
+            raf = new RandomAccessFile(file, "r");
+            return DiskCacheHeader.read(raf.getChannel(), offset);
+        } catch (IOException e) {
+            return null;
+        } finally {
+            DiskCacheHelper.closeIO(raf);
+        }
+    }
+
+    boolean removeByKey(final String key) {
+        File file = getFileIfExists(key);
+        if (file == null) {
+            if (!mayHaveSegments) return true;
+            // the value may be in segment
+            String name = getCacheNameByKey(key);
+            if (defer(DiskCacheOp.remove(name))) return true;
+            synchronized (entries) {
+                if (!entries.containsKey(name)) return true;
+                removeEntry(name);
+            }
+            compactIfNeeded();
+            return true;
+        }
+        if (!file.delete()) return false;
+        if (defer(DiskCacheOp.remove(file.getName()))) return true;
+        synchronized (entries) {
+            removeEntry(file.getName());
+        }
+        compactIfNeeded();
+        return true;
+    }
+
+    boolean clear() {
+        wait2InitOk();
+        File[] files = cacheDir.listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.startsWith(CACHE_PREFIX);
+            }
+        });
+        boolean flag = true;
+        synchronized (appendLock) {
+            synchronized (entries) {
+                clearSegments();
+                if (files == null || files.length <= 0) {
+                    journal.rewrite(entries.values());
+                    return true;
+                }
+                for (File file : files) {
+                    if (!file.delete()) {
+                        flag = false;
+                        continue;
+                    }
+                    removeEntry(file.getName());
+                }
+                if (flag) {
+                    entries.clear();
+                    rebuildFilter();
+                    cacheSize.set(0);
+                    cacheCount.set(0);
+                    legacyCount.set(0);
+                    expiries.clear();
+                }
+                journal.rewrite(entries.values());
+            }
+        }
+        return flag;
+    }
+
+    /**
+     * Remove all the entries in segments, it must be called with append and entries locked.
+     */
+    private void clearSegments() {
+        if (segments.isEmpty()) return;
+        Iterator<DiskCacheEntry> iterator = entries.values().iterator();
+        while (iterator.hasNext()) {
+            DiskCacheEntry entry = iterator.next();
+            if (entry.segment == DiskCacheEntry.NO_SEGMENT) continue;
+            iterator.remove();
+            cacheSize.addAndGet(-entry.size);
+            cacheCount.addAndGet(-1);
+            if (entry.dueTime != -1) expiries.remove(entry);
+            entry.segment = DiskCacheEntry.NO_SEGMENT;
+        }
+        segments.deleteAll();
+    }
+
+    private void removeEntry(final String name) {
+        DiskCacheEntry entry = entries.remove(name);
+        if (entry == null) return;
+        cacheSize.addAndGet(-entry.size);
+        cacheCount.addAndGet(-1);
+        if (isLegacyName(name)) legacyCount.addAndGet(-1);
+        if (entry.dueTime != -1) expiries.remove(entry);
+        if (entry.segment != DiskCacheEntry.NO_SEGMENT) segments.release(entry);
+        journal.appendRemove(name);
+    }
+
+    /**
+     * Remove the expired entries in order of due time.
+     *
+     * @param maxCount The max count of removed entries.
+     * @return the count of removed entries
+     */
+    int sweepExpired(final int maxCount) {
+        wait2InitOk();
+        final long now = System.currentTimeMillis();
+        int count = 0;
+        synchronized (entries) {
+            while (count < maxCount && removeExpired(now)) {
+                count++;
+            }
+        }
+        if (count > 0) compactIfNeeded();
+        return count;
+    }
+
+    /**
+     * Remove the entry which dues first if it is expired.
+     *
+     * @return {@code true}: success<br>{@code false}: nothing is expired
+     */
+    private boolean removeExpired(final long now) {
+        while (!expiries.isEmpty()) {
+            DiskCacheEntry first = expiries.first();
+            if (first.dueTime >= now) return false;
+            if (deleteFile(first)) {
+                removeEntry(first.name);
+                reclaimedSize.addAndGet(first.size);
+                reclaimedCount.addAndGet(1);
+                return true;
+            }
+            // it is removed when read
+            expiries.remove(first);
+        }
+        return false;
+    }
+
+    /**
+     * Remove the least recently used file, which is the eldest one of entries.
+     *
+     * @return {@code true}: success<br>{@code false}: nothing can be removed
+     */
+    private boolean removeOldest(final CacheStats stats) {
+        if (entries.isEmpty()) return false;
+        DiskCacheEntry oldest = entries.values().iterator().next();
+        if (deleteFile(oldest)) {
+            removeEntry(oldest.name);
+            stats.recordEviction(1);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Delete the file of entry, the record in segment is released by {@link #removeEntry(String)}.
+     */
+    private boolean deleteFile(final DiskCacheEntry entry) {
+        if (entry.segment != DiskCacheEntry.NO_SEGMENT) return true;
+        File file = new File(cacheDir, entry.name);
+        return file.delete() || !file.exists();
+    }
+
+    /**
+     * Compact the redundant journal on the IO pool, the requests are merged into the pending one.
+     */
+    private void compactIfNeeded() {
+        compactSegmentIfNeeded();
+        synchronized (entries) {
+            if (journalCompacting || closed || !journal.isRedundant(entries.size())) return;
+            journalCompacting = true;
+        }
+        UtilsBridge.getIoPool().execute(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    compactJournal();
+                } finally {
+                    synchronized (entries) {
+                        journalCompacting = false;
+                        entries.notifyAll();
+                    }
+                }
+            }
+        });
+    }
+
+    private void compactJournal() {
+        final String snapshot;
+        synchronized (entries) {
+            snapshot = journal.beginCompaction(entries.values());
+            if (snapshot == null) return;
+        }
+        boolean written = journal.writeCompaction(snapshot);
+        synchronized (entries) {
+            journal.finishCompaction(written);
+        }
+    }
+
+    /**
+     * Compact the segments which are mostly garbage on the IO pool, one by one,
+     * the requests are merged into the pending one.
+     */
+    private void compactSegmentIfNeeded() {
+        if (!mayHaveSegments) return;
+        DiskCacheSegment fragmented = null;
+        synchronized (entries) {
+            if (segmentCompacting || closed) return;
+            fragmented = segments.getFragmented();
+            if (fragmented == null) return;
+            segmentCompacting = true;
+        }
+        final DiskCacheSegment victim = fragmented;
+        UtilsBridge.getIoPool().execute(new Runnable() {
+            @Override
+            public void run() {
+                boolean compacted = false;
+                try {
+                    compacted = compactSegment(victim);
+                } finally {
+                    synchronized (entries) {
+                        segmentCompacting = false;
+                        entries.notifyAll();
+                    }
+                }
+                // the failed one is retried by the next request, not in a loop
+                if (compacted) compactSegmentIfNeeded();
+            }
+        });
+    }
+
+    /**
+     * Copy the live records of victim into a new segment, then delete the victim.
+     *
+     * @return {@code true}: success<br>{@code false}: fail
+     */
+    private boolean compactSegment(final DiskCacheSegment victim) {
+        final List<DiskCacheEntry> live = new ArrayList<>();
+        final DiskCacheSegment target;
+        final long[] from;
+        synchronized (entries) {
+            for (DiskCacheEntry entry : entries.values()) {
+                if (entry.segment == victim.id) live.add(entry);
+            }
+            from = new long[live.size()];
+            for (int i = 0; i < from.length; i++) {
+                from[i] = live.get(i).offset;
+            }
+            target = segments.newSegment();
+            if (target == null) return false;
+        }
+        final long[] to = new long[live.size()];
+        final long length;
+        try {
+            length = DiskCacheSegments.copy(victim, target, live, from, to);
+        } catch (IOException e) {
+            synchronized (entries) {
+                segments.remove(target);
+                // the victim is deleted if all its records are removed during copying
+                if (segments.contains(victim)) {
+                    Log.w("CacheDiskUtils", "compact segment failed: " + e.getMessage());
+                }
+            }
+            target.file.delete();
+            return false;
+        }
+        synchronized (entries) {
+            target.length = length;
+            for (int i = 0; i < live.size(); i++) {
+                DiskCacheEntry entry = live.get(i);
+                // skip the entry which is removed or replaced during copying
+                if (entry.segment != victim.id || entry.offset != from[i]) continue;
+                entry.segment = target.id;
+                entry.offset = to[i];
+                target.live += entry.size;
+                journal.appendMove(entry);
+            }
+            segments.delete(victim);
+            if (target.live <= 0) segments.delete(target);
+        }
+        return true;
+    }
+}
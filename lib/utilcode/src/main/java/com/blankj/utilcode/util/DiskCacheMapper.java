@@ -0,0 +1,52 @@
+package com.blankj.utilcode.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * <pre>
+ *     author: Blankj
+ *     blog  : http://blankj.com
+ *     time  : 2026/10/18
+ *     desc  : the reads of large cache files by memory mapping
+ * </pre>
+ * <p>The mapping is still valid after the channel is closed, and it is unmapped by GC.</p>
+ */
+final class DiskCacheMapper {
+
+    /**
+     * Map the data of cache file of key, or return null to read it into heap.
+     * <p>The legacy, compressed, expired or corrupt ones are left to the heap path
+     * which migrates, decodes or removes them.</p>
+     */
+    static ByteBuffer map(final File file, final String key) {
+        RandomAccessFile raf = null;
+        try {
+            raf = new RandomAccessFile(file, "r");
+            FileChannel channel = raf.getChannel();
+            DiskCacheHeader header = DiskCacheHeader.read(channel, 0);
+            if (header.legacy || header.hasCodec() || !header.matches(key) || header.isDue()) return null;
+            ByteBuffer buffer = channel.map(
+                    FileChannel.MapMode.READ_ONLY, header.length, channel.size() - header.length
+            );
+            if (!header.verify(buffer)) return null;
+            return buffer;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        } finally {
+            DiskCacheHelper.closeIO(raf);
+        }
+    }
+
+    /**
+     * Read {@code data.length} bytes from {@code position} of channel into data by mapping them,
+     * which copies once instead of through the buffers of stream.
+     */
+    static void read(final FileChannel channel, final long position, final byte[] data) throws IOException {
+        channel.map(FileChannel.MapMode.READ_ONLY, position, data.length).get(data);
+    }
+}
@@ -0,0 +1,50 @@
+package com.blankj.utilcode.util;
+
+import java.io.File;
+
+/**
+ * <pre>
+ *     author: Blankj
+ *     blog  : http://blankj.com
+ *     time  : 2026/10/18
+ *     desc  : the update of index which happens before the index is loaded
+ * </pre>
+ */
+final class DiskCacheOp {
+    static final int PUT    = 0;
+    static final int ACCESS = 1;
+    static final int REMOVE = 2;
+
+    final int             type;
+    final DiskCacheEntry  entry;// the entry to put
+    final DiskCacheLimits limits;// the limits of instance which puts
+    final File            file;// the file accessed
+    final long            millis;
+    final String          name;// the name of entry to remove
+
+    private DiskCacheOp(final int type,
+                        final DiskCacheEntry entry,
+                        final DiskCacheLimits limits,
+                        final File file,
+                        final long millis,
+                        final String name) {
+        this.type = type;
+        this.entry = entry;
+        this.limits = limits;
+        this.file = file;
+        this.millis = millis;
+        this.name = name;
+    }
+
+    static DiskCacheOp put(final DiskCacheEntry entry, final DiskCacheLimits limits) {
+        return new DiskCacheOp(PUT, entry, limits, null, 0, null);
+    }
+
+    static DiskCacheOp access(final File file, final long millis) {
+        return new DiskCacheOp(ACCESS, null, null, file, millis, null);
+    }
+
+    static DiskCacheOp remove(final String name) {
+        return new DiskCacheOp(REMOVE, null, null, null, 0, name);
+    }
+}
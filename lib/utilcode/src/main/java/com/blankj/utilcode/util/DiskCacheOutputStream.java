@@ -0,0 +1,110 @@
+package com.blankj.utilcode.util;
+
+import androidx.annotation.NonNull;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * <pre>
+ *     author: Blankj
+ *     blog  : http://blankj.com
+ *     time  : 2026/10/18
+ *     desc  : the stream of {@link CacheDiskUtils#openOutputStream(String, int)}
+ * </pre>
+ * <p>It writes into a temp file which is renamed to the cache file when closed,
+ * or deleted if any write failed.</p>
+ */
+final class DiskCacheOutputStream extends FilterOutputStream {
+
+    private final FileOutputStream fos;
+    private final DiskCacheManager diskCacheManager;
+    private final DiskCacheLimits  limits;
+    private final File             tempFile;
+    private final File             file;
+    private final DiskCacheHeader  header;
+    private final boolean          sync;
+    private final CRC32            crc;
+    private       boolean          hasErrors;
+    private       boolean          closed;
+
+    DiskCacheOutputStream(final FileOutputStream fos,
+                          final DiskCacheManager diskCacheManager,
+                          final DiskCacheLimits limits,
+                          final File tempFile,
+                          final File file,
+                          final DiskCacheHeader header,
+                          final boolean sync) {
+        super(new BufferedOutputStream(fos));
+        this.fos = fos;
+        this.diskCacheManager = diskCacheManager;
+        this.limits = limits;
+        this.tempFile = tempFile;
+        this.file = file;
+        this.header = header;
+        this.sync = sync;
+        this.crc = header.hasChecksum() ? new CRC32() : null;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        try {
+            out.write(b);
+        } catch (IOException e) {
+            hasErrors = true;
+            throw e;
+        }
+        if (crc != null) crc.update(b);
+    }
+
+    @Override
+    public void write(@NonNull byte[] b, int off, int len) throws IOException {
+        try {
+            out.write(b, off, len);
+        } catch (IOException e) {
+            hasErrors = true;
+            throw e;
+        }
+        if (crc != null) crc.update(b, off, len);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            hasErrors = true;
+            throw e;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        try {
+            out.flush();
+            if (crc != null) {
+                header.checksum = (int) crc.getValue();
+                fos.getChannel().write(ByteBuffer.wrap(header.toBytes()), 0);
+            }
+            if (sync) fos.getFD().sync();
+            out.close();
+        } catch (IOException e) {
+            hasErrors = true;
+            DiskCacheHelper.closeIO(out);
+            throw e;
+        } finally {
+            if (hasErrors) {
+                tempFile.delete();
+            } else if (diskCacheManager.commit(tempFile, file)) {
+                diskCacheManager.put(header.key, file, header.dueTime, limits);
+            }
+        }
+    }
+}
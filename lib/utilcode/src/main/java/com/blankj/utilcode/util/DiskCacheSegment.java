@@ -0,0 +1,34 @@
+package com.blankj.utilcode.util;
+
+import java.io.File;
+import java.nio.channels.FileChannel;
+
+/**
+ * <pre>
+ *     author: Blankj
+ *     blog  : http://blankj.com
+ *     time  : 2026/10/18
+ *     desc  : the file which small values are appended into
+ * </pre>
+ * <p>Each record is a header followed by data, it is located by the offset and size of entry.</p>
+ */
+final class DiskCacheSegment {
+
+    static final long MAX_LENGTH = 4 * 1024 * 1024;
+
+    final int   id;
+    final File  file;
+    long        length;// The length of records appended.
+    long        live;// The length of records in index.
+    FileChannel channel;// It is opened only when the segment is active.
+
+    DiskCacheSegment(int id, File file, long length) {
+        this.id = id;
+        this.file = file;
+        this.length = length;
+    }
+
+    boolean isFragmented() {
+        return live * 2 < length;
+    }
+}
@@ -0,0 +1,222 @@
+package com.blankj.utilcode.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * <pre>
+ *     author: Blankj
+ *     blog  : http://blankj.com
+ *     time  : 2026/10/18
+ *     desc  : the segment files of a cache directory
+ * </pre>
+ * <p>The records are appended into the active one, and the others are compacted once they are
+ * mostly garbage. All methods are called with the index of {@link DiskCacheManager} locked,
+ * except {@link #copy(DiskCacheSegment, DiskCacheSegment, List, long[], long[])}.</p>
+ */
+final class DiskCacheSegments {
+
+    private static final String SEGMENT_DIR = "segments";
+
+    private final File                           dir;
+    private final Map<Integer, DiskCacheSegment> segments = new TreeMap<>();
+    private       DiskCacheSegment               active;
+    private       int                            nextId;
+
+    DiskCacheSegments(final File cacheDir) {
+        dir = new File(cacheDir, SEGMENT_DIR);
+    }
+
+    /**
+     * Return whether the segments were written before, they are readable even if they are disabled now.
+     */
+    boolean exists() {
+        return dir.exists();
+    }
+
+    boolean isEmpty() {
+        return segments.isEmpty();
+    }
+
+    File getFile(final DiskCacheEntry entry) {
+        return new File(dir, String.valueOf(entry.segment));
+    }
+
+    /**
+     * Return the segment to append the records, it must be called with append locked.
+     */
+    DiskCacheSegment getActive() {
+        return active;
+    }
+
+    /**
+     * Close the active segment and start a new one, it must be called with append locked too.
+     */
+    DiskCacheSegment newActive() throws IOException {
+        if (active != null) {
+            DiskCacheHelper.closeIO(active.channel);
+            active.channel = null;
+        }
+        active = newSegment();
+        if (active == null) throw new IOException("can't make dirs in " + dir);
+        return active;
+    }
+
+    /**
+     * Return a new segment, or null if the directory can't be made.
+     */
+    DiskCacheSegment newSegment() {
+        if (!dir.exists() && !dir.mkdirs()) return null;
+        int id = nextId++;
+        DiskCacheSegment segment = new DiskCacheSegment(id, new File(dir, String.valueOf(id)), 0);
+        segments.put(id, segment);
+        return segment;
+    }
+
+    /**
+     * Release the record of entry which is removed from index.
+     */
+    void release(final DiskCacheEntry entry) {
+        DiskCacheSegment segment = segments.get(entry.segment);
+        entry.segment = DiskCacheEntry.NO_SEGMENT;
+        if (segment == null) return;
+        segment.live -= entry.size;
+        if (segment.live <= 0 && segment != active) delete(segment);
+    }
+
+    /**
+     * Load the segments and drop the entries whose records are lost.
+     */
+    void load(final Collection<DiskCacheEntry> entries, final DiskCacheJournal journal) {
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                int id;
+                try {
+                    id = Integer.parseInt(file.getName());
+                } catch (NumberFormatException e) {
+                    file.delete();
+                    continue;
+                }
+                segments.put(id, new DiskCacheSegment(id, file, file.length()));
+                nextId = Math.max(nextId, id + 1);
+            }
+        }
+        Iterator<DiskCacheEntry> iterator = entries.iterator();
+        while (iterator.hasNext()) {
+            DiskCacheEntry entry = iterator.next();
+            if (entry.segment == DiskCacheEntry.NO_SEGMENT) continue;
+            DiskCacheSegment segment = segments.get(entry.segment);
+            if (segment == null || entry.offset + entry.size > segment.length) {
+                iterator.remove();
+                journal.appendRemove(entry.name);
+                continue;
+            }
+            segment.live += entry.size;
+        }
+        Iterator<DiskCacheSegment> segmentIterator = segments.values().iterator();
+        while (segmentIterator.hasNext()) {
+            DiskCacheSegment segment = segmentIterator.next();
+            if (segment.live <= 0) {
+                segmentIterator.remove();
+                segment.file.delete();
+            } else if (segment.id == nextId - 1 && segment.length < DiskCacheSegment.MAX_LENGTH) {
+                // keep appending to the last one
+                active = segment;
+            }
+        }
+    }
+
+    /**
+     * Return the segment which is mostly garbage, or null if there isn't one.
+     */
+    DiskCacheSegment getFragmented() {
+        for (DiskCacheSegment segment : segments.values()) {
+            if (segment != active && segment.isFragmented()) return segment;
+        }
+        return null;
+    }
+
+    boolean contains(final DiskCacheSegment segment) {
+        return segments.get(segment.id) == segment;
+    }
+
+    /**
+     * Forget the segment, its file is deleted by the caller.
+     */
+    void remove(final DiskCacheSegment segment) {
+        segments.remove(segment.id);
+    }
+
+    void delete(final DiskCacheSegment segment) {
+        segments.remove(segment.id);
+        segment.file.delete();
+    }
+
+    /**
+     * Delete all the segments, it must be called with append locked too.
+     */
+    void deleteAll() {
+        if (active != null) {
+            DiskCacheHelper.closeIO(active.channel);
+            active = null;
+        }
+        segments.clear();
+        File[] files = dir.listFiles();
+        if (files == null) return;
+        for (File file : files) {
+            file.delete();
+        }
+    }
+
+    void closeActive() {
+        if (active == null) return;
+        DiskCacheHelper.closeIO(active.channel);
+        active.channel = null;
+    }
+
+    /**
+     * Copy the records of entries at {@code from} in victim to the end of target one by one,
+     * their offsets in target are set into {@code to}. It is called without lock,
+     * the records are immutable.
+     *
+     * @return the length of records copied
+     */
+    static long copy(final DiskCacheSegment victim,
+                     final DiskCacheSegment target,
+                     final List<DiskCacheEntry> entries,
+                     final long[] from,
+                     final long[] to) throws IOException {
+        RandomAccessFile src = null;
+        RandomAccessFile dst = null;
+        try {
+            src = new RandomAccessFile(victim.file, "r");
+            dst = new RandomAccessFile(target.file, "rw");
+            FileChannel dstChannel = dst.getChannel();
+            long length = 0;
+            for (int i = 0; i < from.length; i++) {
+                final long size = entries.get(i).size;
+                to[i] = length;
+                long copied = 0;
+                while (copied < size) {
+                    long count = src.getChannel().transferTo(from[i] + copied, size - copied, dstChannel);
+                    if (count <= 0) throw new IOException("the segment is truncated");
+                    copied += count;
+                }
+                length += size;
+            }
+            dstChannel.force(false);
+            return length;
+        } finally {
+            DiskCacheHelper.closeIO(src);
+            DiskCacheHelper.closeIO(dst);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.blankj.utilcode.util;
+
+import java.io.File;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * <pre>
+ *     author: Blankj
+ *     blog  : http://blankj.com
+ *     time  : 2026/10/18
+ *     desc  : the managers of the shards of an instance
+ * </pre>
+ * <p>The keys are spread over the shards by hash, each shard is a sub directory with its own index
+ * which is opened when it is used first, or the cache directory itself if there is one shard.</p>
+ */
+final class DiskCacheShards {
+
+    private static final String SHARD_PREFIX = "shard_";
+
+    private final File                                   cacheDir;
+    private final int                                    count;
+    private final boolean                                segmentEnabled;
+    private final AtomicReferenceArray<DiskCacheManager> managers;
+    private       boolean                                released;// locked by managers
+
+    DiskCacheShards(final File cacheDir, final int count, final boolean segmentEnabled) {
+        this.cacheDir = cacheDir;
+        this.count = count;
+        this.segmentEnabled = segmentEnabled;
+        managers = new AtomicReferenceArray<>(count);
+    }
+
+    /**
+     * Return the manager of the shard which the key belongs to.
+     */
+    DiskCacheManager get(final String key) {
+        if (count == 1) return get(0);
+        return get((key.hashCode() & Integer.MAX_VALUE) % count);
+    }
+
+    /**
+     * Return the manager of shard, or null if it can't be opened or the shards are released.
+     */
+    DiskCacheManager get(final int shard) {
+        // the directory is checked by the writes and failed reads, not by each call
+        DiskCacheManager diskCacheManager = managers.get(shard);
+        if (diskCacheManager != null) return diskCacheManager;
+        synchronized (managers) {
+            if (released) return null;
+            diskCacheManager = managers.get(shard);
+            if (diskCacheManager != null) return diskCacheManager;
+            File dir = count == 1 ? cacheDir : new File(cacheDir, SHARD_PREFIX + shard);
+            diskCacheManager = DiskCacheManager.acquire(dir, segmentEnabled);
+            if (diskCacheManager == null) return null;
+            managers.set(shard, diskCacheManager);
+            return diskCacheManager;
+        }
+    }
+
+    /**
+     * Return the manager of shard if it is opened, or null otherwise.
+     */
+    DiskCacheManager getIfOpened(final int shard) {
+        return managers.get(shard);
+    }
+
+    /**
+     * Release the opened managers, the shards don't open any one after it.
+     */
+    void release() {
+        synchronized (managers) {
+            if (released) return;
+            released = true;
+            for (int i = 0; i < count; i++) {
+                DiskCacheManager diskCacheManager = managers.getAndSet(i, null);
+                if (diskCacheManager != null) DiskCacheManager.release(diskCacheManager);
+            }
+        }
+    }
+}
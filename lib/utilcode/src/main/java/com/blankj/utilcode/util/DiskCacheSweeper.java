@@ -0,0 +1,47 @@
+package com.blankj.utilcode.util;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <pre>
+ *     author: Blankj
+ *     blog  : http://blankj.com
+ *     time  : 2026/10/18
+ *     desc  : the low priority thread which removes the expired caches of all instances periodically
+ * </pre>
+ */
+final class DiskCacheSweeper {
+
+    private static final ScheduledExecutorService EXECUTOR =
+            Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(@NonNull Runnable r) {
+                    Thread thread = new Thread(r, "CacheDiskUtils-sweeper");
+                    thread.setDaemon(true);
+                    thread.setPriority(Thread.MIN_PRIORITY);
+                    return thread;
+                }
+            });
+
+    static ScheduledFuture<?> schedule(final CacheDiskUtils cacheDiskUtils, final long interval, final int batchSize) {
+        return EXECUTOR.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    cacheDiskUtils.sweepExpired(batchSize);
+                } catch (RuntimeException e) {
+                    // the task is cancelled if it throws
+                    Log.e("CacheDiskUtils", "sweep failed: " + cacheDiskUtils, e);
+                }
+            }
+        }, interval, interval, TimeUnit.MILLISECONDS);
+    }
+}
@@ -0,0 +1,226 @@
+package com.blankj.utilcode.util;
+
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <pre>
+ *     author: Blankj
+ *     blog  : http://blankj.com
+ *     time  : 2026/10/18
+ *     desc  : the pending writes of an instance in write-behind mode
+ * </pre>
+ * <p>The timer of coalescing is shared by all instances, but it only hands the writes to the IO pool,
+ * so a slow directory delays its own writes only.</p>
+ */
+final class DiskCacheWriteBehind {
+
+    private static final int  BATCH_SIZE = 32;
+    private static final long DELAY      = 50;// milliseconds to coalesce the writes
+
+    private static final ScheduledExecutorService TIMER =
+            Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+                @Override
+                public Thread newThread(@NonNull Runnable r) {
+                    Thread thread = new Thread(r, "CacheDiskUtils-writer");
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+
+    private final CacheDiskUtils                      cacheDiskUtils;
+    private final long                                maxBytes;
+    private final LinkedHashMap<String, PendingWrite> pending   = new LinkedHashMap<>();
+    private final Object                              drainLock = new Object();
+    private       long                                pendingBytes;
+    private       boolean                             scheduled;
+    private final Runnable                            drainTask = new Runnable() {
+        @Override
+        public void run() {
+            synchronized (pending) {
+                scheduled = false;
+            }
+            try {
+                drain();
+            } catch (RuntimeException e) {
+                Log.e("CacheDiskUtils", "write behind failed: " + cacheDiskUtils, e);
+            }
+        }
+    };
+    private final Runnable                            timerTask = new Runnable() {
+        @Override
+        public void run() {
+            UtilsBridge.getIoPool().execute(drainTask);
+        }
+    };
+
+    DiskCacheWriteBehind(final CacheDiskUtils cacheDiskUtils, final long maxBytes) {
+        this.cacheDiskUtils = cacheDiskUtils;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Queue the write of key, it waits if the pending ones are too large.
+     */
+    void put(final String key, final byte[] value, final long dueTime) {
+        PendingWrite pendingWrite = new PendingWrite(key, value, dueTime);
+        boolean interrupted = false;
+        synchronized (pending) {
+            PendingWrite old = pending.get(key);
+            long oldSize = old == null ? 0 : old.size;
+            // a single large one is still accepted when nothing else is pending
+            while (pendingBytes - oldSize > 0 && pendingBytes - oldSize + pendingWrite.size > maxBytes) {
+                schedule(0);
+                try {
+                    pending.wait();
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+                old = pending.get(key);
+                oldSize = old == null ? 0 : old.size;
+            }
+            pending.put(key, pendingWrite);
+            pendingBytes += pendingWrite.size - oldSize;
+            schedule(DELAY);
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+    }
+
+    PendingWrite get(final String key) {
+        synchronized (pending) {
+            return pending.get(key);
+        }
+    }
+
+    void flush() {
+        drain();
+    }
+
+    boolean awaitIdle(final long timeout) {
+        long deadline = System.currentTimeMillis() + timeout;
+        synchronized (pending) {
+            if (!pending.isEmpty()) schedule(0);
+            while (!pending.isEmpty()) {
+                long remain = deadline - System.currentTimeMillis();
+                if (remain <= 0) return false;
+                try {
+                    pending.wait(remain);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+
+    /**
+     * Drop the pending write of key and remove it from disk.
+     */
+    boolean remove(final String key) {
+        synchronized (drainLock) {
+            synchronized (pending) {
+                PendingWrite pendingWrite = pending.remove(key);
+                if (pendingWrite != null) {
+                    pendingBytes -= pendingWrite.size;
+                    pending.notifyAll();
+                }
+            }
+            return cacheDiskUtils.removeBytes(key);
+        }
+    }
+
+    boolean removeByPrefix(final String[] prefixes) {
+        synchronized (drainLock) {
+            synchronized (pending) {
+                Iterator<PendingWrite> iterator = pending.values().iterator();
+                while (iterator.hasNext()) {
+                    PendingWrite pendingWrite = iterator.next();
+                    if (!DiskCacheManager.startsWith(pendingWrite.key, prefixes)) continue;
+                    iterator.remove();
+                    pendingBytes -= pendingWrite.size;
+                }
+                pending.notifyAll();
+            }
+            return cacheDiskUtils.removeBytesByPrefix(prefixes);
+        }
+    }
+
+    boolean clear() {
+        synchronized (drainLock) {
+            synchronized (pending) {
+                pending.clear();
+                pendingBytes = 0;
+                pending.notifyAll();
+            }
+            return cacheDiskUtils.clearBytes();
+        }
+    }
+
+    private void schedule(final long delay) {
+        if (scheduled && delay > 0) return;
+        scheduled = true;
+        TIMER.schedule(timerTask, delay, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Write the pending ones in batches, they are removed from pending after written
+     * unless they are replaced meanwhile, so the reads always see them.
+     */
+    private void drain() {
+        synchronized (drainLock) {
+            List<PendingWrite> batch = new ArrayList<>(BATCH_SIZE);
+            while (true) {
+                synchronized (pending) {
+                    if (pending.isEmpty()) return;
+                    Iterator<PendingWrite> it = pending.values().iterator();
+                    while (it.hasNext() && batch.size() < BATCH_SIZE) {
+                        batch.add(it.next());
+                    }
+                }
+                for (PendingWrite pendingWrite : batch) {
+                    if (!pendingWrite.isDue()) {
+                        cacheDiskUtils.writeBytes(pendingWrite.key, pendingWrite.value, pendingWrite.dueTime);
+                    }
+                }
+                synchronized (pending) {
+                    for (PendingWrite pendingWrite : batch) {
+                        if (pending.get(pendingWrite.key) != pendingWrite) continue;
+                        pending.remove(pendingWrite.key);
+                        pendingBytes -= pendingWrite.size;
+                    }
+                    pending.notifyAll();
+                }
+                batch.clear();
+            }
+        }
+    }
+
+    static final class PendingWrite {
+        final String key;
+        final byte[] value;
+        final long   dueTime;
+        final long   size;
+
+        PendingWrite(final String key, final byte[] value, final long dueTime) {
+            this.key = key;
+            this.value = value;
+            this.dueTime = dueTime;
+            this.size = key.getBytes(DiskCacheHelper.UTF_8).length + value.length;
+        }
+
+        boolean isDue() {
+            return dueTime != -1 && System.currentTimeMillis() > dueTime;
+        }
+    }
+}
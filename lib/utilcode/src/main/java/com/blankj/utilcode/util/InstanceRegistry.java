@@ -0,0 +1,60 @@
+package com.blankj.utilcode.util;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <pre>
+ *     author: Blankj
+ *     blog  : http://blankj.com
+ *     time  : 2026/10/18
+ *     desc  : the registry of single instances by key
+ * </pre>
+ */
+final class InstanceRegistry<T> {
+
+    private final ConcurrentHashMap<String, Holder<T>> mHolders = new ConcurrentHashMap<>();
+
+    /**
+     * Return the instance of key without lock, or null if it isn't created.
+     */
+    T get(final String key) {
+        Holder<T> holder = mHolders.get(key);
+        return holder == null ? null : holder.instance;
+    }
+
+    /**
+     * Return the instance of key, or create it by the creator if it isn't created.
+     * <p>It is created once for each key, and the creating of one key doesn't block the others.
+     * It is created again by the next call if the creator throws.</p>
+     */
+    T getOrCreate(final String key, final Utils.Supplier<T> creator) {
+        Holder<T> holder = mHolders.get(key);
+        if (holder == null) {
+            Holder<T> newHolder = new Holder<>();
+            holder = mHolders.putIfAbsent(key, newHolder);
+            if (holder == null) holder = newHolder;
+        }
+        return holder.get(creator);
+    }
+
+    /**
+     * Remove the instance of key if it is the given one, then the next call creates a new one.
+     */
+    void remove(final String key, final T instance) {
+        Holder<T> holder = mHolders.get(key);
+        if (holder != null && holder.instance == instance) mHolders.remove(key, holder);
+    }
+
+    private static final class Holder<T> {
+        private volatile T instance;
+
+        T get(final Utils.Supplier<T> creator) {
+            T result = instance;
+            if (result != null) return result;
+            synchronized (this) {
+                if (instance == null) instance = creator.get();
+                return instance;
+            }
+        }
+    }
+}
@@ -6,7 +6,6 @@ import android.content.SharedPreferences;
 import androidx.annotation.NonNull;
 
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
@@ -21,7 +20,7 @@ import java.util.Set;
 @SuppressLint("ApplySharedPref")
 public final class SPUtils {
 
-    private static final Map<String, SPUtils> SP_UTILS_MAP = new HashMap<>();
+    private static final InstanceRegistry<SPUtils> SP_UTILS_MAP = new InstanceRegistry<>();
 
     private SharedPreferences sp;
 
@@ -62,18 +61,15 @@ public final class SPUtils {
      * @return the single {@link SPUtils} instance
      */
     public static SPUtils getInstance(String spName, final int mode) {
-        if (isSpace(spName)) spName = "spUtils";
-        SPUtils spUtils = SP_UTILS_MAP.get(spName);
-        if (spUtils == null) {
-            synchronized (SPUtils.class) {
-                spUtils = SP_UTILS_MAP.get(spName);
-                if (spUtils == null) {
-                    spUtils = new SPUtils(spName, mode);
-                    SP_UTILS_MAP.put(spName, spUtils);
-                }
+        final String realName = isSpace(spName) ? "spUtils" : spName;
+        SPUtils spUtils = SP_UTILS_MAP.get(realName);
+        if (spUtils != null) return spUtils;
+        return SP_UTILS_MAP.getOrCreate(realName, new Utils.Supplier<SPUtils>() {
+            @Override
+            public SPUtils get() {
+                return new SPUtils(realName, mode);
             }
-        }
-        return spUtils;
+        });
     }
 
     private SPUtils(final String spName) {
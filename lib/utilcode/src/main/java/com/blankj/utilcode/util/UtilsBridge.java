@@ -20,6 +20,7 @@ import java.io.InputStream;
 import java.io.Serializable;
 import java.lang.reflect.Type;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.RequiresPermission;
@@ -38,6 +39,7 @@ class UtilsBridge {
 
     static void init() {
         UtilsActivityLifecycleImpl.INSTANCE.init();
+        CacheTrimCoordinator.INSTANCE.init();
         preLoad(AdaptScreenUtils.getPreLoadRunnable());
     }
 
@@ -479,6 +481,14 @@ class UtilsBridge {
         return task;
     }
 
+    static ExecutorService getIoPool() {
+        return ThreadUtils.getIoPool();
+    }
+
+    static <T> void executeByCustom(final ExecutorService pool, final ThreadUtils.Task<T> task) {
+        ThreadUtils.executeByCustom(pool, task);
+    }
+
     static void runOnUiThread(final Runnable runnable) {
         ThreadUtils.runOnUiThread(runnable);
     }
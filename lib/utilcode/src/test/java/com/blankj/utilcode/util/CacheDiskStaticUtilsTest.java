@@ -193,9 +193,9 @@ public class CacheDiskStaticUtilsTest extends BaseTest {
 
     @Test
     public void getCacheSize() {
-        assertEquals(FileUtils.getLength(DISK1_FILE), CacheDiskStaticUtils.getCacheSize(CACHE_DISK_UTILS1));
+        assertEquals(CacheDiskUtilsTest.getCacheFilesLength(DISK1_FILE), CacheDiskStaticUtils.getCacheSize(CACHE_DISK_UTILS1));
 
-        assertEquals(FileUtils.getLength(DISK2_FILE), CacheDiskStaticUtils.getCacheSize(CACHE_DISK_UTILS2));
+        assertEquals(CacheDiskUtilsTest.getCacheFilesLength(DISK2_FILE), CacheDiskStaticUtils.getCacheSize(CACHE_DISK_UTILS2));
     }
 
     @Test
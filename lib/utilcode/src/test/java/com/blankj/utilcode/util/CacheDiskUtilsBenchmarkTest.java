@@ -0,0 +1,186 @@
+package com.blankj.utilcode.util;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.After;
+
+import java.io.File;
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+import static com.blankj.utilcode.util.TestConfig.FILE_SEP;
+import static com.blankj.utilcode.util.TestConfig.PATH_CACHE;
+
+/**
+ * <pre>
+ *     author: Blankj
+ *     blog  : http://blankj.com
+ *     time  : 2026/10/18
+ *     desc  : benchmark of CacheDiskUtils
+ * </pre>
+ */
+public class CacheDiskUtilsBenchmarkTest extends BaseTest {
+
+    private static final String BENCHMARK_PATH = PATH_CACHE + "benchmark" + FILE_SEP;
+    private static final byte[] VALUE          = new byte[256];
+
+    /**
+     * Put into full caches of 1000, 5000, 10000 and 20000 entries,
+     * every put evicts one entry, the cost of put should stay flat.
+     */
+//    @Test
+    public void putLatencyWithEntryCount() {
+        final int[] entryCounts = {1000, 5000, 10000, 20000};
+        final int times = 1000;
+        StringBuilder sb = new StringBuilder("Put " + times + " times into full cache.");
+        for (int entryCount : entryCounts) {
+            File dir = new File(BENCHMARK_PATH + entryCount);
+            CacheDiskUtils cache = CacheDiskUtils.getInstance(dir, Long.MAX_VALUE, entryCount);
+            for (int i = 0; i < entryCount; i++) {
+                cache.put("fill" + i, VALUE);
+            }
+            long cur = System.nanoTime();
+            for (int i = 0; i < times; i++) {
+                cache.put("put" + i, VALUE);
+            }
+            long cost = System.nanoTime() - cur;
+            sb.append("\nentryCount: ").append(entryCount)
+                    .append(", average put cost: ").append(cost / times / 1000).append("us");
+            cache.clear();
+        }
+        System.out.println(sb.toString());
+    }
+
+    /**
+     * Put from 2 * CPU + 1 threads into an unsharded cache and a cache of 8 shards.
+     */
+//    @Test
+    public void concurrentPutThroughput() throws Exception {
+        final int threadCount = 2 * Runtime.getRuntime().availableProcessors() + 1;
+        final int times = 2000;
+        CacheDiskUtils unsharded = CacheDiskUtils.getInstance(
+                new File(BENCHMARK_PATH + "unsharded"), Long.MAX_VALUE, 10000
+        );
+        CacheDiskUtils sharded = CacheDiskUtils.getInstance(
+                new File(BENCHMARK_PATH + "sharded"), Long.MAX_VALUE, 10000,
+                new CacheDiskUtils.Config().setShardCount(8)
+        );
+        long unshardedCost = concurrentPut(unsharded, threadCount, times);
+        long shardedCost = concurrentPut(sharded, threadCount, times);
+        long total = (long) threadCount * times;
+        System.out.println(
+                "Put " + total + " times from " + threadCount + " threads." +
+                "\nUnshardedPutsPerSecond: " + total * 1000000000L / unshardedCost +
+                "\nShardedPutsPerSecond: " + total * 1000000000L / shardedCost
+        );
+        unsharded.clear();
+        sharded.clear();
+    }
+
+    private long concurrentPut(final CacheDiskUtils cache, final int threadCount, final int times)
+            throws InterruptedException {
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final CountDownLatch doneLatch = new CountDownLatch(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            final String prefix = "thread" + t + "_";
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        startLatch.await();
+                        for (int i = 0; i < times; i++) {
+                            cache.put(prefix + i, VALUE);
+                        }
+                    } catch (InterruptedException e) {
+                        e.printStackTrace();
+                    } finally {
+                        doneLatch.countDown();
+                    }
+                }
+            }).start();
+        }
+        long cur = System.nanoTime();
+        startLatch.countDown();
+        doneLatch.await();
+        return System.nanoTime() - cur;
+    }
+
+    /**
+     * Put and get the built-in types with and without {@link CacheDiskUtils#DEFLATE},
+     * report the throughput and the compression ratio.
+     */
+//    @Test
+    public void compressionThroughputAndRatio() throws JSONException {
+        final int times = 500;
+        JSONObject jsonObject = new JSONObject();
+        ArrayList<String> list = new ArrayList<>();
+        StringBuilder string = new StringBuilder();
+        for (int i = 0; i < 64; i++) {
+            jsonObject.put("key" + i, "value of the cache entry " + i);
+            list.add("item of the serializable " + i);
+            string.append("string of the cache entry ").append(i);
+        }
+        byte[] bytes = new byte[4096];
+        new Random(0).nextBytes(bytes);
+
+        CacheDiskUtils raw = CacheDiskUtils.getInstance(
+                new File(BENCHMARK_PATH + "raw"), Long.MAX_VALUE, Integer.MAX_VALUE
+        );
+        CacheDiskUtils deflate = CacheDiskUtils.getInstance(
+                new File(BENCHMARK_PATH + "deflate"), Long.MAX_VALUE, Integer.MAX_VALUE,
+                new CacheDiskUtils.Config().setCodec(CacheDiskUtils.DEFLATE)
+        );
+        StringBuilder sb = new StringBuilder("Put and get " + times + " times.");
+        Object[] values = {string.toString(), jsonObject, list, bytes};
+        String[] names = {"String", "JSONObject", "Serializable", "byte[]"};
+        for (int i = 0; i < values.length; i++) {
+            long[] rawCost = putAndGet(raw, values[i], times);
+            long[] deflateCost = putAndGet(deflate, values[i], times);
+            sb.append("\n").append(names[i])
+                    .append(": raw put ").append(rawCost[0] / times / 1000).append("us")
+                    .append(", get ").append(rawCost[1] / times / 1000).append("us")
+                    .append(" | deflate put ").append(deflateCost[0] / times / 1000).append("us")
+                    .append(", get ").append(deflateCost[1] / times / 1000).append("us")
+                    .append(", ratio ").append(deflate.getCacheSize() * 100 / raw.getCacheSize()).append("%");
+            raw.clear();
+            deflate.clear();
+        }
+        System.out.println(sb.toString());
+    }
+
+    private long[] putAndGet(final CacheDiskUtils cache, final Object value, final int times) {
+        long cur = System.nanoTime();
+        for (int i = 0; i < times; i++) {
+            if (value instanceof String) {
+                cache.put("key" + i, (String) value);
+            } else if (value instanceof JSONObject) {
+                cache.put("key" + i, (JSONObject) value);
+            } else if (value instanceof byte[]) {
+                cache.put("key" + i, (byte[]) value);
+            } else {
+                cache.put("key" + i, (Serializable) value);
+            }
+        }
+        long putCost = System.nanoTime() - cur;
+        cur = System.nanoTime();
+        for (int i = 0; i < times; i++) {
+            if (value instanceof String) {
+                cache.getString("key" + i);
+            } else if (value instanceof JSONObject) {
+                cache.getJSONObject("key" + i);
+            } else if (value instanceof byte[]) {
+                cache.getBytes("key" + i);
+            } else {
+                cache.getSerializable("key" + i);
+            }
+        }
+        return new long[]{putCost, System.nanoTime() - cur};
+    }
+
+    @After
+    public void tearDown() {
+        UtilsBridge.deleteAllInDir(new File(BENCHMARK_PATH));
+    }
+}
@@ -14,13 +14,25 @@ import org.junit.Before;
 import org.junit.Test;
 
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
 import java.io.Serializable;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
 
 import static com.blankj.utilcode.util.TestConfig.FILE_SEP;
 import static com.blankj.utilcode.util.TestConfig.PATH_CACHE;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
@@ -193,13 +205,91 @@ public class CacheDiskUtilsTest extends BaseTest {
         assertNull(CACHE_DISK_UTILS2.getSerializable("parcelable1", null));
     }
 
+    @Test
+    public void stream() throws IOException {
+        OutputStream os = CACHE_DISK_UTILS1.openOutputStream("stream1", 60 * CacheDiskUtils.SEC);
+        assertNotNull(os);
+        os.write(BYTES);
+        os.close();
+        assertArrayEquals(BYTES, CACHE_DISK_UTILS1.getBytes("stream1"));
+
+        InputStream is = CACHE_DISK_UTILS1.openInputStream("stream1");
+        assertNotNull(is);
+        assertArrayEquals(BYTES, ConvertUtils.inputStream2Bytes(is));
+        is.close();
+
+        CACHE_DISK_UTILS1.put("stream2", BYTES);
+        is = CACHE_DISK_UTILS1.openInputStream("stream2");
+        assertNotNull(is);
+        assertArrayEquals(BYTES, ConvertUtils.inputStream2Bytes(is));
+        is.close();
+
+        assertNull(CACHE_DISK_UTILS1.openInputStream("stream3"));
+        assertNull(CACHE_DISK_UTILS2.openInputStream("stream1"));
+    }
+
+    @Test
+    public void getLegacyEntry() {
+        // the legacy files exist before the cache is opened
+        File dir = new File(PATH_CACHE + "legacy" + FILE_SEP);
+        long dueSeconds = System.currentTimeMillis() / 1000 + 60;
+        long dueSecondsPast = System.currentTimeMillis() / 1000 - 60;
+        FileIOUtils.writeFileFromString(
+                new File(dir, "cdu_st_" + "legacyWithTime".hashCode()), "_$" + dueSeconds + "$_" + STRING
+        );
+        FileIOUtils.writeFileFromString(
+                new File(dir, "cdu_st_" + "legacy".hashCode()), STRING
+        );
+        FileIOUtils.writeFileFromString(
+                new File(dir, "cdu_st_" + "legacyDue".hashCode()), "_$" + dueSecondsPast + "$_" + STRING
+        );
+        CacheDiskUtils legacy = CacheDiskUtils.getInstance(dir);
+        assertEquals(STRING, legacy.getString("legacyWithTime"));
+        assertEquals(STRING, legacy.getString("legacy"));
+        // read again after they are migrated
+        assertEquals(STRING, legacy.getString("legacyWithTime"));
+        assertEquals(STRING, legacy.getString("legacy"));
+        assertFalse(new File(dir, "cdu_st_" + "legacy".hashCode()).exists());
+
+        assertNull(legacy.getString("legacyDue"));
+        assertEquals(2, legacy.getCacheCount());
+        legacy.clear();
+    }
+
+    @Test
+    public void hashCollision() {
+        // "Aa" and "BB" have the same hashCode
+        CACHE_DISK_UTILS1.put("Aa", "Aa");
+        CACHE_DISK_UTILS1.put("BB", "BB");
+        assertEquals("Aa", CACHE_DISK_UTILS1.getString("Aa"));
+        assertEquals("BB", CACHE_DISK_UTILS1.getString("BB"));
+        assertTrue(CACHE_DISK_UTILS1.remove("Aa"));
+        assertNull(CACHE_DISK_UTILS1.getString("Aa"));
+        assertEquals("BB", CACHE_DISK_UTILS1.getString("BB"));
+    }
+
     @Test
     public void getCacheSize() {
-        System.out.println(FileUtils.getLength(DISK1_FILE));
-        assertEquals(FileUtils.getLength(DISK1_FILE), CACHE_DISK_UTILS1.getCacheSize());
+        System.out.println(getCacheFilesLength(DISK1_FILE));
+        assertEquals(getCacheFilesLength(DISK1_FILE), CACHE_DISK_UTILS1.getCacheSize());
 
-        System.out.println(FileUtils.getLength(DISK2_FILE));
-        assertEquals(FileUtils.getLength(DISK2_FILE), CACHE_DISK_UTILS2.getCacheSize());
+        System.out.println(getCacheFilesLength(DISK2_FILE));
+        assertEquals(getCacheFilesLength(DISK2_FILE), CACHE_DISK_UTILS2.getCacheSize());
+    }
+
+    /**
+     * Return the length of cache files in dir, the journal of cache is excluded.
+     */
+    static long getCacheFilesLength(final File dir) {
+        long len = 0;
+        File[] files = dir.listFiles();
+        if (files == null) return len;
+        for (File file : files) {
+            if (file.getName().startsWith("cdu_")) {
+                len += file.length();
+            }
+        }
+        return len;
     }
 
     @Test
@@ -209,6 +299,446 @@ public class CacheDiskUtilsTest extends BaseTest {
         assertEquals(8, CACHE_DISK_UTILS2.getCacheCount());
     }
 
+    @Test
+    public void replayJournal() {
+        File dir = new File(PATH_CACHE + "replayJournal" + FILE_SEP);
+        CacheDiskUtils cache = CacheDiskUtils.getInstance(dir);
+        cache.put("bytes", BYTES);
+        cache.put("string", STRING);
+        long size = cache.getCacheSize();
+        cache.release();
+        assertNull(cache.getString("string"));
+
+        CacheDiskUtils reopened = CacheDiskUtils.getInstance(dir);
+        assertNotSame(cache, reopened);
+        assertEquals(2, reopened.getCacheCount());
+        assertEquals(size, reopened.getCacheSize());
+        assertEquals(STRING, reopened.getString("string"));
+        assertTrue(reopened.clear());
+    }
+
+    @Test
+    public void replayUnknownFile() {
+        File dir = new File(PATH_CACHE + "replayUnknownFile" + FILE_SEP);
+        File otherDir = new File(PATH_CACHE + "replayUnknownFileOther" + FILE_SEP);
+        CacheDiskUtils cache = CacheDiskUtils.getInstance(dir);
+        cache.put("string", STRING);
+        cache.release();
+        CacheDiskUtils other = CacheDiskUtils.getInstance(otherDir);
+        other.put("unknown", STRING);
+        other.release();
+
+        // a file renamed into place whose journal line was never written
+        File[] files = otherDir.listFiles();
+        assertNotNull(files);
+        for (File file : files) {
+            if (!file.getName().startsWith("cdu_")) continue;
+            assertTrue(FileUtils.copy(file, new File(dir, file.getName())));
+        }
+
+        CacheDiskUtils reopened = CacheDiskUtils.getInstance(dir);
+        assertEquals(2, reopened.getCacheCount());
+        assertEquals(STRING, reopened.getString("unknown"));
+        assertTrue(reopened.clear());
+        assertTrue(FileUtils.delete(otherDir));
+    }
+
+    @Test
+    public void shareDirectory() {
+        File dir = new File(PATH_CACHE + "shareDirectory" + FILE_SEP);
+        CacheDiskUtils unlimited = CacheDiskUtils.getInstance(dir);
+        CacheDiskUtils limited = CacheDiskUtils.getInstance(dir, Long.MAX_VALUE, 2);
+        for (int i = 0; i < 3; i++) {
+            unlimited.put("string" + i, STRING);
+        }
+        assertEquals(3, limited.getCacheCount());
+        // each instance evicts by its own limits
+        limited.put("string3", STRING);
+        assertEquals(2, unlimited.getCacheCount());
+        assertEquals(2, limited.getStats().getEvictionCount());
+        assertEquals(0, unlimited.getStats().getEvictionCount());
+        assertNull(unlimited.getString("string0"));
+
+        // the directory is still opened by the other one
+        unlimited.release();
+        limited.put("string4", STRING);
+        assertEquals(STRING, limited.getString("string4"));
+        limited.release();
+        CacheDiskUtils reopened = CacheDiskUtils.getInstance(dir);
+        assertEquals(2, reopened.getCacheCount());
+        assertEquals(STRING, reopened.getString("string4"));
+        assertTrue(reopened.clear());
+    }
+
+    @Test
+    public void sharded() {
+        CacheDiskUtils sharded = CacheDiskUtils.getInstance(
+                new File(PATH_CACHE + "sharded" + FILE_SEP), Long.MAX_VALUE, Integer.MAX_VALUE,
+                new CacheDiskUtils.Config().setShardCount(4)
+        );
+        for (int i = 0; i < 8; i++) {
+            sharded.put("string" + i, STRING);
+        }
+        for (int i = 0; i < 8; i++) {
+            assertEquals(STRING, sharded.getString("string" + i));
+        }
+        assertEquals(8, sharded.getCacheCount());
+        assertTrue(sharded.remove("string0"));
+        assertNull(sharded.getString("string0"));
+        assertTrue(sharded.clear());
+        assertEquals(0, sharded.getCacheCount());
+        assertEquals(0, sharded.getCacheSize());
+    }
+
+    @Test
+    public void checksum() throws IOException {
+        File dir = new File(PATH_CACHE + "checksum" + FILE_SEP);
+        File tempDir = new File(dir, "tmp");
+        assertTrue(tempDir.mkdirs() || tempDir.exists());
+        assertTrue(new File(tempDir, "cdu_by_orphan.1").createNewFile());
+
+        CacheDiskUtils checksum = CacheDiskUtils.getInstance(
+                dir, Long.MAX_VALUE, Integer.MAX_VALUE,
+                new CacheDiskUtils.Config().setChecksumEnabled(true)
+        );
+        checksum.put("bytes", BYTES);
+        assertArrayEquals(BYTES, checksum.getBytes("bytes"));
+        String[] tempFiles = tempDir.list();
+        assertTrue(tempFiles == null || tempFiles.length == 0);
+
+        File[] files = dir.listFiles();
+        assertNotNull(files);
+        for (File file : files) {
+            if (!file.getName().startsWith("cdu_")) continue;
+            RandomAccessFile raf = new RandomAccessFile(file, "rw");
+            raf.seek(raf.length() - 1);
+            raf.write('#');
+            raf.close();
+        }
+        assertNull(checksum.getBytes("bytes"));
+        assertEquals(0, checksum.getCacheCount());
+
+        OutputStream os = checksum.openOutputStream("stream");
+        os.write(BYTES);
+        assertNull(checksum.getBytes("stream"));
+        os.close();
+        assertArrayEquals(BYTES, checksum.getBytes("stream"));
+        checksum.clear();
+    }
+
+    @Test
+    public void sweepExpired() throws InterruptedException {
+        CacheDiskUtils sweep = CacheDiskUtils.getInstance(
+                new File(PATH_CACHE + "sweep" + FILE_SEP), Long.MAX_VALUE, Integer.MAX_VALUE,
+                new CacheDiskUtils.Config().setSweepInterval(0)
+        );
+        sweep.put("expired0", STRING, 1);
+        sweep.put("expired1", STRING, 1);
+        sweep.put("live", STRING);
+        Thread.sleep(1100);
+        assertEquals(3, sweep.getCacheCount());
+        assertEquals(2, sweep.sweepExpired());
+        assertEquals(1, sweep.getCacheCount());
+        assertEquals(2, sweep.getReclaimedCount());
+        assertTrue(sweep.getReclaimedSize() > 0);
+        assertEquals(STRING, sweep.getString("live"));
+        sweep.clear();
+    }
+
+    @Test
+    public void sweepRebuiltIndex() throws InterruptedException {
+        File dir = new File(PATH_CACHE + "sweepRebuiltIndex" + FILE_SEP);
+        CacheDiskUtils cache = CacheDiskUtils.getInstance(dir);
+        cache.put("expired", STRING, 1);
+        cache.put("live", STRING);
+        cache.release();
+        // the index is rebuilt from the headers of files without the journal
+        assertTrue(new File(dir, "journal").delete());
+        Thread.sleep(1100);
+        CacheDiskUtils rebuilt = CacheDiskUtils.getInstance(dir);
+        assertEquals(2, rebuilt.getCacheCount());
+        assertEquals(1, rebuilt.sweepExpired());
+        assertEquals(STRING, rebuilt.getString("live"));
+        assertTrue(rebuilt.clear());
+    }
+
+    @Test
+    public void segment() {
+        File dir = new File(PATH_CACHE + "segment" + FILE_SEP);
+        CacheDiskUtils segment = CacheDiskUtils.getInstance(
+                dir, Long.MAX_VALUE, Integer.MAX_VALUE,
+                new CacheDiskUtils.Config().setSegmentThreshold(64)
+        );
+        // the values written before the index is loaded are in their own files
+        assertEquals(0, segment.getCacheCount());
+        for (int i = 0; i < 100; i++) {
+            segment.put("string" + i, STRING);
+        }
+        byte[] large = new byte[1024];
+        segment.put("large", large);
+        // only the large one has its own file
+        File[] files = dir.listFiles();
+        assertNotNull(files);
+        int count = 0;
+        for (File file : files) {
+            if (file.getName().startsWith("cdu_")) count++;
+        }
+        assertEquals(1, count);
+        assertEquals(101, segment.getCacheCount());
+        for (int i = 0; i < 100; i++) {
+            assertEquals(STRING, segment.getString("string" + i));
+        }
+        assertArrayEquals(large, segment.getBytes("large"));
+
+        // move the value between segment and file
+        segment.put("large", BYTES);
+        assertArrayEquals(BYTES, segment.getBytes("large"));
+        segment.put("string0", large);
+        assertArrayEquals(large, segment.getBytes("string0"));
+
+        assertTrue(segment.remove("string1"));
+        assertNull(segment.getString("string1"));
+        assertEquals(100, segment.getCacheCount());
+        assertTrue(segment.clear());
+        assertEquals(0, segment.getCacheCount());
+        assertEquals(0, segment.getCacheSize());
+        assertNull(segment.getString("string2"));
+    }
+
+    @Test(timeout = 10000)
+    public void getSegmentBeforeLoaded() {
+        File dir = new File(PATH_CACHE + "getSegmentBeforeLoaded" + FILE_SEP);
+        CacheDiskUtils.Config config = new CacheDiskUtils.Config().setSegmentThreshold(64);
+        CacheDiskUtils cache = CacheDiskUtils.getInstance(dir, Long.MAX_VALUE, Integer.MAX_VALUE, config);
+        assertEquals(0, cache.getCacheCount());
+        cache.put("string0", STRING);
+        cache.put("string1", STRING);
+        cache.release();
+
+        CountDownLatch loadLatch = new CountDownLatch(1);
+        DiskCacheManager.sLoadLatch = loadLatch;
+        CacheDiskUtils reopened;
+        try {
+            reopened = CacheDiskUtils.getInstance(dir, Long.MAX_VALUE, Integer.MAX_VALUE, config);
+            // the value in segment is missed instead of waiting for the index
+            assertNull(reopened.getString("string0"));
+            reopened.put("string1", "string1");
+            assertEquals("string1", reopened.getString("string1"));
+        } finally {
+            DiskCacheManager.sLoadLatch = null;
+            loadLatch.countDown();
+        }
+        assertEquals(2, reopened.getCacheCount());
+        assertEquals(STRING, reopened.getString("string0"));
+        assertEquals("string1", reopened.getString("string1"));
+        assertTrue(reopened.clear());
+    }
+
+    @Test
+    public void compression() throws IOException {
+        File dir = new File(PATH_CACHE + "compression" + FILE_SEP);
+        CacheDiskUtils compression = CacheDiskUtils.getInstance(
+                dir, Long.MAX_VALUE, Integer.MAX_VALUE,
+                new CacheDiskUtils.Config().setCodec(CacheDiskUtils.DEFLATE).setChecksumEnabled(true)
+        );
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            sb.append(JSON_OBJECT.toString());
+        }
+        String json = sb.toString();
+        compression.put("json", json);
+        assertTrue(compression.getCacheSize() < json.length() / 2);
+        assertEquals(json, compression.getString("json"));
+
+        // tiny values stay raw
+        compression.put("bytes", BYTES);
+        assertArrayEquals(BYTES, compression.getBytes("bytes"));
+
+        InputStream is = compression.openInputStream("json");
+        assertNotNull(is);
+        assertEquals(json, ConvertUtils.inputStream2String(is, "UTF-8"));
+
+        // an instance without codec still reads compressed entries
+        compression.release();
+        CacheDiskUtils plain = CacheDiskUtils.getInstance(dir);
+        assertEquals(json, plain.getString("json"));
+        assertTrue(plain.clear());
+    }
+
+    @Test
+    public void getByteBuffer() {
+        CacheDiskUtils mmap = CacheDiskUtils.getInstance(
+                new File(PATH_CACHE + "mmap" + FILE_SEP), Long.MAX_VALUE, Integer.MAX_VALUE,
+                new CacheDiskUtils.Config().setMmapThreshold(1024).setChecksumEnabled(true)
+        );
+        byte[] large = new byte[64 * 1024];
+        for (int i = 0; i < large.length; i++) {
+            large[i] = (byte) i;
+        }
+        mmap.put("large", large);
+        mmap.put("bytes", BYTES);
+        ByteBuffer buffer = mmap.getByteBuffer("large");
+        assertNotNull(buffer);
+        assertTrue(buffer.isReadOnly());
+        byte[] data = new byte[buffer.remaining()];
+        buffer.get(data);
+        assertArrayEquals(large, data);
+        assertArrayEquals(large, mmap.getBytes("large"));
+
+        buffer = mmap.getByteBuffer("bytes");
+        assertNotNull(buffer);
+        assertTrue(buffer.isReadOnly());
+        assertEquals(BYTES.length, buffer.remaining());
+        assertNull(mmap.getByteBuffer("missing"));
+        assertTrue(mmap.clear());
+    }
+
+    @Test
+    public void writeBehind() {
+        CacheDiskUtils writeBehind = CacheDiskUtils.getInstance(
+                new File(PATH_CACHE + "writeBehind" + FILE_SEP), Long.MAX_VALUE, Integer.MAX_VALUE,
+                new CacheDiskUtils.Config().setWriteBehindEnabled(true)
+        );
+        for (int i = 0; i < 100; i++) {
+            writeBehind.put("string", STRING + i);
+        }
+        // the pending one is read
+        assertEquals(STRING + 99, writeBehind.getString("string"));
+        writeBehind.put("bytes", BYTES);
+        assertTrue(writeBehind.remove("bytes"));
+        assertNull(writeBehind.getBytes("bytes"));
+
+        writeBehind.flush();
+        assertEquals(1, writeBehind.getCacheCount());
+        assertEquals(STRING + 99, writeBehind.getString("string"));
+
+        writeBehind.put("serializable", SERIALIZABLE_TEST);
+        assertTrue(writeBehind.awaitIdle(10000));
+        assertEquals(2, writeBehind.getCacheCount());
+        assertEquals(SERIALIZABLE_TEST, writeBehind.getSerializable("serializable"));
+        // the written one is removed from disk at once
+        assertTrue(writeBehind.remove("string"));
+        assertEquals(1, writeBehind.getCacheCount());
+        assertTrue(writeBehind.clear());
+        assertEquals(0, writeBehind.getCacheCount());
+    }
+
+    @Test
+    public void bulk() {
+        File dir = new File(PATH_CACHE + "bulk" + FILE_SEP);
+        CacheDiskUtils bulk = CacheDiskUtils.getInstance(
+                dir, Long.MAX_VALUE, Integer.MAX_VALUE,
+                new CacheDiskUtils.Config().setShardCount(4).setSegmentThreshold(64)
+        );
+        Map<String, byte[]> values = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            values.put("feed_" + i, (i % 2 == 0 ? STRING + i : String.valueOf(i)).getBytes());
+        }
+        bulk.putAll(values);
+        bulk.put("other", STRING);
+        assertEquals(101, bulk.getCacheCount());
+
+        List<String> keys = new ArrayList<>(values.keySet());
+        keys.add("missing");
+        Map<String, byte[]> all = bulk.getAll(keys);
+        assertEquals(100, all.size());
+        for (Map.Entry<String, byte[]> entry : values.entrySet()) {
+            assertArrayEquals(entry.getValue(), all.get(entry.getKey()));
+        }
+
+        // the keys of the prefix are known from the journal after reopening
+        bulk.release();
+        CacheDiskUtils reopened = CacheDiskUtils.getInstance(
+                dir, Long.MAX_VALUE, Integer.MAX_VALUE,
+                new CacheDiskUtils.Config().setShardCount(4).setSegmentThreshold(64)
+        );
+        assertTrue(reopened.removeByPrefix("feed_"));
+        assertEquals(1, reopened.getCacheCount());
+        assertTrue(reopened.getAll(keys).isEmpty());
+        assertEquals(STRING, reopened.getString("other"));
+        assertTrue(reopened.clear());
+    }
+
+    @Test
+    public void putBeforeLoaded() {
+        File dir = new File(PATH_CACHE + "putBeforeLoaded" + FILE_SEP);
+        CacheDiskUtils cache = CacheDiskUtils.getInstance(dir, Long.MAX_VALUE, Integer.MAX_VALUE);
+        for (int i = 0; i < 1000; i++) {
+            cache.put("string" + i, STRING + i);
+        }
+        // the index is loaded in background while these are done, the eviction waits for it
+        cache.release();
+        CacheDiskUtils reopened = CacheDiskUtils.getInstance(dir, Long.MAX_VALUE, 1000);
+        reopened.put("new", STRING);
+        reopened.remove("string1");
+        assertEquals(STRING + 2, reopened.getString("string2"));
+        assertEquals(STRING, reopened.getString("new"));
+        // the new one evicts the eldest, then one is removed
+        assertEquals(999, reopened.getCacheCount());
+        assertNull(reopened.getString("string0"));
+        reopened.put("new2", STRING);
+        assertEquals(1000, reopened.getCacheCount());
+        assertTrue(reopened.clear());
+    }
+
+    @Test
+    public void filter() {
+        File dir = new File(PATH_CACHE + "filter" + FILE_SEP);
+        CacheDiskUtils cache = CacheDiskUtils.getInstance(dir);
+        // more than the initial capacity of filter, so it is rebuilt
+        for (int i = 0; i < 2000; i++) {
+            cache.put("string" + i, STRING + i);
+        }
+        for (int i = 0; i < 2000; i++) {
+            assertEquals(STRING + i, cache.getString("string" + i));
+            assertNull(cache.getString("missing" + i));
+        }
+        // the filter of reopened one is built from the journal
+        cache.release();
+        CacheDiskUtils reopened = CacheDiskUtils.getInstance(dir);
+        assertEquals(STRING + 1999, reopened.getString("string1999"));
+        assertNull(reopened.getString("missing"));
+        assertTrue(reopened.clear());
+        assertNull(reopened.getString("string0"));
+        reopened.put("string0", STRING);
+        assertEquals(STRING, reopened.getString("string0"));
+        assertTrue(reopened.clear());
+    }
+
+    @Test
+    public void getMissingWithoutFileAccess() {
+        File dir = new File(PATH_CACHE + "getMissing" + FILE_SEP);
+        CacheDiskUtils cache = CacheDiskUtils.getInstance(dir);
+        cache.put("string", STRING);
+        // the directory is checked when the index is opened, and the index is loaded
+        assertEquals(1, cache.getCacheCount());
+
+        long probeCount = cache.getFileProbeCount();
+        for (int i = 0; i < 100; i++) {
+            assertNull(cache.getString("missing" + i));
+        }
+        assertEquals(probeCount, cache.getFileProbeCount());
+        assertEquals(STRING, cache.getString("string"));
+        assertEquals(probeCount + 1, cache.getFileProbeCount());
+        assertTrue(cache.clear());
+    }
+
+    @Test
+    public void deletedDirectory() {
+        File dir = new File(PATH_CACHE + "deletedDirectory" + FILE_SEP);
+        CacheDiskUtils cache = CacheDiskUtils.getInstance(dir);
+        cache.put("string0", STRING);
+        assertEquals(1, cache.getCacheCount());
+        assertTrue(FileUtils.delete(dir));
+
+        assertNull(cache.getString("string0"));
+        // the write finds the directory missing and makes it again
+        cache.put("string1", STRING);
+        assertEquals(STRING, cache.getString("string1"));
+        assertEquals(1, cache.getCacheCount());
+        assertTrue(cache.clear());
+    }
+
     @Test
     public void remove() {
         assertNotNull(CACHE_DISK_UTILS1.getString("string1"));
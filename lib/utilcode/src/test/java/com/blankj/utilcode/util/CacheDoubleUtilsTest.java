@@ -6,6 +6,8 @@ import android.graphics.drawable.Drawable;
 import android.os.Parcel;
 import android.os.Parcelable;
 
+import androidx.annotation.NonNull;
+
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
@@ -15,13 +17,20 @@ import org.junit.Test;
 
 import java.io.File;
 import java.io.Serializable;
+import java.util.Collections;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static com.blankj.utilcode.util.TestConfig.FILE_SEP;
 import static com.blankj.utilcode.util.TestConfig.PATH_CACHE;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 /**
  * <pre>
@@ -149,9 +158,67 @@ public class CacheDoubleUtilsTest extends BaseTest {
         assertNull(CACHE_DOUBLE_UTILS.getSerializable("serializable"));
     }
 
+    @Test
+    public void promotionNeverByDefault() {
+        // the value read from disk is not put in memory, as before the promotion policy is added
+        CACHE_MEMORY_UTILS.remove("string");
+        CACHE_MEMORY_UTILS.remove("bytes");
+        long putCount = CACHE_MEMORY_UTILS.getStats().getPutCount();
+        assertEquals(STRING, CACHE_DOUBLE_UTILS.getString("string"));
+        assertEquals(STRING, CACHE_DOUBLE_UTILS.getString("string"));
+        assertNull(CACHE_MEMORY_UTILS.get("string"));
+        assertEquals(STRING, new String(CACHE_DOUBLE_UTILS.getAll(Collections.singletonList("bytes")).get("bytes")));
+        assertNull(CACHE_MEMORY_UTILS.get("bytes"));
+        assertEquals(putCount, CACHE_MEMORY_UTILS.getStats().getPutCount());
+    }
+
+    @Test
+    public void promotion() throws Exception {
+        CacheMemoryUtils memoryUtils = CacheMemoryUtils.getInstance("promotion", 10);
+        CacheDoubleUtils always = CacheDoubleUtils.getInstance(memoryUtils, CACHE_DISK_UTILS,
+                new CacheDoubleUtils.Config().setPromotionPolicy(CacheDoubleUtils.PROMOTION_ALWAYS));
+        assertEquals(STRING, always.getString("string"));
+        assertEquals(STRING, memoryUtils.get("string"));
+
+        // the remaining save time on disk is kept in memory
+        always.put("expired", STRING, 1);
+        memoryUtils.remove("expired");
+        assertEquals(STRING, always.getString("expired"));
+        assertEquals(STRING, memoryUtils.get("expired"));
+        Thread.sleep(1500);
+        assertNull(memoryUtils.get("expired"));
+        memoryUtils.clear();
+
+        CacheDoubleUtils secondHit = CacheDoubleUtils.getInstance(memoryUtils, CACHE_DISK_UTILS,
+                new CacheDoubleUtils.Config().setPromotionPolicy(CacheDoubleUtils.PROMOTION_SECOND_HIT));
+        assertEquals(STRING, secondHit.getString("string"));
+        assertNull(memoryUtils.get("string"));
+        assertEquals(STRING, secondHit.getString("string"));
+        assertEquals(STRING, memoryUtils.get("string"));
+        memoryUtils.clear();
+    }
+
+    @Test
+    public void getInstanceWithConfig() {
+        CacheMemoryUtils memoryUtils = CacheMemoryUtils.getInstance("policies", 10);
+        CacheDoubleUtils never = CacheDoubleUtils.getInstance(memoryUtils, CACHE_DISK_UTILS,
+                new CacheDoubleUtils.Config().setPromotionPolicy(CacheDoubleUtils.PROMOTION_NEVER));
+        CacheDoubleUtils always = CacheDoubleUtils.getInstance(memoryUtils, CACHE_DISK_UTILS,
+                new CacheDoubleUtils.Config().setPromotionPolicy(CacheDoubleUtils.PROMOTION_ALWAYS));
+        assertNotSame(never, always);
+        assertSame(never, CacheDoubleUtils.getInstance(memoryUtils, CACHE_DISK_UTILS,
+                new CacheDoubleUtils.Config().setPromotionPolicy(CacheDoubleUtils.PROMOTION_NEVER)));
+
+        assertEquals(STRING, never.getString("string"));
+        assertNull(memoryUtils.get("string"));
+        assertEquals(STRING, always.getString("string"));
+        assertEquals(STRING, memoryUtils.get("string"));
+        memoryUtils.clear();
+    }
+
     @Test
     public void getCacheDiskSize() {
-        assertEquals(FileUtils.getLength(CACHE_FILE), CACHE_DOUBLE_UTILS.getCacheDiskSize());
+        assertEquals(CacheDiskUtilsTest.getCacheFilesLength(CACHE_FILE), CACHE_DOUBLE_UTILS.getCacheDiskSize());
     }
 
     @Test
@@ -164,6 +231,37 @@ public class CacheDoubleUtilsTest extends BaseTest {
         assertEquals(8, CACHE_DOUBLE_UTILS.getCacheMemoryCount());
     }
 
+    @Test
+    public void getBytesOrLoad() throws Exception {
+        final AtomicInteger loadCount = new AtomicInteger();
+        CacheMemoryUtils.Loader<byte[]> loader = new CacheMemoryUtils.Loader<byte[]>() {
+            @Override
+            public byte[] load(@NonNull String key) {
+                loadCount.incrementAndGet();
+                return BYTES;
+            }
+        };
+        assertArrayEquals(BYTES, CACHE_DOUBLE_UTILS.getBytesOrLoad("loaded", loader));
+        assertArrayEquals(BYTES, CACHE_DISK_UTILS.getBytes("loaded"));
+        // it is read from disk instead of loading again
+        CACHE_MEMORY_UTILS.remove("loaded");
+        assertArrayEquals(BYTES, CACHE_DOUBLE_UTILS.getBytesOrLoad("loaded", loader));
+        assertEquals(1, loadCount.get());
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final byte[][] result = new byte[1][];
+        CACHE_DOUBLE_UTILS.getBytesOrLoad("loadedAsync", loader, ThreadUtils.getIoPool(), new Utils.Consumer<byte[]>() {
+            @Override
+            public void accept(byte[] bytes) {
+                result[0] = bytes;
+                latch.countDown();
+            }
+        });
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        assertArrayEquals(BYTES, result[0]);
+        assertEquals(2, loadCount.get());
+    }
+
     @Test
     public void remove() {
         assertNotNull(CACHE_DOUBLE_UTILS.getString("string"));
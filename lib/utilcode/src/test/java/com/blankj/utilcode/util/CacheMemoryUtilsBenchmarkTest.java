@@ -0,0 +1,182 @@
+package com.blankj.utilcode.util;
+
+import androidx.collection.LruCache;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+
+/**
+ * <pre>
+ *     author: Blankj
+ *     blog  : http://blankj.com
+ *     time  : 2026/10/18
+ *     desc  : benchmark of CacheMemoryUtils
+ * </pre>
+ */
+public class CacheMemoryUtilsBenchmarkTest extends BaseTest {
+
+    private static final int KEY_COUNT = 4096;
+    private static final int WARMUP    = 2;
+    private static final int MEASURE   = 5;
+
+    /**
+     * Read a full cache from 2 * CPU + 1 threads with 10% writes, by a plain {@link LruCache}
+     * and by the memory caches with 1 and 16 segments, the segmented one should scale with threads.
+     */
+//    @Test
+    public void readHeavyConcurrency() throws Exception {
+        final int threadCount = 2 * Runtime.getRuntime().availableProcessors() + 1;
+        final int times = 200000;
+        final String[] keys = new String[KEY_COUNT];
+        for (int i = 0; i < KEY_COUNT; i++) {
+            keys[i] = "key" + i;
+        }
+
+        final LruCache<String, Object> lruCache = new LruCache<>(KEY_COUNT);
+        final CacheMemoryUtils unsegmented = CacheMemoryUtils.getInstance(
+                "benchmarkUnsegmented", KEY_COUNT, new CacheMemoryUtils.Config()
+        );
+        final CacheMemoryUtils segmented = CacheMemoryUtils.getInstance(
+                "benchmarkSegmented", KEY_COUNT, new CacheMemoryUtils.Config().setConcurrencyLevel(16)
+        );
+        for (String key : keys) {
+            lruCache.put(key, key);
+            unsegmented.put(key, key);
+            segmented.put(key, key);
+        }
+
+        long lruCacheCost = measure(threadCount, new Runnable() {
+            @Override
+            public void run() {
+                Random random = new Random();
+                for (int i = 0; i < times; i++) {
+                    String key = keys[random.nextInt(KEY_COUNT)];
+                    if (i % 10 == 0) {
+                        lruCache.put(key, key);
+                    } else {
+                        lruCache.get(key);
+                    }
+                }
+            }
+        });
+        long unsegmentedCost = measure(threadCount, newTask(unsegmented, keys, times));
+        long segmentedCost = measure(threadCount, newTask(segmented, keys, times));
+        long total = (long) threadCount * times;
+        System.out.println(
+                "Run " + total + " times from " + threadCount + " threads, " + MEASURE + " iterations." +
+                "\nLruCacheThroughput: " + total * 1000 / lruCacheCost + " ops/ms" +
+                "\nUnsegmentedThroughput: " + total * 1000 / unsegmentedCost + " ops/ms" +
+                "\nSegmentedThroughput: " + total * 1000 / segmentedCost + " ops/ms"
+        );
+    }
+
+    /**
+     * Replay a Zipf trace and the same trace mixed with scans of keys which are used once,
+     * by the memory caches with LRU and W-TinyLFU, W-TinyLFU should hit more, especially with scans.
+     */
+//    @Test
+    public void hitRatio() {
+        final int cacheSize = 500;
+        final int[] zipfTrace = zipfTrace(10000, 0.99, 500000, new Random(1));
+        final int[] scanTrace = new int[zipfTrace.length];
+        int scanKey = 10000;
+        for (int i = 0; i < zipfTrace.length; i++) {
+            // a scan of 2000 new keys every 10000 accesses, such as a list which is flung
+            scanTrace[i] = i % 10000 < 2000 ? scanKey++ : zipfTrace[i];
+        }
+        System.out.println(
+                "Replay " + zipfTrace.length + " accesses with cache size " + cacheSize + "." +
+                "\nZipfLruHitRate: " + hitRate("zipfLru", cacheSize, false, zipfTrace) +
+                "\nZipfTinyLfuHitRate: " + hitRate("zipfTinyLfu", cacheSize, true, zipfTrace) +
+                "\nScanLruHitRate: " + hitRate("scanLru", cacheSize, false, scanTrace) +
+                "\nScanTinyLfuHitRate: " + hitRate("scanTinyLfu", cacheSize, true, scanTrace)
+        );
+    }
+
+    private double hitRate(final String cacheKey, final int cacheSize, final boolean tinyLfuEnabled, final int[] trace) {
+        CacheMemoryUtils cache = CacheMemoryUtils.getInstance(
+                "benchmark_" + cacheKey, cacheSize, new CacheMemoryUtils.Config().setTinyLfuEnabled(tinyLfuEnabled)
+        );
+        for (int key : trace) {
+            String realKey = String.valueOf(key);
+            if (cache.get(realKey) == null) {
+                cache.put(realKey, realKey);
+            }
+        }
+        return cache.getStats().getHitRate();
+    }
+
+    /**
+     * Return the trace of keys in [0, keyCount) whose frequencies follow Zipf's law with exponent.
+     */
+    private int[] zipfTrace(final int keyCount, final double exponent, final int length, final Random random) {
+        double[] cdf = new double[keyCount];
+        double sum = 0;
+        for (int i = 0; i < keyCount; i++) {
+            sum += 1 / Math.pow(i + 1, exponent);
+            cdf[i] = sum;
+        }
+        int[] trace = new int[length];
+        for (int i = 0; i < length; i++) {
+            int index = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+            trace[i] = index >= 0 ? index : Math.min(-index - 1, keyCount - 1);
+        }
+        return trace;
+    }
+
+    private Runnable newTask(final CacheMemoryUtils cache, final String[] keys, final int times) {
+        return new Runnable() {
+            @Override
+            public void run() {
+                Random random = new Random();
+                for (int i = 0; i < times; i++) {
+                    String key = keys[random.nextInt(KEY_COUNT)];
+                    if (i % 10 == 0) {
+                        cache.put(key, key);
+                    } else {
+                        cache.get(key);
+                    }
+                }
+            }
+        };
+    }
+
+    /**
+     * Return the average cost in microseconds of the measured iterations after warmup.
+     */
+    private long measure(final int threadCount, final Runnable runnable) throws InterruptedException {
+        for (int i = 0; i < WARMUP; i++) {
+            concurrentRun(threadCount, runnable);
+        }
+        long cost = 0;
+        for (int i = 0; i < MEASURE; i++) {
+            cost += concurrentRun(threadCount, runnable);
+        }
+        return Math.max(cost / MEASURE / 1000, 1);
+    }
+
+    private long concurrentRun(final int threadCount, final Runnable runnable) throws InterruptedException {
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final CountDownLatch doneLatch = new CountDownLatch(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        startLatch.await();
+                        runnable.run();
+                    } catch (InterruptedException e) {
+                        e.printStackTrace();
+                    } finally {
+                        doneLatch.countDown();
+                    }
+                }
+            }).start();
+        }
+        long cur = System.nanoTime();
+        startLatch.countDown();
+        doneLatch.await();
+        return System.nanoTime() - cur;
+    }
+}
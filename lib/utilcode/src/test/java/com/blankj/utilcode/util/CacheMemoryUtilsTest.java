@@ -1,10 +1,22 @@
 package com.blankj.utilcode.util;
 
+import android.content.ComponentCallbacks2;
+
+import androidx.annotation.NonNull;
+
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 /**
  * <pre>
@@ -29,6 +41,42 @@ public class CacheMemoryUtilsTest extends BaseTest {
         }
     }
 
+    @Test
+    public void getInstanceConcurrently() throws Exception {
+        final CacheMemoryUtils[] instances = new CacheMemoryUtils[8];
+        Thread[] threads = new Thread[instances.length];
+        for (int t = 0; t < threads.length; t++) {
+            final int id = t;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    instances[id] = CacheMemoryUtils.getInstance("concurrently", 10);
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        // it is created once
+        for (CacheMemoryUtils instance : instances) {
+            assertTrue(instance == instances[0]);
+        }
+    }
+
+    @Test
+    public void getInstanceWithConfig() {
+        CacheMemoryUtils cache = CacheMemoryUtils.getInstance("config", 10);
+        assertSame(cache, CacheMemoryUtils.getInstance("config", 10));
+        assertSame(cache, CacheMemoryUtils.getInstance("config", 10, null));
+        // the same key with another size or config is another cache
+        assertNotSame(cache, CacheMemoryUtils.getInstance("config", 20));
+        CacheMemoryUtils.Config config = new CacheMemoryUtils.Config().setWeigher(CacheMemoryUtils.DEFAULT_WEIGHER);
+        CacheMemoryUtils weighed = CacheMemoryUtils.getInstance("config", 10, config);
+        assertNotSame(cache, weighed);
+        assertSame(weighed, CacheMemoryUtils.getInstance("config", 10, config));
+    }
+
     @Test
     public void get() {
         for (int i = 0; i < 10; i++) {
@@ -54,6 +102,90 @@ public class CacheMemoryUtilsTest extends BaseTest {
         assertNull(mCacheMemoryUtils1.get("10"));
     }
 
+    @Test
+    public void sweepExpired() throws Exception {
+        CacheMemoryUtils sweep = CacheMemoryUtils.getInstance(
+                "sweep", 10, new CacheMemoryUtils.Config().setSweepInterval(0)
+        );
+        sweep.put("expired0", 0, 1);
+        sweep.put("expired1", 1, 1);
+        sweep.put("live", 2);
+        // the timer wheel expires them within one tick of about 1 second
+        Thread.sleep(2100);
+        assertEquals(3, sweep.getCacheCount());
+        assertEquals(2, sweep.sweepExpired());
+        assertEquals(1, sweep.getCacheCount());
+
+        sweep.put("expired2", 2, 1);
+        Thread.sleep(2100);
+        // it is removed by accessing the other one
+        assertEquals(2, sweep.get("live"));
+        assertEquals(1, sweep.getCacheCount());
+        sweep.clear();
+    }
+
+    @Test
+    public void getOrLoad() throws Exception {
+        final AtomicInteger loadCount = new AtomicInteger();
+        final CacheMemoryUtils.Loader<String> loader = new CacheMemoryUtils.Loader<String>() {
+            @Override
+            public String load(@NonNull String key) throws Exception {
+                // the first one fails
+                if (loadCount.incrementAndGet() == 1) throw new Exception("load failed");
+                Thread.sleep(100);
+                return "value_" + key;
+            }
+        };
+        assertNull(mCacheMemoryUtils1.getOrLoad("loaded", loader));
+        assertNull(mCacheMemoryUtils1.get("loaded"));
+
+        final AtomicInteger wrongCount = new AtomicInteger();
+        Thread[] threads = new Thread[8];
+        for (int t = 0; t < threads.length; t++) {
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    if (!"value_loaded".equals(mCacheMemoryUtils1.getOrLoad("loaded", loader))) {
+                        wrongCount.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, wrongCount.get());
+        // the concurrent gets are coalesced into one load
+        assertEquals(2, loadCount.get());
+        assertEquals("value_loaded", mCacheMemoryUtils1.get("loaded"));
+    }
+
+    @Test
+    public void refreshAfterWrite() throws Exception {
+        CacheMemoryUtils refresh = CacheMemoryUtils.getInstance(
+                "refreshAfterWrite", 10, new CacheMemoryUtils.Config().setRefreshAfterWrite(1)
+        );
+        final AtomicInteger loadCount = new AtomicInteger();
+        CacheMemoryUtils.Loader<String> loader = new CacheMemoryUtils.Loader<String>() {
+            @Override
+            public String load(@NonNull String key) throws Exception {
+                Thread.sleep(100);
+                return "value_" + loadCount.incrementAndGet();
+            }
+        };
+        assertEquals("value_1", refresh.getOrLoad("refresh", loader, 10));
+        Thread.sleep(1100);
+        // the stale one is returned at once, and refreshed once in background
+        for (int i = 0; i < 10; i++) {
+            assertEquals("value_1", refresh.getOrLoad("refresh", loader, 10));
+        }
+        Thread.sleep(500);
+        assertEquals("value_2", refresh.get("refresh"));
+        assertEquals(2, loadCount.get());
+        refresh.clear();
+    }
+
     @Test
     public void getDefault() {
         assertNull(mCacheMemoryUtils1.get("10"));
@@ -73,6 +205,171 @@ public class CacheMemoryUtilsTest extends BaseTest {
         assertNull(mCacheMemoryUtils1.remove("0"));
     }
 
+    @Test
+    public void weigher() {
+        CacheMemoryUtils cache = CacheMemoryUtils.getInstance(
+                "weigher", 1000, new CacheMemoryUtils.Config().setWeigher(CacheMemoryUtils.DEFAULT_WEIGHER)
+        );
+        cache.put("0", new byte[400]);
+        cache.put("1", new byte[400]);
+        assertEquals(800, cache.getCacheSize());
+        cache.put("2", new byte[400]);
+        assertNull(cache.get("0"));
+        assertEquals(2, cache.getCacheCount());
+        assertEquals(800, cache.getCacheSize());
+
+        cache.put("1", "10");
+        assertEquals(404, cache.getCacheSize());
+        // the one heavier than the max size is not cached, and the others are kept
+        cache.put("3", new byte[1001]);
+        assertNull(cache.get("3"));
+        assertEquals(2, cache.getCacheCount());
+        cache.clear();
+        assertEquals(0, cache.getCacheSize());
+        assertEquals(0, cache.getCacheCount());
+    }
+
+    @Test
+    public void concurrencyLevel() throws Exception {
+        final CacheMemoryUtils cache = CacheMemoryUtils.getInstance(
+                "concurrencyLevel", 64, new CacheMemoryUtils.Config().setConcurrencyLevel(4)
+        );
+        final AtomicInteger wrongCount = new AtomicInteger();
+        Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++) {
+            final int id = t;
+            threads[t] = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    for (int i = 0; i < 1000; i++) {
+                        String key = id + "_" + i;
+                        cache.put(key, i);
+                        // it may be evicted by the others, but never be another value
+                        Integer value = cache.get(key);
+                        if (value != null && value != i) wrongCount.incrementAndGet();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals(0, wrongCount.get());
+        // each segment is limited by its part of max count
+        assertTrue(cache.getCacheCount() <= 64);
+        assertEquals(cache.getCacheCount(), cache.getCacheSize());
+        cache.clear();
+        assertEquals(0, cache.getCacheCount());
+    }
+
+    @Test
+    public void concurrencyLevelRejection() {
+        CacheMemoryUtils cache = CacheMemoryUtils.getInstance(
+                "concurrencyLevelRejection", 1000, new CacheMemoryUtils.Config()
+                        .setWeigher(CacheMemoryUtils.DEFAULT_WEIGHER)
+                        .setConcurrencyLevel(4)
+                        .setSoftOverflowMinWeight(0)
+        );
+        cache.put("small", new byte[100]);
+        // it fits in the cache, but is heavier than the max size of its segment
+        cache.put("big", new byte[400]);
+        assertNull(cache.get("big"));
+        assertNull(cache.get("big"));
+        assertEquals(1, cache.getStats().getRejectionCount());
+        assertEquals(0, cache.getStats().getEvictionCount());
+        assertEquals(100, cache.getCacheSize());
+    }
+
+    @Test
+    public void tinyLfu() {
+        CacheMemoryUtils cache = CacheMemoryUtils.getInstance(
+                "tinyLfu", 100, new CacheMemoryUtils.Config().setTinyLfuEnabled(true)
+        );
+        for (int time = 0; time < 20; time++) {
+            for (int i = 0; i < 50; i++) {
+                if (cache.get("hot" + i) == null) cache.put("hot" + i, i);
+            }
+        }
+        // the keys which are used once are not admitted over the hot keys
+        for (int i = 0; i < 1000; i++) {
+            cache.put("scan" + i, i);
+        }
+        int hotCount = 0;
+        for (int i = 0; i < 50; i++) {
+            if (cache.get("hot" + i) != null) hotCount++;
+        }
+        assertTrue(hotCount >= 45);
+        assertEquals(100, cache.getCacheCount());
+        assertEquals(1, cache.remove("hot1"));
+        assertEquals(99, cache.getCacheCount());
+        cache.clear();
+        assertEquals(0, cache.getCacheSize());
+    }
+
+    @Test
+    public void trimMemory() {
+        CacheMemoryUtils low = CacheMemoryUtils.getInstance(
+                "trimLow", 10, new CacheMemoryUtils.Config().setTrimPriority(CacheMemoryUtils.TRIM_PRIORITY_LOW)
+        );
+        CacheMemoryUtils high = CacheMemoryUtils.getInstance(
+                "trimHigh", 10, new CacheMemoryUtils.Config().setTrimPriority(CacheMemoryUtils.TRIM_PRIORITY_HIGH)
+        );
+        for (int i = 0; i < 10; i++) {
+            low.put(String.valueOf(i), i);
+            high.put(String.valueOf(i), i);
+        }
+        low.trimMemory(ComponentCallbacks2.TRIM_MEMORY_BACKGROUND);
+        high.trimMemory(ComponentCallbacks2.TRIM_MEMORY_BACKGROUND);
+        assertEquals(5, low.getCacheCount());
+        assertEquals(10, high.getCacheCount());
+        // the least recently used ones are evicted
+        assertEquals(9, low.get("9"));
+
+        low.trimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+        high.trimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+        assertEquals(0, low.getCacheCount());
+        assertEquals(5, high.getCacheCount());
+    }
+
+    @Test
+    public void softOverflow() {
+        CacheMemoryUtils cache = CacheMemoryUtils.getInstance(
+                "softOverflow", 1000, new CacheMemoryUtils.Config()
+                        .setWeigher(CacheMemoryUtils.DEFAULT_WEIGHER)
+                        .setSoftOverflowMinWeight(300)
+        );
+        cache.put("big0", new byte[400]);
+        cache.put("big1", new byte[400]);
+        cache.put("small", new byte[100]);
+        cache.put("big2", new byte[400]);
+        assertEquals(1, cache.getStats().getEvictionCount());
+        // the evicted one is put back from the soft references
+        assertEquals(400, cache.<byte[]>get("big0").length);
+        assertEquals(3, cache.getCacheCount());
+        cache.remove("big0");
+        assertNull(cache.get("big0"));
+
+        cache.trimMemory(ComponentCallbacks2.TRIM_MEMORY_COMPLETE);
+        assertEquals(0, cache.getCacheCount());
+        assertNull(cache.get("big1"));
+    }
+
+    @Test
+    public void bulk() {
+        Map<String, Object> values = new HashMap<>();
+        values.put("bulk_0", 0);
+        values.put("bulk_1", 1);
+        values.put("other", 2);
+        mCacheMemoryUtils1.putAll(values);
+        Map<String, Integer> all = mCacheMemoryUtils1.getAll(Arrays.asList("bulk_0", "bulk_1", "missing"));
+        assertEquals(2, all.size());
+        assertEquals(1, (int) all.get("bulk_1"));
+        assertEquals(2, mCacheMemoryUtils1.removeByPrefix("bulk_"));
+        assertNull(mCacheMemoryUtils1.get("bulk_0"));
+        assertEquals(2, mCacheMemoryUtils1.get("other"));
+    }
+
     @Test
     public void clear() {
         mCacheMemoryUtils1.clear();
@@ -0,0 +1,88 @@
+package com.blankj.utilcode.util;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * <pre>
+ *     author: Blankj
+ *     blog  : http://blankj.com
+ *     time  : 2026/10/18
+ *     desc  : benchmark of CacheStats
+ * </pre>
+ */
+public class CacheStatsBenchmarkTest extends BaseTest {
+
+    /**
+     * Record reads from 2 * CPU + 1 threads by the striped stats and by a single shared counter,
+     * and read a memory cache with stats, the cost of recording should be a small part of a read.
+     */
+//    @Test
+    public void recordOverhead() throws Exception {
+        final int threadCount = 2 * Runtime.getRuntime().availableProcessors() + 1;
+        final int times = 1000000;
+        final CacheStats stats = new CacheStats();
+        final AtomicLong counter = new AtomicLong();
+        final CacheMemoryUtils cache = CacheMemoryUtils.getInstance("statsBenchmark", 1024);
+        for (int i = 0; i < 1024; i++) {
+            cache.put(String.valueOf(i), i);
+        }
+        long statsCost = concurrentRun(threadCount, new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < times; i++) {
+                    stats.recordRead(System.nanoTime(), true);
+                }
+            }
+        });
+        long counterCost = concurrentRun(threadCount, new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < times; i++) {
+                    System.nanoTime();
+                    counter.incrementAndGet();
+                }
+            }
+        });
+        long getCost = concurrentRun(threadCount, new Runnable() {
+            @Override
+            public void run() {
+                for (int i = 0; i < times; i++) {
+                    cache.get(String.valueOf(i & 1023));
+                }
+            }
+        });
+        long total = (long) threadCount * times;
+        System.out.println(
+                "Run " + total + " times from " + threadCount + " threads." +
+                "\nStripedStatsRecordCost: " + statsCost / total + "ns" +
+                "\nSharedCounterRecordCost: " + counterCost / total + "ns" +
+                "\nMemoryGetWithStatsCost: " + getCost / total + "ns" +
+                "\n" + cache.getStats()
+        );
+    }
+
+    private long concurrentRun(final int threadCount, final Runnable runnable) throws InterruptedException {
+        final CountDownLatch startLatch = new CountDownLatch(1);
+        final CountDownLatch doneLatch = new CountDownLatch(threadCount);
+        for (int t = 0; t < threadCount; t++) {
+            new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        startLatch.await();
+                        runnable.run();
+                    } catch (InterruptedException e) {
+                        e.printStackTrace();
+                    } finally {
+                        doneLatch.countDown();
+                    }
+                }
+            }).start();
+        }
+        long cur = System.nanoTime();
+        startLatch.countDown();
+        doneLatch.await();
+        return System.nanoTime() - cur;
+    }
+}
@@ -0,0 +1,73 @@
+package com.blankj.utilcode.util;
+
+import org.junit.Test;
+
+import java.io.File;
+
+import static com.blankj.utilcode.util.TestConfig.FILE_SEP;
+import static com.blankj.utilcode.util.TestConfig.PATH_CACHE;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * <pre>
+ *     author: Blankj
+ *     blog  : http://blankj.com
+ *     time  : 2026/10/18
+ *     desc  : test CacheStats
+ * </pre>
+ */
+public class CacheStatsTest extends BaseTest {
+
+    @Test
+    public void memoryStats() {
+        CacheMemoryUtils cache = CacheMemoryUtils.getInstance("stats", 3);
+        CacheStats stats = cache.getStats();
+        stats.reset();
+        for (int i = 0; i < 5; i++) {
+            cache.put(String.valueOf(i), i);
+        }
+        for (int i = 0; i < 5; i++) {
+            cache.get(String.valueOf(i));
+        }
+        assertEquals(5, stats.getPutCount());
+        assertEquals(2, stats.getEvictionCount());
+        assertEquals(3, stats.getHitCount());
+        assertEquals(2, stats.getMissCount());
+        assertEquals(0.6, stats.getHitRate(), 0.0001);
+        assertTrue(stats.getReadLatency(0.99) >= stats.getReadLatency(0.5));
+
+        // clear is not eviction
+        cache.clear();
+        assertEquals(2, stats.getEvictionCount());
+
+        stats.reset();
+        assertEquals(0, stats.getPutCount());
+        assertEquals(0, stats.getHitCount());
+        assertEquals(0, stats.getReadLatency(0.99));
+    }
+
+    @Test
+    public void doubleStats() {
+        CacheMemoryUtils memory = CacheMemoryUtils.getInstance("doubleStats", 1);
+        CacheDiskUtils disk = CacheDiskUtils.getInstance(
+                new File(PATH_CACHE + "doubleStats" + FILE_SEP)
+        );
+        CacheDoubleUtils cache = CacheDoubleUtils.getInstance(memory, disk);
+        cache.getStats().reset();
+        memory.getStats().reset();
+        disk.getStats().reset();
+        cache.put("0", "0");
+        cache.put("1", "1");
+        assertEquals("1", cache.getString("1"));
+        assertEquals("0", cache.getString("0"));
+        assertEquals("miss", cache.getString("2", "miss"));
+
+        assertEquals(2, cache.getStats().getPutCount());
+        assertEquals(2, cache.getStats().getHitCount());
+        assertEquals(1, cache.getStats().getMissCount());
+        assertEquals(1, memory.getStats().getEvictionCount());
+        assertEquals(2, disk.getStats().getHitCount() + disk.getStats().getMissCount());
+        cache.clear();
+    }
+}